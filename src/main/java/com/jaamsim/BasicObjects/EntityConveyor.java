@@ -54,12 +54,10 @@ public class EntityConveyor extends LinkedComponent implements HasScreenPoints {
 	         example = "Conveyor1 Color { red }")
 	private final ColourInput colorInput;
 
-	private final ArrayList<DisplayEntity> entityList;  // List of the entities being conveyed
-	private final ArrayList<Double> startTimeList;  // List of times at which the entities entered the conveyor
+	private final EntityRing entityList;  // The entities being conveyed and the times at which they entered the conveyor
 	private boolean busy;  // True if there are any DisplayEntities being conveyed
-	private double totalLength;  // Graphical length of the conveyor
-	private final ArrayList<Double> lengthList;  // Length of each segment of the conveyor
-	private final ArrayList<Double> cumLengthList;  // Total length to the end of each segment
+	private PathSegments path;  // Segments making up the conveyor
+	private final Vec3d tmpPos = new Vec3d();  // Scratch position used by updateGraphics
 
 	private Object screenPointLock = new Object();
 	private HasScreenPoints.PointsInfo[] cachedPointInfo;
@@ -88,10 +86,7 @@ public class EntityConveyor extends LinkedComponent implements HasScreenPoints {
 	}
 
 	public EntityConveyor() {
-		entityList = new ArrayList<DisplayEntity>();
-		startTimeList = new ArrayList<Double>();
-		lengthList = new ArrayList<Double>();
-		cumLengthList = new ArrayList<Double>();
+		entityList = new EntityRing();
 	}
 
 	@Override
@@ -99,23 +94,10 @@ public class EntityConveyor extends LinkedComponent implements HasScreenPoints {
 		super.earlyInit();
 
 		entityList.clear();
-		startTimeList.clear();
 		busy = false;
 
 	    // Initialize the segment length data
-		lengthList.clear();
-		cumLengthList.clear();
-		totalLength = 0.0;
-		for( int i = 1; i < pointsInput.getValue().size(); i++ ) {
-			// Get length between points
-			Vec3d vec = new Vec3d();
-			vec.sub3( pointsInput.getValue().get(i), pointsInput.getValue().get(i-1));
-			double length = vec.mag3();
-
-			lengthList.add( length);
-			totalLength += length;
-			cumLengthList.add( totalLength);
-		}
+		path = new PathSegments(pointsInput.getValue());
 	}
 
 	@Override
@@ -123,8 +105,7 @@ public class EntityConveyor extends LinkedComponent implements HasScreenPoints {
 		super.addDisplayEntity(ent);
 
 		// Add the entity to the conveyor
-		entityList.add( ent );
-		startTimeList.add( this.getSimTime() );
+		entityList.add( ent, this.getSimTime() );
 
 		// If necessary, wake up the conveyor
 		if ( !busy ) {
@@ -159,12 +140,11 @@ public class EntityConveyor extends LinkedComponent implements HasScreenPoints {
 		while( entityList.size() > 0 ) {
 
 			// Wait for the first entity to reach the end
-			double dt = startTimeList.get(0) + travelTimeInput.getValue() - this.getSimTime();
+			double dt = entityList.getStartTimeAt(0) + travelTimeInput.getValue() - this.getSimTime();
 			this.simWait( dt);
 
 			// Remove the entity from the conveyor
-			DisplayEntity ent = entityList.remove(0);
-			startTimeList.remove(0);
+			DisplayEntity ent = entityList.removeFirst();
 
 			// Send the entity to the next component
 			this.sendToNextComponent(ent);
@@ -174,38 +154,6 @@ public class EntityConveyor extends LinkedComponent implements HasScreenPoints {
 		busy = false;
 	}
 
-	/**
-	 * Return the position coordinates for a given distance along the conveyor.
-	 * @param dist = distance along the conveyor.
-	 * @return position coordinates
-	 */
-	private Vec3d getPositionForDistance( double dist) {
-
-		// Find the present segment
-		int seg = 0;
-		for( int i = 0; i < cumLengthList.size(); i++) {
-			if( dist <= cumLengthList.get(i)) {
-				seg = i;
-				break;
-			}
-		}
-
-		// Interpolate between the start and end of the segment
-		double frac = 0.0;
-		if( seg == 0 ) {
-			frac = dist / lengthList.get(0);
-		}
-		else {
-			frac = ( dist - cumLengthList.get(seg-1) ) / lengthList.get(seg);
-		}
-		if( frac < 0.0 )  frac = 0.0;
-		else if( frac > 1.0 )  frac = 1.0;
-
-		Vec3d vec = new Vec3d();
-		vec.interpolate3(pointsInput.getValue().get(seg), pointsInput.getValue().get(seg+1), frac);
-		return vec;
-	}
-
 	@Override
 	public void updateForInput( Input<?> in ) {
 		super.updateForInput(in);
@@ -222,15 +170,25 @@ public class EntityConveyor extends LinkedComponent implements HasScreenPoints {
 	@Override
 	public void updateGraphics( double simTime ) {
 
+		PathSegments p = path;
+		if( p == null )
+			return;
+
 		// Loop through the entities on the conveyor
-		for( int i = 0; i < entityList.size(); i++) {
-			DisplayEntity each = entityList.get( i );
+		double speed = p.getTotalLength() / travelTimeInput.getValue();
+		for( int i = 0; i < entityList.getSlotCount(); i++) {
+			DisplayEntity each = entityList.getAt( i );
+
+			// Only entities that can be seen need to be positioned
+			if( each == null || !each.getShow() )
+				continue;
 
 			// Calculate the distance travelled by this entity
-			double dist = ( simTime - startTimeList.get(i) ) / travelTimeInput.getValue() * totalLength;
+			double dist = ( simTime - entityList.getStartTimeAt(i) ) * speed;
 
 			// Set the position for the entity
-			each.setPosition( this.getPositionForDistance( dist) );
+			p.getPositionForDistance( dist, tmpPos );
+			each.setPosition( tmpPos );
 		}
 	}
 
@@ -56,13 +56,10 @@ public class EntityDelay extends LinkedComponent implements HasScreenPoints {
 	         example = "Delay-1 Color { red }")
 	private final ColourInput colorInput;
 
-	private final ArrayList<DisplayEntity> entityList;  // List of the entities being handled
-	private final ArrayList<Double> startTimeList;  // List of times at which the entities started their delay
-	private final ArrayList<Double> durationList;  // List of durations for the entities
+	private final EntityRing entityList;  // The entities being handled with their start times and durations
 
-	private double totalLength;  // Graphical length of the path
-	private final ArrayList<Double> lengthList;  // Length of each segment of the path
-	private final ArrayList<Double> cumLengthList;  // Total length to the end of each segment
+	private PathSegments path;  // Segments making up the path
+	private final Vec3d tmpPos = new Vec3d();  // Scratch position used by updateGraphics
 
 	private Object screenPointLock = new Object();
 	private HasScreenPoints.PointsInfo[] cachedPointInfo;
@@ -90,11 +87,7 @@ public class EntityDelay extends LinkedComponent implements HasScreenPoints {
 	}
 
 	public EntityDelay() {
-		entityList = new ArrayList<DisplayEntity>();
-		startTimeList = new ArrayList<Double>();
-		durationList = new ArrayList<Double>();
-		lengthList = new ArrayList<Double>();
-		cumLengthList = new ArrayList<Double>();
+		entityList = new EntityRing();
 	}
 
 	@Override
@@ -102,23 +95,9 @@ public class EntityDelay extends LinkedComponent implements HasScreenPoints {
 		super.earlyInit();
 
 		entityList.clear();
-		startTimeList.clear();
-		durationList.clear();
 
 	    // Initialize the segment length data
-		lengthList.clear();
-		cumLengthList.clear();
-		totalLength = 0.0;
-		for( int i = 1; i < pointsInput.getValue().size(); i++ ) {
-			// Get length between points
-			Vec3d vec = new Vec3d();
-			vec.sub3( pointsInput.getValue().get(i), pointsInput.getValue().get(i-1));
-			double length = vec.mag3();
-
-			lengthList.add( length);
-			totalLength += length;
-			cumLengthList.add( totalLength);
-		}
+		path = new PathSegments(pointsInput.getValue());
 	}
 
 	@Override
@@ -128,27 +107,27 @@ public class EntityDelay extends LinkedComponent implements HasScreenPoints {
 		// Add the entity to the list of entities being delayed
 		double simTime = this.getSimTime();
 		double dur = duration.getValue().getNextSample(simTime);
-		entityList.add( ent );
-		startTimeList.add(simTime);
-		durationList.add(dur);
+		long seq = entityList.add(ent, simTime, dur);
 
-		this.scheduleProcess(dur, 5, new RemoveDisplayEntityTarget(this, "removeDisplayEntity", ent));
+		this.scheduleProcess(dur, 5, new RemoveDisplayEntityTarget(this, "removeDisplayEntity", ent, seq));
 	}
 
 	private static class RemoveDisplayEntityTarget extends ProcessTarget {
 		private final EntityDelay delay;
 		private final String method;
 		private final DisplayEntity ent;
+		private final long seq;
 
-		RemoveDisplayEntityTarget(EntityDelay d, String m, DisplayEntity e) {
+		RemoveDisplayEntityTarget(EntityDelay d, String m, DisplayEntity e, long s) {
 			delay = d;
 			method = m;
 			ent = e;
+			seq = s;
 		}
 
 		@Override
 		public void process() {
-			delay.removeDisplayEntity(ent);
+			delay.removeDisplayEntity(seq);
 		}
 
 		@Override
@@ -157,50 +136,15 @@ public class EntityDelay extends LinkedComponent implements HasScreenPoints {
 		}
 	}
 
-	public void removeDisplayEntity(DisplayEntity ent) {
+	private void removeDisplayEntity(long seq) {
 
-		// Remove the entity from the lists
-		int index = entityList.indexOf(ent);
-		entityList.remove(index);
-		startTimeList.remove(index);
-		durationList.remove(index);
+		// Remove the entity from the ring
+		DisplayEntity ent = entityList.remove(seq);
 
 		// Send the entity to the next component
 		this.sendToNextComponent(ent);
 	}
 
-	/**
-	 * Return the position coordinates for a given distance along the path.
-	 * @param dist = distance along the path.
-	 * @return position coordinates
-	 */
-	private Vec3d getPositionForDistance( double dist) {
-
-		// Find the present segment
-		int seg = 0;
-		for( int i = 0; i < cumLengthList.size(); i++) {
-			if( dist <= cumLengthList.get(i)) {
-				seg = i;
-				break;
-			}
-		}
-
-		// Interpolate between the start and end of the segment
-		double frac = 0.0;
-		if( seg == 0 ) {
-			frac = dist / lengthList.get(0);
-		}
-		else {
-			frac = ( dist - cumLengthList.get(seg-1) ) / lengthList.get(seg);
-		}
-		if( frac < 0.0 )  frac = 0.0;
-		else if( frac > 1.0 )  frac = 1.0;
-
-		Vec3d vec = new Vec3d();
-		vec.interpolate3(pointsInput.getValue().get(seg), pointsInput.getValue().get(seg+1), frac);
-		return vec;
-	}
-
 	@Override
 	public void updateForInput( Input<?> in ) {
 		super.updateForInput(in);
@@ -217,15 +161,24 @@ public class EntityDelay extends LinkedComponent implements HasScreenPoints {
 	@Override
 	public void updateGraphics( double simTime ) {
 
+		PathSegments p = path;
+		if( p == null )
+			return;
+
 		// Loop through the entities on the path
-		for( int i = 0; i < entityList.size(); i++) {
-			DisplayEntity each = entityList.get( i );
+		for( int i = 0; i < entityList.getSlotCount(); i++) {
+			DisplayEntity each = entityList.getAt( i );
+
+			// Only entities that can be seen need to be positioned
+			if( each == null || !each.getShow() )
+				continue;
 
 			// Calculate the distance travelled by this entity
-			double dist = ( simTime - startTimeList.get(i) ) / durationList.get(i) * totalLength;
+			double dist = ( simTime - entityList.getStartTimeAt(i) ) / entityList.getDurationAt(i) * p.getTotalLength();
 
 			// Set the position for the entity
-			each.setPosition( this.getPositionForDistance( dist) );
+			p.getPositionForDistance( dist, tmpPos );
+			each.setPosition( tmpPos );
 		}
 	}
 
@@ -0,0 +1,220 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.BasicObjects;
+
+import com.sandwell.JavaSimulation3D.DisplayEntity;
+
+/**
+ * A growable ring buffer of DisplayEntities together with the time each one started moving and
+ * the duration of its move, stored in primitive arrays.
+ * <p>
+ * Every entry is identified by a sequence number that is assigned when it is added and never
+ * changes, so entries can be removed from the middle of the ring. A removed entry leaves an empty
+ * slot that is reclaimed at once if it is the oldest slot in the ring. The empty slots further
+ * along are squeezed out when the ring fills up, so the ring never holds more slots than four times
+ * the largest number of entries it has held at once (or its initial capacity of 16), however many
+ * entries have passed through it.
+ * <p>
+ * The slots are visited in the order their entries were added, by position from 0 to
+ * getSlotCount() - 1. An empty slot returns a null entity.
+ */
+class EntityRing {
+	private static final int INITIAL_CAPACITY = 16;
+
+	private DisplayEntity[] ents;
+	private double[] startTimes;
+	private double[] durations;
+	private long[] seqs;  // Sequence number of each slot, increasing from the oldest slot
+	private int mask;
+
+	private int first;  // Index of the oldest slot in the arrays
+	private int used;  // Number of slots between the oldest slot and the end of the ring
+	private int count;  // Number of entries that have not been removed
+	private long nextSeq;  // Sequence number that will be given to the next entry
+
+	EntityRing() {
+		this.allocate(INITIAL_CAPACITY);
+	}
+
+	private void allocate(int capacity) {
+		ents = new DisplayEntity[capacity];
+		startTimes = new double[capacity];
+		durations = new double[capacity];
+		seqs = new long[capacity];
+		mask = capacity - 1;
+	}
+
+	void clear() {
+		this.allocate(INITIAL_CAPACITY);
+		first = 0;
+		used = 0;
+		count = 0;
+		nextSeq = 0;
+	}
+
+	int size() {
+		return count;
+	}
+
+	/**
+	 * Returns the number of slots in the ring, including the empty ones.
+	 */
+	int getSlotCount() {
+		return used;
+	}
+
+	int getCapacity() {
+		return ents.length;
+	}
+
+	/**
+	 * Adds an entry with no duration to the end of the ring and returns its sequence number.
+	 */
+	long add(DisplayEntity ent, double startTime) {
+		return this.add(ent, startTime, 0.0d);
+	}
+
+	/**
+	 * Adds an entry to the end of the ring and returns its sequence number.
+	 */
+	long add(DisplayEntity ent, double startTime, double duration) {
+		// A ring that is at least half empty slots is packed instead of grown
+		if (used == ents.length) {
+			if (count <= ents.length / 2)
+				this.repack(ents.length);
+			else
+				this.repack(ents.length * 2);
+		}
+
+		int i = (first + used) & mask;
+		ents[i] = ent;
+		startTimes[i] = startTime;
+		durations[i] = duration;
+		seqs[i] = nextSeq;
+		used++;
+		count++;
+		return nextSeq++;
+	}
+
+	/**
+	 * Copies the entries into new arrays with the given capacity, leaving out the empty slots.
+	 * New arrays are used even at the same capacity as the renderer may be reading the old ones.
+	 */
+	private void repack(int capacity) {
+		DisplayEntity[] oldEnts = ents;
+		double[] oldStart = startTimes;
+		double[] oldDur = durations;
+		long[] oldSeqs = seqs;
+		int oldMask = mask;
+
+		this.allocate(capacity);
+		int n = 0;
+		for (int pos = 0; pos < used; pos++) {
+			int i = (first + pos) & oldMask;
+			if (oldEnts[i] == null)
+				continue;
+			ents[n] = oldEnts[i];
+			startTimes[n] = oldStart[i];
+			durations[n] = oldDur[i];
+			seqs[n] = oldSeqs[i];
+			n++;
+		}
+		first = 0;
+		used = n;
+	}
+
+	/**
+	 * Returns the position of the slot with the given sequence number, or -1 if there is none.
+	 */
+	private int find(long seq) {
+		if (used == 0)
+			return -1;
+
+		// Until empty slots are squeezed out, a slot is at its distance from the oldest slot
+		long dist = seq - seqs[first];
+		if (dist < 0)
+			return -1;
+		if (dist < used && seqs[(first + (int)dist) & mask] == seq)
+			return (int)dist;
+
+		// Otherwise it is found by a binary search on the increasing sequence numbers
+		int lo = 0;
+		int hi = (int)Math.min(used - 1, dist);
+		while (lo <= hi) {
+			int mid = (lo + hi) >>> 1;
+			long midSeq = seqs[(first + mid) & mask];
+			if (midSeq < seq)
+				lo = mid + 1;
+			else if (midSeq > seq)
+				hi = mid - 1;
+			else
+				return mid;
+		}
+		return -1;
+	}
+
+	// The renderer reads the ring while it may be changing, each array is indexed with its own
+	// length so that a stale read returns a wrong slot for one frame rather than failing
+
+	/**
+	 * Returns the entity in the slot at the given position, or null if it has been removed.
+	 */
+	DisplayEntity getAt(int pos) {
+		DisplayEntity[] arr = ents;
+		return arr[(first + pos) & (arr.length - 1)];
+	}
+
+	double getStartTimeAt(int pos) {
+		double[] arr = startTimes;
+		return arr[(first + pos) & (arr.length - 1)];
+	}
+
+	double getDurationAt(int pos) {
+		double[] arr = durations;
+		return arr[(first + pos) & (arr.length - 1)];
+	}
+
+	/**
+	 * Removes the entry with the given sequence number.
+	 * @return the entity that was removed, or null if there is no such entry
+	 */
+	DisplayEntity remove(long seq) {
+		int pos = this.find(seq);
+		if (pos == -1)
+			return null;
+
+		int i = (first + pos) & mask;
+		DisplayEntity ent = ents[i];
+		if (ent == null)
+			return null;
+
+		ents[i] = null;
+		count--;
+
+		// Reclaim the empty slots at the start of the ring
+		while (used > 0 && ents[first] == null) {
+			first = (first + 1) & mask;
+			used--;
+		}
+
+		return ent;
+	}
+
+	DisplayEntity removeFirst() {
+		if (count == 0)
+			return null;
+		return this.remove(seqs[first]);
+	}
+}
@@ -0,0 +1,92 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.BasicObjects;
+
+import java.util.ArrayList;
+
+import com.jaamsim.math.Vec3d;
+
+/**
+ * The line segments making up a path, with the cumulative length to the end of each segment
+ * held in a primitive array so that the segment for a given distance can be found by bisection.
+ */
+class PathSegments {
+	private final ArrayList<Vec3d> points;
+	private final double[] lengths;  // Length of each segment of the path
+	private final double[] cumLengths;  // Total length to the end of each segment
+	private final double totalLength;  // Graphical length of the path
+
+	PathSegments(ArrayList<Vec3d> pts) {
+		points = pts;
+		lengths = new double[pts.size() - 1];
+		cumLengths = new double[pts.size() - 1];
+
+		double total = 0.0d;
+		Vec3d vec = new Vec3d();
+		for (int i = 1; i < pts.size(); i++) {
+			// Get length between points
+			vec.sub3(pts.get(i), pts.get(i-1));
+			lengths[i-1] = vec.mag3();
+			total += lengths[i-1];
+			cumLengths[i-1] = total;
+		}
+		totalLength = total;
+	}
+
+	double getTotalLength() {
+		return totalLength;
+	}
+
+	/**
+	 * Returns the index of the first segment whose end lies at or beyond the given distance.
+	 * Distances beyond the end of the path return the last segment.
+	 */
+	int getSegment(double dist) {
+		int lo = 0;
+		int hi = cumLengths.length - 1;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (dist <= cumLengths[mid])
+				hi = mid;
+			else
+				lo = mid + 1;
+		}
+		return lo;
+	}
+
+	/**
+	 * Sets the given vector to the position coordinates for a given distance along the path.
+	 * @param dist = distance along the path.
+	 * @param pos = vector to receive the position coordinates
+	 */
+	void getPositionForDistance(double dist, Vec3d pos) {
+
+		// Find the present segment
+		int seg = this.getSegment(dist);
+
+		// Interpolate between the start and end of the segment
+		double frac = 0.0;
+		if( seg == 0 ) {
+			frac = dist / lengths[0];
+		}
+		else {
+			frac = ( dist - cumLengths[seg-1] ) / lengths[seg];
+		}
+		if( frac < 0.0 )  frac = 0.0;
+		else if( frac > 1.0 )  frac = 1.0;
+
+		pos.interpolate3(points.get(seg), points.get(seg+1), frac);
+	}
+}
@@ -0,0 +1,65 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.BasicObjects;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+
+/**
+ * Converts a record file written by a Recorder to CSV, with one line per row and the
+ * simulation time in seconds in the first column.
+ */
+public class RecordExporter {
+
+	public static void main(String[] args) {
+		if (args.length != 2) {
+			System.out.println("Usage: RecordExporter [record-input-filename] [csv-output-filename]");
+			return;
+		}
+
+		try {
+			RecordFileReader rec = RecordFileReader.read(new File(args[0]));
+
+			BufferedWriter out = new BufferedWriter(new FileWriter(args[1]), 1 << 16);
+			out.write("Time (s)");
+			for (int c = 0; c < rec.getNumColumns(); c++) {
+				out.write(",\"");
+				out.write(rec.getName(c));
+				if (!rec.getUnit(c).isEmpty()) {
+					out.write(" (");
+					out.write(rec.getUnit(c));
+					out.write(")");
+				}
+				out.write("\"");
+			}
+			out.newLine();
+
+			for (int r = 0; r < rec.getNumRows(); r++) {
+				out.write(Double.toString(rec.getTime(r)));
+				for (int c = 0; c < rec.getNumColumns(); c++) {
+					out.write(",");
+					out.write(Double.toString(rec.getValue(r, c)));
+				}
+				out.newLine();
+			}
+			out.close();
+			System.out.format("Wrote %d rows to %s%n", rec.getNumRows(), args[1]);
+		}
+		catch (Exception ex) {
+			System.out.println(ex.getMessage());
+		}
+	}
+}
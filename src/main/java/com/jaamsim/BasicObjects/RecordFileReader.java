@@ -0,0 +1,168 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.BasicObjects;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads a record file written by RecordFileWriter into one array per column.
+ * Column 0 holds the simulation times and columns 1 to getNumColumns() hold the data.
+ */
+public class RecordFileReader {
+	private final String[] names;
+	private final String[] units;
+	private double[][] cols;
+	private int numRows;
+
+	private RecordFileReader(String[] names, String[] units) {
+		this.names = names;
+		this.units = units;
+		cols = new double[names.length + 1][1024];
+		numRows = 0;
+	}
+
+	public static RecordFileReader read(File file) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+		try {
+			if (in.readInt() != RecordFileWriter.MAGIC)
+				throw new IOException("Not a record file: " + file);
+			int version = in.readInt();
+			if (version != RecordFileWriter.VERSION)
+				throw new IOException("Unsupported record file version: " + version);
+
+			int numCols = in.readInt();
+			String[] names = new String[numCols];
+			String[] units = new String[numCols];
+			for (int i = 0; i < numCols; i++) {
+				names[i] = in.readUTF();
+				units[i] = in.readUTF();
+			}
+
+			RecordFileReader ret = new RecordFileReader(names, units);
+			ret.readChunks(in, file);
+			return ret;
+		}
+		finally {
+			in.close();
+		}
+	}
+
+	private void readChunks(DataInputStream in, File file) throws IOException {
+		Inflater inflater = new Inflater();
+		byte[] packed = new byte[0];
+		ByteBuffer raw = ByteBuffer.allocate(0);
+		try {
+			while (true) {
+				int rows;
+				try {
+					rows = in.readInt();
+				}
+				catch (EOFException e) {
+					// The run ended before the file was closed
+					return;
+				}
+				if (rows == 0)
+					return;
+
+				this.ensureCapacity(numRows + rows);
+				if (raw.capacity() < rows * 8)
+					raw = ByteBuffer.allocate(rows * 8);
+
+				for (int c = 0; c < cols.length; c++) {
+					int len = in.readInt();
+					if (packed.length < len)
+						packed = new byte[len];
+					in.readFully(packed, 0, len);
+
+					inflater.reset();
+					inflater.setInput(packed, 0, len);
+					int n = 0;
+					while (n < rows * 8 && !inflater.finished() && !inflater.needsInput())
+						n += inflater.inflate(raw.array(), n, rows * 8 - n);
+					if (n != rows * 8)
+						throw new IOException("Corrupt record file: " + file);
+
+					raw.clear();
+					long prev = 0;
+					double[] col = cols[c];
+					for (int i = 0; i < rows; i++) {
+						prev ^= raw.getLong();
+						col[numRows + i] = Double.longBitsToDouble(prev);
+					}
+				}
+				numRows += rows;
+			}
+		}
+		catch (DataFormatException e) {
+			throw new IOException("Corrupt record file: " + file);
+		}
+		finally {
+			inflater.end();
+		}
+	}
+
+	private void ensureCapacity(int rows) {
+		if (cols[0].length >= rows)
+			return;
+
+		int cap = Math.max(rows, cols[0].length * 2);
+		for (int c = 0; c < cols.length; c++) {
+			double[] temp = new double[cap];
+			System.arraycopy(cols[c], 0, temp, 0, numRows);
+			cols[c] = temp;
+		}
+	}
+
+	/**
+	 * Returns the number of data columns, not including the time column.
+	 */
+	public int getNumColumns() {
+		return names.length;
+	}
+
+	public String getName(int col) {
+		return names[col];
+	}
+
+	public String getUnit(int col) {
+		return units[col];
+	}
+
+	public int getNumRows() {
+		return numRows;
+	}
+
+	/**
+	 * Returns the simulation time in seconds for the given row.
+	 */
+	public double getTime(int row) {
+		return cols[0][row];
+	}
+
+	/**
+	 * Returns the value for the given row and data column, numbered from zero.
+	 */
+	public double getValue(int row, int col) {
+		return cols[col + 1][row];
+	}
+}
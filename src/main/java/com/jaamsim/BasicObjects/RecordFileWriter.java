@@ -0,0 +1,248 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.BasicObjects;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.zip.Deflater;
+
+import com.sandwell.JavaSimulation.ErrorException;
+
+/**
+ * Writes rows of doubles to a record file in compressed column chunks.
+ * <p>
+ * The file starts with a header holding the magic number, the format version, the number of data
+ * columns, and the name and unit of each data column. It is followed by chunks of up to CHUNK_ROWS
+ * rows. Each chunk holds the number of rows, then the time column and each data column in turn as a
+ * length-prefixed block of deflated doubles. Each double is stored as the exclusive-or of its bits
+ * with the previous value in the column, so that slowly changing columns compress well. A chunk with
+ * zero rows marks the end of the file.
+ * <p>
+ * Rows are collected on the calling thread. Full chunks are compressed and written by a background
+ * thread through a FileChannel, and no more than MAX_QUEUED_CHUNKS chunks are held in memory.
+ * RecordFileReader reads the file back.
+ */
+public class RecordFileWriter {
+	static final int MAGIC = 0x4A535243; // "JSRC"
+	static final int VERSION = 1;
+
+	private static final int CHUNK_ROWS = 4096;
+	private static final int MAX_QUEUED_CHUNKS = 4;
+
+	private static final double[][] END = new double[0][];
+
+	private final String fileName;
+	private final int numCols;  // Number of data columns, not including time
+	private final FileChannel channel;
+	private final ArrayBlockingQueue<double[][]> queue;
+	private final Thread writerThread;
+	private volatile Throwable error;  // First error thrown by the writer thread
+
+	private double[][] chunk;  // Columns for the chunk being filled, with time in column 0
+	private int numRows;  // Number of rows in the chunk being filled
+	private long totalRows;
+	private boolean closed;
+
+	public RecordFileWriter(String fileName, String[] names, String[] units) {
+		this.fileName = fileName;
+		numCols = names.length;
+		queue = new ArrayBlockingQueue<double[][]>(MAX_QUEUED_CHUNKS);
+
+		try {
+			channel = new FileOutputStream(new File(fileName)).getChannel();
+
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bytes);
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(numCols);
+			for (int i = 0; i < numCols; i++) {
+				out.writeUTF(names[i]);
+				out.writeUTF(units[i]);
+			}
+			out.flush();
+			writeFully(ByteBuffer.wrap(bytes.toByteArray()));
+		}
+		catch (IOException e) {
+			throw new ErrorException("Unable to open record file %s: %s", fileName, e.getMessage());
+		}
+
+		chunk = new double[numCols + 1][CHUNK_ROWS];
+		writerThread = new Thread(new ChunkWriter(), "RecordFileWriter-" + new File(fileName).getName());
+		writerThread.setDaemon(true);
+		writerThread.start();
+	}
+
+	/**
+	 * Adds a row to the file.
+	 * @param time - the simulation time for the row
+	 * @param vals - the value of each data column
+	 */
+	public void addRow(double time, double[] vals) {
+		if (closed)
+			throw new ErrorException("Record file %s has been closed", fileName);
+
+		chunk[0][numRows] = time;
+		for (int i = 0; i < numCols; i++) {
+			chunk[i + 1][numRows] = vals[i];
+		}
+		numRows++;
+		totalRows++;
+
+		if (numRows == CHUNK_ROWS)
+			this.submitChunk();
+	}
+
+	public long getNumRows() {
+		return totalRows;
+	}
+
+	/**
+	 * Writes any rows that have been added and waits for the file to be closed.
+	 */
+	public void close() {
+		if (closed)
+			return;
+
+		if (numRows > 0)
+			this.submitChunk();
+
+		closed = true;
+		this.put(END);
+		try {
+			writerThread.join();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		this.checkError();
+	}
+
+	private void submitChunk() {
+		double[][] full = chunk;
+		if (numRows < CHUNK_ROWS) {
+			for (int i = 0; i < full.length; i++) {
+				double[] col = new double[numRows];
+				System.arraycopy(full[i], 0, col, 0, numRows);
+				full[i] = col;
+			}
+		}
+		this.put(full);
+
+		chunk = new double[numCols + 1][CHUNK_ROWS];
+		numRows = 0;
+	}
+
+	private void put(double[][] cols) {
+		this.checkError();
+		try {
+			// Blocks when the writer thread has fallen behind
+			queue.put(cols);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ErrorException("Interrupted while writing record file %s", fileName);
+		}
+	}
+
+	private void checkError() {
+		if (error != null)
+			throw new ErrorException("Unable to write record file %s: %s", fileName, error.getMessage());
+	}
+
+	private void writeFully(ByteBuffer buf) throws IOException {
+		while (buf.hasRemaining()) {
+			channel.write(buf);
+		}
+	}
+
+	private class ChunkWriter implements Runnable {
+		private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		private final ByteBuffer raw = ByteBuffer.allocate(CHUNK_ROWS * 8);
+		private byte[] packed = new byte[CHUNK_ROWS * 8 + 64];
+		private final ByteBuffer head = ByteBuffer.allocate(4);
+
+		@Override
+		public void run() {
+			try {
+				while (true) {
+					double[][] cols = queue.take();
+					if (cols == END) {
+						this.writeInt(0);
+						break;
+					}
+
+					this.writeInt(cols[0].length);
+					for (double[] col : cols) {
+						this.writeColumn(col);
+					}
+				}
+			}
+			catch (Throwable t) {
+				error = t;
+				queue.clear();
+			}
+			finally {
+				deflater.end();
+				try {
+					channel.close();
+				}
+				catch (IOException e) {
+					if (error == null)
+						error = e;
+				}
+			}
+		}
+
+		private void writeInt(int val) throws IOException {
+			head.clear();
+			head.putInt(val);
+			head.flip();
+			writeFully(head);
+		}
+
+		private void writeColumn(double[] col) throws IOException {
+			raw.clear();
+			long prev = 0;
+			for (int i = 0; i < col.length; i++) {
+				long bits = Double.doubleToRawLongBits(col[i]);
+				raw.putLong(bits ^ prev);
+				prev = bits;
+			}
+
+			deflater.reset();
+			deflater.setInput(raw.array(), 0, raw.position());
+			deflater.finish();
+			int len = 0;
+			while (!deflater.finished()) {
+				if (len == packed.length) {
+					byte[] temp = new byte[packed.length * 2];
+					System.arraycopy(packed, 0, temp, 0, len);
+					packed = temp;
+				}
+				len += deflater.deflate(packed, len, packed.length - len);
+			}
+
+			this.writeInt(len);
+			writeFully(ByteBuffer.wrap(packed, 0, len));
+		}
+	}
+}
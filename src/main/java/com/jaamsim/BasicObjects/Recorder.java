@@ -0,0 +1,178 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.BasicObjects;
+
+import java.util.ArrayList;
+
+import com.jaamsim.events.ProcessTarget;
+import com.jaamsim.input.InputAgent;
+import com.jaamsim.input.Keyword;
+import com.jaamsim.input.Output;
+import com.jaamsim.input.OutputHandle;
+import com.jaamsim.input.OutputListInput;
+import com.jaamsim.input.ValueInput;
+import com.jaamsim.units.DimensionlessUnit;
+import com.jaamsim.units.TimeUnit;
+import com.jaamsim.units.Unit;
+import com.sandwell.JavaSimulation.BooleanInput;
+import com.sandwell.JavaSimulation.EntityTarget;
+import com.sandwell.JavaSimulation.InputErrorException;
+import com.sandwell.JavaSimulation3D.DisplayEntity;
+
+/**
+ * Recorder samples a list of outputs at regular intervals and saves the values to a compressed
+ * binary record file in the report directory. The file is written on a background thread and
+ * can be converted to CSV after the run using RecordExporter.
+ */
+public class Recorder extends DisplayEntity {
+
+	@Keyword(description = "One or more sources of data to be recorded.\n" +
+			"Each source is specified by an Entity and its Output. Values are recorded in SI units.",
+	         example = "Recorder1 DataSource { { Entity-1 Output-1 } { Entity-2 Output-2 } }")
+	private final OutputListInput<Double> dataSource;
+
+	@Keyword(description = "The simulated time between samples of the data sources.",
+	         example = "Recorder1 SamplingInterval { 1 s }")
+	private final ValueInput samplingInterval;
+
+	@Keyword(description = "If TRUE, a sample is recorded only when one or more of the values has " +
+			"changed since the last sample that was recorded.",
+	         example = "Recorder1 RecordOnChange { TRUE }")
+	private final BooleanInput recordOnChange;
+
+	private RecordFileWriter writer;  // The file being written by the present run
+	private double[] values;  // Values from the latest sample
+	private double[] lastValues;  // Values from the last sample that was recorded
+	private int numSamples;  // Number of samples taken
+
+	{
+		dataSource = new OutputListInput<Double>(Double.class, "DataSource", "Key Inputs", null);
+		this.addInput(dataSource);
+
+		samplingInterval = new ValueInput("SamplingInterval", "Key Inputs", 3600.0d);
+		samplingInterval.setUnitType(TimeUnit.class);
+		samplingInterval.setValidRange(1.0e-10d, Double.POSITIVE_INFINITY);
+		this.addInput(samplingInterval);
+
+		recordOnChange = new BooleanInput("RecordOnChange", "Key Inputs", false);
+		this.addInput(recordOnChange);
+	}
+
+	@Override
+	public void validate() {
+		super.validate();
+
+		if (dataSource.getValue() == null || dataSource.getValue().isEmpty())
+			throw new InputErrorException("The keyword DataSource must be set.");
+	}
+
+	@Override
+	public void earlyInit() {
+		super.earlyInit();
+
+		// Close the file from a previous run that did not reach its end
+		if (writer != null) {
+			writer.close();
+			writer = null;
+		}
+
+		ArrayList<OutputHandle> outs = dataSource.getValue();
+		String[] names = new String[outs.size()];
+		String[] units = new String[outs.size()];
+		for (int i = 0; i < outs.size(); i++) {
+			OutputHandle out = outs.get(i);
+			names[i] = out.ent.getInputName() + "." + out.getName();
+
+			Class<? extends Unit> ut = out.getUnitType();
+			String si = null;
+			if (ut != null && ut != DimensionlessUnit.class)
+				si = Unit.getSIUnit(ut);
+			units[i] = si == null ? "" : si;
+		}
+
+		values = new double[outs.size()];
+		lastValues = new double[outs.size()];
+		numSamples = 0;
+
+		String fileName = InputAgent.getReportFileName(String.format("%s-%s.%s",
+		                                               InputAgent.getRunName(), getName(), "rec"));
+		writer = new RecordFileWriter(fileName, names, units);
+	}
+
+	@Override
+	public void startUp() {
+		super.startUp();
+		this.takeSample();
+	}
+
+	private static class TakeSampleTarget extends EntityTarget<Recorder> {
+		public TakeSampleTarget(Recorder ent, String method) {
+			super(ent, method);
+		}
+
+		@Override
+		public void process() {
+			ent.takeSample();
+		}
+	}
+
+	private final ProcessTarget takeSample = new TakeSampleTarget(this, "takeSample");
+
+	/**
+	 * Sample the data sources, record the values, and schedule the next sample.
+	 */
+	void takeSample() {
+		double simTime = this.getSimTime();
+		ArrayList<OutputHandle> outs = dataSource.getValue();
+		for (int i = 0; i < values.length; i++) {
+			values[i] = outs.get(i).getValueAsDouble(simTime, Double.NaN);
+		}
+
+		if (this.isChanged()) {
+			writer.addRow(simTime, values);
+			System.arraycopy(values, 0, lastValues, 0, values.length);
+		}
+		numSamples++;
+
+		this.scheduleProcess(samplingInterval.getValue(), 7, takeSample);
+	}
+
+	private boolean isChanged() {
+		if (!recordOnChange.getValue() || numSamples == 0)
+			return true;
+
+		for (int i = 0; i < values.length; i++) {
+			if (Double.doubleToLongBits(values[i]) != Double.doubleToLongBits(lastValues[i]))
+				return true;
+		}
+		return false;
+	}
+
+	@Override
+	public void doEnd() {
+		super.doEnd();
+		if (writer != null) {
+			writer.close();
+			writer = null;
+		}
+	}
+
+	@Output(name = "NumberOfSamples",
+	 description = "The number of times the data sources have been sampled.",
+	    unitType = DimensionlessUnit.class)
+	public Double getNumberOfSamples(double simTime) {
+		return (double)numSamples;
+	}
+}
@@ -14,6 +14,8 @@
  */
 package com.jaamsim.CalculationObjects;
 
+import java.util.ArrayList;
+
 import com.jaamsim.input.Keyword;
 import com.sandwell.JavaSimulation.BooleanListInput;
 import com.sandwell.JavaSimulation.EntityListInput;
@@ -52,6 +54,12 @@ public class AndOperator extends BooleanCalculation {
 		}
 	}
 
+	@Override
+	boolean getInputCalculations(ArrayList<CalculationEntity> list) {
+		list.addAll(entityList.getValue());
+		return true;
+	}
+
 	@Override
 	public void update(double simTime) {
 		boolean val = true;
@@ -41,6 +41,11 @@ public abstract class BooleanCalculation extends CalculationEntity {
 		value = val;
 	}
 
+	@Override
+	double getSignalValue() {
+		return value ? 1.0d : 0.0d;
+	}
+
 	@Output(name = "Value",
 	 description = "The result of the calcuation at the present time.")
 	public boolean getValue( double simTime ) {
@@ -14,6 +14,10 @@
  */
 package com.jaamsim.CalculationObjects;
 
+import java.util.ArrayList;
+
+import com.jaamsim.Samples.SampleConstant;
+import com.jaamsim.Samples.SampleProvider;
 import com.jaamsim.input.Keyword;
 import com.jaamsim.input.ValueInput;
 import com.jaamsim.units.DimensionlessUnit;
@@ -73,6 +77,48 @@ public abstract class CalculationEntity extends DisplayEntity {
 	 */
 	public abstract void update(double simTime);
 
+	/**
+	 * Adds the calculation entities whose values are used by update() to the given list.
+	 * Returns FALSE if the result of update() can depend on anything else, such as the
+	 * simulation time, a stored state, or an input that is not a constant.
+	 * A Controller can skip the update for an entity that returns TRUE when none of the
+	 * listed inputs has changed.
+	 */
+	boolean getInputCalculations(ArrayList<CalculationEntity> list) {
+		return false;
+	}
+
+	/**
+	 * Returns TRUE if the value stored by update(simTime) is also the value returned
+	 * to other objects for the rest of that simulation time.
+	 */
+	boolean isValueHeld() {
+		return true;
+	}
+
+	/**
+	 * Returns the value stored by the last update, expressed as a double.
+	 * NaN is returned for an entity whose value cannot be expressed as a double.
+	 */
+	double getSignalValue() {
+		return Double.NaN;
+	}
+
+	/**
+	 * Adds the given input to the list of calculation entities used by update().
+	 * Returns FALSE if the input is neither a constant nor a calculation entity.
+	 */
+	static boolean addInputCalculation(SampleProvider samp, ArrayList<CalculationEntity> list) {
+		if (samp instanceof SampleConstant)
+			return true;
+
+		if (samp instanceof CalculationEntity) {
+			list.add((CalculationEntity)samp);
+			return true;
+		}
+		return false;
+	}
+
 	public Controller getController() {
 		return controller.getValue();
 	}
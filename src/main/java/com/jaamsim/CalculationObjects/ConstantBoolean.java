@@ -14,6 +14,8 @@
  */
 package com.jaamsim.CalculationObjects;
 
+import java.util.ArrayList;
+
 import com.jaamsim.input.Keyword;
 import com.sandwell.JavaSimulation.BooleanInput;
 
@@ -33,6 +35,11 @@ public class ConstantBoolean extends BooleanCalculation {
 		this.addInput( valueInput);
 	}
 
+	@Override
+	boolean getInputCalculations(ArrayList<CalculationEntity> list) {
+		return true;
+	}
+
 	@Override
 	public void update(double simTime) {
 
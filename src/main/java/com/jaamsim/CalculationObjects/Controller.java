@@ -17,8 +17,10 @@ package com.jaamsim.CalculationObjects;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 
 import com.jaamsim.input.Keyword;
+import com.jaamsim.input.Output;
 import com.jaamsim.input.ValueInput;
 import com.jaamsim.units.TimeUnit;
 import com.sandwell.JavaSimulation.Entity;
@@ -38,6 +40,14 @@ public class Controller extends DisplayEntity {
 	private final ArrayList<CalculationEntity> calculationEntityList;  // List of the CalculationEntities controller by this Controller.
 	private int count;  // Number of times that the controller has initiated its calculations.
 
+	// Program compiled from calculationEntityList during earlyInit
+	private CalculationEntity[] program;  // Calculation entities in the order they are updated
+	private int[][] programInputs;  // Program indices for the inputs to each entity, or null if the entity must always be updated
+	private double[] signals;  // Value stored by each entity at its last update
+	private int[] lastUpdate;  // Cycle at which each entity was last updated
+	private int[] lastChange;  // Cycle at which the value for each entity last changed
+	private long skipCount;  // Number of updates skipped because the inputs were unchanged
+
 	{
 		samplingTime = new ValueInput("SamplingTime", "Key Inputs", 1.0d);
 		samplingTime.setUnitType(TimeUnit.class);
@@ -63,6 +73,65 @@ public class Controller extends DisplayEntity {
 
 		// Sort the calculation entities into the correct sequence
 		Collections.sort(calculationEntityList, new SequenceCompare());
+
+		this.compileProgram();
+	}
+
+	/**
+	 * Prepares the arrays used to update the calculation entities on each cycle.
+	 * An entity whose value depends only on the values stored by entities that are
+	 * updated before it in the sequence is updated only when one of those values
+	 * has changed.
+	 */
+	private void compileProgram() {
+		int n = calculationEntityList.size();
+		program = calculationEntityList.toArray(new CalculationEntity[n]);
+		programInputs = new int[n][];
+		signals = new double[n];
+		lastUpdate = new int[n];
+		lastChange = new int[n];
+		skipCount = 0;
+
+		HashMap<CalculationEntity, Integer> indexMap = new HashMap<CalculationEntity, Integer>(n * 2);
+		for (int i = 0; i < n; i++) {
+			indexMap.put(program[i], i);
+		}
+
+		ArrayList<CalculationEntity> inputs = new ArrayList<CalculationEntity>();
+		for (int i = 0; i < n; i++) {
+			signals[i] = Double.NaN;
+			lastUpdate[i] = 0;
+			lastChange[i] = 0;
+
+			inputs.clear();
+			if (!program[i].getInputCalculations(inputs))
+				continue;
+
+			int[] ind = new int[inputs.size()];
+			for (int j = 0; j < ind.length; j++) {
+				Integer k = indexMap.get(inputs.get(j));
+
+				// Each input must be held by this controller and updated earlier in the sequence
+				if (k == null || k >= i || !program[k].isValueHeld()) {
+					ind = null;
+					break;
+				}
+				ind[j] = k;
+			}
+			programInputs[i] = ind;
+		}
+	}
+
+	private boolean inputsChanged(int i) {
+		int[] ind = programInputs[i];
+		if (ind == null || lastUpdate[i] == 0)
+			return true;
+
+		for (int j = 0; j < ind.length; j++) {
+			if (lastChange[ind[j]] > lastUpdate[i])
+				return true;
+		}
+		return false;
 	}
 
 	// Sorts by increasing sequence number
@@ -84,17 +153,44 @@ public class Controller extends DisplayEntity {
 			this.simWait( samplingTime.getValue() );
 
 			// Update the last value for each entity
-			double simTime = this.getSimTime();
-			for( CalculationEntity ent : calculationEntityList ) {
-				ent.update(simTime);
+			this.doCalculations( this.getSimTime() );
+		}
+	}
+
+	/**
+	 * Performs one cycle of calculations for the given simulation time.
+	 */
+	void doCalculations(double simTime) {
+		int cycle = count + 1;
+		for( int i = 0; i < program.length; i++ ) {
+			if( !this.inputsChanged(i) ) {
+				skipCount++;
+				continue;
 			}
 
-			// Increment the number of cycles
-			count++;
+			program[i].update(simTime);
+			lastUpdate[i] = cycle;
+
+			// NaN is never equal to the stored signal, so it is always treated as a change
+			double val = program[i].getSignalValue();
+			if( val != signals[i] || val != val ) {
+				signals[i] = val;
+				lastChange[i] = cycle;
+			}
 		}
+
+		// Increment the number of cycles
+		count = cycle;
 	}
 
 	public int getCount() {
 		return count;
 	}
+
+	@Output(name = "SkippedUpdates",
+	 description = "The number of calculation updates that were skipped because none of " +
+	               "the inputs to the calculation had changed since its last update.")
+	public long getSkippedUpdates(double simTime) {
+		return skipCount;
+	}
 }
@@ -67,6 +67,12 @@ public class Differentiator extends DoubleCalculation {
 		return ( this.getInputValue(simTime) - lastInputValue ) * scale/dt;
 	}
 
+	@Override
+	boolean isValueHeld() {
+		// The value returned after an update is calculated for a zero time step
+		return false;
+	}
+
 	@Override
 	public void update(double simTime) {
 		super.update(simTime);
@@ -110,6 +110,11 @@ implements SampleProvider {
 		return value;
 	}
 
+	@Override
+	double getSignalValue() {
+		return value;
+	}
+
 	protected abstract double calculateValue(double simTime);
 
 	@Override
@@ -18,10 +18,13 @@ import com.jaamsim.input.Keyword;
 import com.jaamsim.input.Output;
 import com.jaamsim.input.ValueInput;
 import com.jaamsim.units.TimeUnit;
+import com.sandwell.JavaSimulation.BooleanInput;
 
 /**
  * The Lag block is a standard control system component whose output is equal to integral( input - output ) / LagTime.
  * This operation has the effect of delaying and smoothing the input signal over the time scale given by LagTime.
+ * If ExactSolution is TRUE, the output is advanced using the exact solution for an input that is held
+ * constant between updates, which remains stable for any sampling time.
  * @author Harry King
  *
  */
@@ -31,6 +34,11 @@ public class Lag extends DoubleCalculation {
 	         example = "Lag-1 LagTime { 15 s }")
 	private final ValueInput lagTime;
 
+	@Keyword(description = "If TRUE, the output is calculated using the exact solution for an input that is constant " +
+			"between updates. If FALSE, the integral is calculated using the explicit Euler method.",
+	         example = "Lag-1 ExactSolution { TRUE }")
+	private final BooleanInput exactSolution;
+
 	private double lastUpdateTime;  // The time at which the last update was performed
 	private double integral; // The present value for the integral
 	private double presentValue;  // The present output value
@@ -42,6 +50,9 @@ public class Lag extends DoubleCalculation {
 		lagTime.setValidRange(1.0e-10, Double.POSITIVE_INFINITY);
 		lagTime.setUnitType(TimeUnit.class);
 		this.addInput( lagTime);
+
+		exactSolution = new BooleanInput( "ExactSolution", "Key Inputs", false);
+		this.addInput( exactSolution);
 	}
 
 	@Override
@@ -56,15 +67,19 @@ public class Lag extends DoubleCalculation {
 	public double calculateValue(double simTime) {
 		double dt = simTime - lastUpdateTime;
 		double error = this.getInputValue(simTime) - presentValue;
+		if( exactSolution.getValue() )
+			return presentValue + error * -Math.expm1( -dt / lagTime.getValue() );
 		return ( integral + error*dt ) / lagTime.getValue();
 	}
 
 	@Override
 	public void update(double simTime) {
 		super.update(simTime);
-		double dt = simTime - lastUpdateTime;
-		double error = this.getInputValue(simTime) - presentValue;
-		integral += error * dt;
+		if( !exactSolution.getValue() ) {
+			double dt = simTime - lastUpdateTime;
+			double error = this.getInputValue(simTime) - presentValue;
+			integral += error * dt;
+		}
 		presentValue = this.getValue();
 		lastUpdateTime = simTime;
 	}
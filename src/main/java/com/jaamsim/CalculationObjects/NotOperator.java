@@ -14,6 +14,8 @@
  */
 package com.jaamsim.CalculationObjects;
 
+import java.util.ArrayList;
+
 import com.jaamsim.input.Keyword;
 import com.sandwell.JavaSimulation.EntityInput;
 
@@ -32,6 +34,12 @@ public class NotOperator extends BooleanCalculation {
 		this.addInput( entity);
 	}
 
+	@Override
+	boolean getInputCalculations(ArrayList<CalculationEntity> list) {
+		list.add(entity.getValue());
+		return true;
+	}
+
 	@Override
 	public void update(double simTime) {
 
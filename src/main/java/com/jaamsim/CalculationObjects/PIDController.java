@@ -207,6 +207,12 @@ public class PIDController extends DoubleCalculation {
 		return val;
 	}
 
+	@Override
+	boolean isValueHeld() {
+		// The derivative term is zero when the value is recalculated after an update
+		return false;
+	}
+
 	@Override
 	public void update(double simTime) {
 		super.update(simTime);
@@ -14,6 +14,8 @@
  */
 package com.jaamsim.CalculationObjects;
 
+import java.util.ArrayList;
+
 import com.jaamsim.ProbabilityDistributions.Distribution;
 import com.jaamsim.Samples.SampleConstant;
 import com.jaamsim.Samples.SampleInput;
@@ -67,6 +69,12 @@ public class Polynomial extends DoubleCalculation {
 		FrameBox.setSelectedEntity(this);  // Update the units in the Output Viewer
 	}
 
+	@Override
+	boolean getInputCalculations(ArrayList<CalculationEntity> list) {
+		return addInputCalculation(inputValue.getValue(), list)
+				&& addInputCalculation(scale.getValue(), list);
+	}
+
 	@Override
 	protected double calculateValue(double simTime) {
 
@@ -14,7 +14,10 @@
  */
 package com.jaamsim.CalculationObjects;
 
+import java.util.ArrayList;
+
 import com.jaamsim.Samples.SampleListInput;
+import com.jaamsim.Samples.SampleProvider;
 import com.jaamsim.input.Keyword;
 import com.jaamsim.input.ValueListInput;
 import com.jaamsim.ui.FrameBox;
@@ -71,6 +74,15 @@ public class WeightedSum extends DoubleCalculation {
 		}
 	}
 
+	@Override
+	boolean getInputCalculations(ArrayList<CalculationEntity> list) {
+		for (SampleProvider samp : inputValueList.getValue()) {
+			if (!addInputCalculation(samp, list))
+				return false;
+		}
+		return true;
+	}
+
 	@Override
 	protected double calculateValue(double simTime) {
 		double val = 0.0;
@@ -43,6 +43,9 @@ import com.sandwell.JavaSimulation3D.Graph;
 
 public class GraphModel extends DisplayModel {
 
+	// Number of columns used to reduce the data series, chosen to exceed the width of a graph in pixels
+	private static final int MAX_COLUMNS = 2048;
+
 	@Keyword(description = "The text height for the graph title.",
 	         example = "Graph1 TitleTextHeight { 0.05 }")
 	private final ValueInput titleTextHeight;
@@ -272,6 +275,10 @@ public class GraphModel extends DisplayModel {
 
 		private double zBump;
 
+		private final int[] colIndices = new int[4];
+		private double[] xValues = new double[0];  // Points copied from the series being drawn
+		private double[] yValues = new double[0];
+
 		public Binding(Entity ent, DisplayModel dm) {
 			super(ent, dm);
 
@@ -391,28 +398,45 @@ public class GraphModel extends DisplayModel {
 
 		private void drawSeries(Graph.SeriesInfo series, double yMinimum, double yMaximum, double simTime, ArrayList<RenderProxy> out) {
 
-			if (series.numPoints < 2)
+			// Copy the points from the ring buffer that is being filled by the simulation thread
+			int len = series.xValues.length;
+			if (xValues.length < len) {
+				xValues = new double[len];
+				yValues = new double[len];
+			}
+			int numPoints = series.copyPoints(xValues, yValues);
+
+			if (numPoints < 2)
 				return; // Nothing to display yet
 
 			double yRange = yMaximum - yMinimum;  // yRange can be either the primary or secondary range
+			double xOffset = timeTrace ? simTime + xMin : xMin;
+
+			// Reduce the series to the first, minimum, maximum, and last points in each column
+			// of the graph, which draws the same line when there is more than one point per column
+			ArrayList<Vec4d> seriesPoints = new ArrayList<Vec4d>(Math.min(numPoints, 4*MAX_COLUMNS)*2);
+			Vec4d prev = null;
+			int col = -1;
+			int firstInd = 0, minInd = 0, maxInd = 0, lastInd = 0;
+			for (int i = 0; i < numPoints; i++) {
+				double x = MathUtils.bound((xValues[i] - xOffset) / xRange, 0, 1);
+				int c = (int)(x * MAX_COLUMNS);
+
+				if (c != col) {
+					if (col >= 0)
+						prev = addColumn(seriesPoints, prev, firstInd, minInd, maxInd, lastInd, xOffset, yMinimum, yRange);
+					col = c;
+					firstInd = minInd = maxInd = lastInd = i;
+					continue;
+				}
 
-			double[] yVals = new double[series.numPoints];
-			double[] xVals = new double[series.numPoints];
-
-			for (int i = 0; i < series.numPoints; i++) {
-				if( timeTrace )
-					xVals[i] = MathUtils.bound((series.xValues[i] - simTime - xMin) / xRange, 0, 1) - 0.5;
-				else
-					xVals[i] = MathUtils.bound((series.xValues[i] - xMin) / xRange, 0, 1) - 0.5;
-
-				yVals[i] = MathUtils.bound((series.yValues[i] - yMinimum) / yRange, 0, 1) - 0.5;
-			}
-
-			ArrayList<Vec4d> seriesPoints = new ArrayList<Vec4d>((series.numPoints-1)*2);
-			for (int i = 0; i < series.numPoints - 1; i++) {
-				seriesPoints.add(new Vec4d(xVals[i  ], yVals[i  ], zBump, 1.0d));
-				seriesPoints.add(new Vec4d(xVals[i+1], yVals[i+1], zBump, 1.0d));
+				if (yValues[i] < yValues[minInd])
+					minInd = i;
+				if (yValues[i] > yValues[maxInd])
+					maxInd = i;
+				lastInd = i;
 			}
+			addColumn(seriesPoints, prev, firstInd, minInd, maxInd, lastInd, xOffset, yMinimum, yRange);
 
 			// Transform from graph area to world space
 			for (int i = 0; i < seriesPoints.size(); ++i) {
@@ -422,6 +446,37 @@ public class GraphModel extends DisplayModel {
 			out.add(new LineProxy(seriesPoints, series.lineColour, series.lineWidth, getVisibilityInfo(), pickingID));
 		}
 
+		/**
+		 * Add the line segments for one column of the graph, in the order the points were recorded.
+		 * @return the last point added.
+		 */
+		private Vec4d addColumn(ArrayList<Vec4d> seriesPoints, Vec4d prev,
+				int firstInd, int minInd, int maxInd, int lastInd, double xOffset, double yMinimum, double yRange) {
+			boolean minFirst = minInd <= maxInd;
+
+			int[] inds = colIndices;
+			inds[0] = firstInd;
+			inds[1] = minFirst ? minInd : maxInd;
+			inds[2] = minFirst ? maxInd : minInd;
+			inds[3] = lastInd;
+
+			for (int j = 0; j < 4; j++) {
+				if (j > 0 && inds[j] == inds[j-1])
+					continue;
+
+				int ind = inds[j];
+				Vec4d pt = new Vec4d(MathUtils.bound((xValues[ind] - xOffset) / xRange, 0, 1) - 0.5,
+				                     MathUtils.bound((yValues[ind] - yMinimum) / yRange, 0, 1) - 0.5,
+				                     zBump, 1.0d);
+				if (prev != null) {
+					seriesPoints.add(new Vec4d(prev));
+					seriesPoints.add(pt);
+				}
+				prev = pt;
+			}
+			return prev;
+		}
+
 		private void drawGraphTitle(ArrayList<RenderProxy> out) {
 
 			String titleText = graphObservee.getTitle();
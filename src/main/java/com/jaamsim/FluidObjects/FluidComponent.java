@@ -94,15 +94,19 @@ public class FluidComponent extends DisplayEntity {
 		}
 	}
 
-	public void updateBaseOutletPressure() {
-		baseOutletPressure = this.calcOutletPressure( baseInletPressure, 0.0 );
+	/*
+	 * Update the base outlet pressure for the given volume added to the component
+	 */
+	public void updateBaseOutletPressure( double dV ) {
+		baseOutletPressure = this.calcOutletPressure( baseInletPressure, 0.0, dV );
 	}
 
 	/*
-	 * Update the outlet pressure after allowing for acceleration
+	 * Update the outlet pressure after allowing for acceleration and the given volume
+	 * added to the component
 	 */
-	public void updateOutletPressure( double flowAccel ) {
-		outletPressure = this.calcOutletPressure( inletPressure, flowAccel );
+	public void updateOutletPressure( double flowAccel, double dV ) {
+		outletPressure = this.calcOutletPressure( inletPressure, flowAccel, dV );
 	}
 
 	/*
@@ -112,6 +116,14 @@ public class FluidComponent extends DisplayEntity {
 		return inletPres;
 	}
 
+	/*
+	 * Return the outlet pressure for the given inlet pressure and flow acceleration
+	 * if the given volume were added to the component.
+	 */
+	public double calcOutletPressure( double inletPres, double flowAccel, double dV ) {
+		return this.calcOutletPressure( inletPres, flowAccel );
+	}
+
 	/*
 	 * Return the dynamic pressure for a flow.
 	 * (Dynamic pressure is negative for negative velocities.)
@@ -193,6 +205,13 @@ public class FluidComponent extends DisplayEntity {
 		return 0.0;
 	}
 
+	/*
+	 * Return the target inlet pressure if the given volume were added to the component.
+	 */
+	public double getTargetInletPressure( double dV ) {
+		return this.getTargetInletPressure();
+	}
+
 	public double getFluidVolume() {
 		return 0.0;
 	}
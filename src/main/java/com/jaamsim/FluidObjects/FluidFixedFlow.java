@@ -25,6 +25,7 @@ import com.jaamsim.render.HasScreenPoints;
 import com.jaamsim.units.DimensionlessUnit;
 import com.jaamsim.units.DistanceUnit;
 import com.jaamsim.units.VolumeFlowUnit;
+import com.sandwell.JavaSimulation.BooleanInput;
 import com.sandwell.JavaSimulation.ColourInput;
 import com.sandwell.JavaSimulation.Input;
 import com.sandwell.JavaSimulation.Vec3dListInput;
@@ -33,6 +34,8 @@ import com.sandwell.JavaSimulation.Vec3dListInput;
  * FluidFixedFlow models a specified flow rate between a source and destination.
  * A null source is taken to be an infinite reservoir to supply fluid.
  * A null destination is taken to be an infinite reservoir to receive fluid.
+ * If ContinuousFlow is TRUE and a Controller is not specified, the flow runs continuously from the start
+ * of the simulation and the tanks calculate the times at which they become empty instead of being sampled.
  * @author Harry King
  *
  */
@@ -42,6 +45,12 @@ public class FluidFixedFlow extends FluidFlowCalculation implements HasScreenPoi
 	         example = "FluidFixedFlow-1 FlowRate { 1.0 m3/s }")
 	private final ValueInput flowRateInput;
 
+	@Keyword(description = "If TRUE and a Controller is not specified, the flow runs continuously from the start " +
+			"of the simulation. The source tank supplies the flow until it becomes empty, after which the flow " +
+			"is limited to the rate at which the tank is filled.",
+	         example = "FluidFixedFlow-1 ContinuousFlow { TRUE }")
+	private final BooleanInput continuousFlowInput;
+
     @Keyword(description = "A list of points in { x, y, z } coordinates defining the line segments that" +
             "make up the pipe.  When two coordinates are given it is assumed that z = 0." ,
              example = "Pipe1  Points { { 6.7 2.2 m } { 4.9 2.2 m } { 4.9 3.4 m } }")
@@ -64,6 +73,9 @@ public class FluidFixedFlow extends FluidFlowCalculation implements HasScreenPoi
 		flowRateInput.setUnitType( VolumeFlowUnit.class );
 		this.addInput( flowRateInput);
 
+		continuousFlowInput = new BooleanInput( "ContinuousFlow", "Key Inputs", false);
+		this.addInput( continuousFlowInput);
+
 		ArrayList<Vec3d> defPoints =  new ArrayList<Vec3d>();
 		defPoints.add(new Vec3d(0.0d, 0.0d, 0.0d));
 		defPoints.add(new Vec3d(1.0d, 0.0d, 0.0d));
@@ -83,7 +95,47 @@ public class FluidFixedFlow extends FluidFlowCalculation implements HasScreenPoi
 	}
 
 	@Override
-	protected void calcFlowRate(FluidComponent source, FluidComponent destination, double dt) {
+	public void startUp() {
+		super.startUp();
+
+		if( this.getController() != null || !continuousFlowInput.getValue() )
+			return;
+
+		// Register with the tanks so that they can track the volume between events
+		FluidComponent source = this.getSource();
+		FluidComponent destination = this.getDestination();
+		if( source instanceof FluidTank )
+			((FluidTank) source).addOutflow(this);
+		if( destination instanceof FluidTank )
+			((FluidTank) destination).addInflow(this);
+
+		if( source instanceof FluidTank )
+			((FluidTank) source).updateRates();
+		this.updateFlowRate();
+	}
+
+	double getSpecifiedFlowRate() {
+		return flowRateInput.getValue();
+	}
+
+	/*
+	 * Set the flow rate allowed by the source when the flow is not updated by a Controller.
+	 */
+	void updateFlowRate() {
+		double rate = flowRateInput.getValue();
+		if( this.getSource() instanceof FluidTank )
+			rate *= ((FluidTank) this.getSource()).getSupplyFactor();
+
+		this.setFlowRate( rate );
+		if( this.getDestination() instanceof FluidTank )
+			((FluidTank) this.getDestination()).updateRates();
+	}
+
+	@Override
+	protected void integrate(FluidComponent source, FluidComponent destination, double dt) {
+
+		// Update the volume stored at the source and destination
+		this.moveVolume( source, destination, this.getFlowRate() * dt );
 
 		// Update the flow rate
 		this.setFlowRate( flowRateInput.getValue() );
@@ -15,23 +15,56 @@
 package com.jaamsim.FluidObjects;
 
 import java.util.ArrayList;
+
+import com.jaamsim.input.Keyword;
 import com.jaamsim.input.Output;
+import com.jaamsim.input.ValueInput;
+import com.jaamsim.units.VolumeFlowUnit;
+import com.sandwell.JavaSimulation.BooleanInput;
 import com.sandwell.JavaSimulation.InputErrorException;
 import com.sandwell.JavaSimulation.ErrorException;
 
 /**
  * FluidFlow tracks the flow rate between a source and a destination.
+ * The flow rate and the volume transferred are integrated using the explicit Euler method, one
+ * step per update. If AdaptiveStep is TRUE, Heun's method with a variable step size is used
+ * instead. The error is estimated by re-evaluating the flow acceleration at the corrected state.
+ * Each update is divided into as many steps as are needed to meet the specified tolerance, and the
+ * step size grows again while the flow is changing smoothly.
  * @author Harry King
  *
  */
 public class FluidFlow extends FluidFlowCalculation {
 
+	@Keyword(description = "If TRUE, the flow rate is integrated using Heun's method with a variable step size " +
+			"that meets FlowRateTolerance. If FALSE, a single explicit Euler step is taken for each update.",
+	         example = "FluidFlow1 AdaptiveStep { TRUE }")
+	private final BooleanInput adaptiveStep;
+
+	@Keyword(description = "The largest error in the flow rate that is accepted for a single integration step. " +
+			"Used only when AdaptiveStep is TRUE.",
+	         example = "FluidFlow1 FlowRateTolerance { 1.0e-6 m3/s }")
+	private final ValueInput flowRateTolerance;
+
 	private double flowAcceleration;  // The rate of change of the volumetric flow rate with respect to time (m3/s2).
 
 	private ArrayList<FluidComponent> routeList;  // A list of the hydraulic components in the flow, from source to destination.
 	private double totalFlowInertia;  // The sum of Density x Length / FlowArea for the hydraulic components in the route.
 	private double destinationBaseInletPressure;  // The base pressure at the destination's inlet.
 	private double destinationTargetInletPressure;  // The desired inlet pressure at the destination's inlet.
+	private boolean accelerationValid;  // TRUE if flowAcceleration has been calculated for the present state.
+	private double stepSize;  // The integration step size to try first at the next update.
+	private int stepCount;  // The number of integration steps that have been accepted.
+
+	{
+		adaptiveStep = new BooleanInput( "AdaptiveStep", "Key Inputs", false);
+		this.addInput( adaptiveStep);
+
+		flowRateTolerance = new ValueInput( "FlowRateTolerance", "Key Inputs", 1.0e-6d);
+		flowRateTolerance.setValidRange( 1.0e-15d, Double.POSITIVE_INFINITY);
+		flowRateTolerance.setUnitType( VolumeFlowUnit.class );
+		this.addInput( flowRateTolerance);
+	}
 
 	public FluidFlow() {
 		routeList = new ArrayList<FluidComponent>();
@@ -57,6 +90,9 @@ public class FluidFlow extends FluidFlowCalculation {
 		super.earlyInit();
 
 		flowAcceleration = 0.0;
+		accelerationValid = false;
+		stepSize = Double.POSITIVE_INFINITY;
+		stepCount = 0;
 
 		// Construct the list of hydraulic components in the flow path
 		routeList.clear();
@@ -87,39 +123,128 @@ public class FluidFlow extends FluidFlowCalculation {
 	}
 
 	@Override
-	protected void calcFlowRate( FluidComponent source, FluidComponent destination, double dt ) {
+	protected void integrate( FluidComponent source, FluidComponent destination, double dt ) {
+
+		// Explicit Euler, using the flow acceleration from the end of the previous update
+		if( ! adaptiveStep.getValue() ) {
+			double q0 = this.getFlowRate();
+			this.moveVolume( source, destination, q0 * dt );
+			this.setFlowRate( q0 + flowAcceleration * dt );
+			this.calcFlowAcceleration( source, destination, 0.0 );
+			stepCount++;
+			return;
+		}
+
+		if( ! accelerationValid ) {
+			this.calcFlowAcceleration( source, destination, 0.0 );
+			accelerationValid = true;
+		}
+
+		double tol = flowRateTolerance.getValue();
+		double minStep = dt * 1.0e-6;
+		double t = 0.0;
+		double h = stepSize;
+		while( t < dt ) {
+			double step = Math.min( h, dt - t );
+			double q0 = this.getFlowRate();
+			double a0 = flowAcceleration;
+
+			// Predictor (explicit Euler)
+			double dV1 = this.getTransferVolume( source, destination, q0 * step );
+			double q1 = q0 + a0 * step;
+			double a1 = this.getTrialAcceleration( source, destination, q1, dV1 );
 
-		// Update the flow rate
-		this.setFlowRate( this.getFlowRate() + flowAcceleration * dt );
+			// Corrector (trapezoidal rule)
+			double dV2 = this.getTransferVolume( source, destination, 0.5 * step * ( q0 + q1 ) );
+			double q2 = q0 + 0.5 * step * ( a0 + a1 );
+			double a2 = this.getTrialAcceleration( source, destination, q2, dV2 );
+
+			// The change in the flow rate estimate when the corrected state is used in place
+			// of the predicted one
+			double err = 0.5 * step * Math.abs( a2 - a1 );
+			if( err > tol && step > minStep ) {
+				h = step * Math.max( 0.2, 0.9 * Math.cbrt( tol / err ) );
+				continue;
+			}
+
+			// Accept the step
+			this.moveVolume( source, destination, dV2 );
+			this.setFlowRate( q2 );
+			this.calcFlowAcceleration( source, destination, 0.0 );
+			t += step;
+			stepCount++;
+
+			// Increase the step size while the error is small
+			if( err > 0.0 )
+				h = step * Math.min( 5.0, 0.9 * Math.cbrt( tol / err ) );
+			else
+				h = Double.POSITIVE_INFINITY;
+		}
+		stepSize = h;
+	}
+
+	/*
+	 * Return the flow acceleration for the given flow rate with the given volume moved from the
+	 * source to the destination. The volumes in the tanks, the flow rate, and the flow
+	 * acceleration are left unchanged.
+	 */
+	private double getTrialAcceleration( FluidComponent source, FluidComponent destination, double q, double dV ) {
+		double q0 = this.getFlowRate();
+		double a0 = flowAcceleration;
+		this.setFlowRate( q );
+		this.calcFlowAcceleration( source, destination, dV );
+		double ret = flowAcceleration;
+		this.setFlowRate( q0 );
+		flowAcceleration = a0;
+		return ret;
+	}
+
+	/*
+	 * Calculate the flow acceleration and the pressures along the route for the present flow rate,
+	 * with the given volume moved from the source to the destination.
+	 */
+	private void calcFlowAcceleration( FluidComponent source, FluidComponent destination, double dV ) {
 
 		// Update the flow velocity and base pressures in each component of the flow route
 		// (base pressure ignores the affect of acceleration)
 		for( FluidComponent each : routeList ) {
 			each.updateVelocity();
 			each.updateBaseInletPressure();
-			each.updateBaseOutletPressure();
+			each.updateBaseOutletPressure( this.getAddedVolume( each, source, destination, dV ) );
 		}
 
 		// Update the flow acceleration
 		destinationBaseInletPressure = destination.getBaseInletPressure();
-		destinationTargetInletPressure = destination.getTargetInletPressure();
+		destinationTargetInletPressure = destination.getTargetInletPressure( dV );
 		flowAcceleration = ( destinationBaseInletPressure
 				- destinationTargetInletPressure ) / totalFlowInertia;
 
 		// Update the pressure in each component of the flow route after allowing for acceleration
 		for( FluidComponent each : routeList ) {
 			each.updateInletPressure();
-			each.updateOutletPressure( flowAcceleration );
+			each.updateOutletPressure( flowAcceleration, this.getAddedVolume( each, source, destination, dV ) );
 		}
 
 		// Confirm that the pressure is now balanced
 		double diff = destination.getInletPressure() /
-				destination.getTargetInletPressure() - 1.0;
+				destinationTargetInletPressure - 1.0;
 		if( Math.abs( diff ) > 1.0e-4 ) {
 			throw new ErrorException( "Pressure did not balance correctly.  Difference = " + diff );
 		}
 	}
 
+	/*
+	 * Return the volume added to the given component when the given volume is moved from the
+	 * source to the destination.
+	 */
+	private double getAddedVolume( FluidComponent comp, FluidComponent source, FluidComponent destination, double dV ) {
+		if( comp == source )
+			return -dV;
+		if( comp == destination )
+			return dV;
+		return 0.0;
+	}
+
 	@Output(name = "FlowAcceleration",
 	 description = "The time derivative of the volumetric flow rate.")
 	public double getFlowAcceleration( double simTime ) {
@@ -131,4 +256,10 @@ public class FluidFlow extends FluidFlowCalculation {
 	public double getFlowInertia( double simTime ) {
 		return totalFlowInertia;
 	}
+
+	@Output(name = "StepCount",
+	 description = "The number of integration steps taken to calculate the flow rate.")
+	public int getStepCount( double simTime ) {
+		return stepCount;
+	}
 }
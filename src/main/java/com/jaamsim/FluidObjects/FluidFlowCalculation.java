@@ -76,25 +76,42 @@ public abstract class FluidFlowCalculation extends CalculationEntity {
 		double dt = simTime - lastUpdateTime;
 		lastUpdateTime = simTime;
 
-		// Update the volume stored at the source and destination
-		FluidComponent source = sourceInput.getValue();
-		FluidComponent destination = destinationInput.getValue();
-		double dV = flowRate * dt;
+		// Update the volume stored at the source and destination and the new flow rate
+		this.integrate( sourceInput.getValue(), destinationInput.getValue(), dt);
+	}
+
+	/**
+	 * Advances the volumes stored at the source and destination and the flow rate
+	 * by the given time step.
+	 */
+	protected abstract void integrate( FluidComponent source, FluidComponent destination, double dt );
+
+	/**
+	 * Returns the part of the given volume that can be transferred from the source to
+	 * the destination, limited to the volume that is available.
+	 */
+	protected double getTransferVolume( FluidComponent source, FluidComponent destination, double dV ) {
 		if( dV > 0.0 && source != null ) {
 			dV = Math.min( dV, source.getFluidVolume() );
 		}
 		else if( dV < 0.0 && destination != null ) {
 			dV = - Math.min( - dV, destination.getFluidVolume() );
 		}
+		return dV;
+	}
+
+	/**
+	 * Transfers the given volume from the source to the destination, limited to the
+	 * volume that is available.
+	 * @return the volume that was transferred.
+	 */
+	protected double moveVolume( FluidComponent source, FluidComponent destination, double dV ) {
+		dV = this.getTransferVolume( source, destination, dV );
 		if( source != null ) { source.addVolume( -dV ); }
 		if( destination != null ) { destination.addVolume( dV ); }
-
-		// Set the new flow rate
-		this.calcFlowRate( source, destination, dt);
+		return dV;
 	}
 
-	protected abstract void calcFlowRate( FluidComponent source, FluidComponent destination, double dt );
-
 	protected void setFlowRate( double rate) {
 		flowRate = rate;
 	}
@@ -14,16 +14,25 @@
  */
 package com.jaamsim.FluidObjects;
 
+import java.util.ArrayList;
+
+import com.jaamsim.events.ProcessTarget;
 import com.jaamsim.input.Keyword;
 import com.jaamsim.input.Output;
 import com.jaamsim.input.ValueInput;
 import com.jaamsim.units.DistanceUnit;
 import com.jaamsim.units.PressureUnit;
+import com.jaamsim.units.VolumeFlowUnit;
 import com.jaamsim.units.VolumeUnit;
+import com.sandwell.JavaSimulation.EntityTarget;
+import com.sandwell.JavaSimulation.ErrorException;
 import com.sandwell.JavaSimulation3D.DisplayModelCompat;
 
 /**
  * FluidTank is a storage tank that contains a fluid.
+ * Flows that are not updated by a Controller change the volume at a constant rate between events.
+ * The tank schedules an event for the time at which it will become empty, after which these
+ * outflows are limited to the rate of inflow.
  * @author Harry King
  *
  */
@@ -45,8 +54,17 @@ public class FluidTank extends FluidComponent {
 	         example = "Tank1 InletHeight { 1.0 m }")
 	private final ValueInput inletHeightInput;
 
-	private double fluidVolume;  // The present volume of the fluid in the tank.
-	private double fluidLevel;  // The height of the fluid in the tank.
+	private double fluidVolume;  // The volume of the fluid in the tank at volumeTime.
+	private double volumeTime;  // The time at which fluidVolume was last updated.
+	private double volumeRate;  // The rate of change of volume due to the flows that are not updated by a Controller (m3/s).
+	private double supplyFactor;  // The fraction of the specified flow rate supplied to each outflow.
+
+	private final ArrayList<FluidFixedFlow> inflowList;  // Flows into the tank that are not updated by a Controller.
+	private final ArrayList<FluidFixedFlow> outflowList;  // Flows out of the tank that are not updated by a Controller.
+	private boolean updatingRates;  // TRUE while the flow rates are being recalculated.
+	private boolean ratesPending;  // TRUE if the flow rates must be recalculated again before updatingRates is cleared.
+	private boolean emptyScheduled;  // TRUE if the event for the tank becoming empty has been scheduled.
+	private long emptyTick;  // The tick for which the event for the tank becoming empty has been scheduled.
 
 	{
 		capacityInput = new ValueInput( "Capacity", "Key Inputs", 1.0d);
@@ -69,53 +87,233 @@ public class FluidTank extends FluidComponent {
 		this.addInput( inletHeightInput);
 	}
 
+	public FluidTank() {
+		inflowList = new ArrayList<FluidFixedFlow>();
+		outflowList = new ArrayList<FluidFixedFlow>();
+	}
+
 	@Override
 	public void earlyInit() {
 		super.earlyInit();
 		fluidVolume = initialVolumeInput.getValue();
+		volumeTime = 0.0;
+		volumeRate = 0.0;
+		supplyFactor = 1.0;
+		inflowList.clear();
+		outflowList.clear();
+		updatingRates = false;
+		ratesPending = false;
+		emptyScheduled = false;
+		emptyTick = 0;
 	}
 
 	@Override
 	public void addVolume( double v ) {
+		if( volumeRate != 0.0 )
+			this.updateVolume();
 		fluidVolume += v;
-		fluidLevel = fluidVolume / this.getFlowArea();
+
+		// Removing fluid brings the time at which the tank becomes empty forward, and adding fluid to
+		// an empty tank restores its outflows. The rates are recalculated once, after all the flows
+		// have been updated. Adding fluid to a draining tank delays the time at which it becomes empty,
+		// which is checked when the event occurs.
+		if( ( v < 0.0 && volumeRate < 0.0 ) || ( v > 0.0 && supplyFactor < 1.0 ) )
+			this.scheduleSingleProcess( ratesTarget );
+	}
+
+	/*
+	 * Bring the stored volume up to date with the flows that are not updated by a Controller.
+	 */
+	private void updateVolume() {
+		double simTime = this.getSimTime();
+		fluidVolume = this.getVolumeAtTime( simTime );
+		volumeTime = simTime;
+	}
+
+	/*
+	 * Return the volume at the present time without updating the stored value.
+	 */
+	private double getPresentVolume() {
+		if( volumeRate == 0.0 )
+			return fluidVolume;
+		return this.getVolumeAtTime( this.getSimTime() );
+	}
+
+	void addInflow( FluidFixedFlow flow ) {
+		inflowList.add( flow );
+	}
+
+	void addOutflow( FluidFixedFlow flow ) {
+		outflowList.add( flow );
+	}
+
+	double getSupplyFactor() {
+		return supplyFactor;
+	}
+
+	/**
+	 * Recalculates the rate of change of volume after a change to one of the flows that are
+	 * not updated by a Controller, and schedules the event for the tank becoming empty.
+	 */
+	void updateRates() {
+
+		// A change to the supply factor can return to this tank through a closed loop of flows.
+		// The rates are recalculated again once the present calculation is complete.
+		if( updatingRates ) {
+			ratesPending = true;
+			return;
+		}
+		updatingRates = true;
+
+		int count = 0;
+		do {
+			if( count++ == MAX_RATE_UPDATES ) {
+				updatingRates = false;
+				throw new ErrorException( "Flow rates for %s did not converge", this.getName() );
+			}
+			ratesPending = false;
+			this.calcRates();
+		} while( ratesPending );
+
+		updatingRates = false;
+	}
+
+	private static final int MAX_RATE_UPDATES = 1000;
+
+	private void calcRates() {
+		this.updateVolume();
+
+		double inRate = 0.0;
+		for( FluidFixedFlow flow : inflowList ) {
+			inRate += flow.getFlowRate();
+		}
+		double outRate = 0.0;
+		for( FluidFixedFlow flow : outflowList ) {
+			outRate += flow.getSpecifiedFlowRate();
+		}
+
+		// An empty tank can supply its outflows only at the rate it is being filled
+		double factor = 1.0;
+		if( fluidVolume <= 0.0 && outRate > inRate )
+			factor = inRate / outRate;
+		volumeRate = inRate - factor * outRate;
+
+		if( factor != supplyFactor ) {
+			supplyFactor = factor;
+			for( FluidFixedFlow flow : outflowList ) {
+				flow.updateFlowRate();
+			}
+		}
+
+		// Schedule the event for the tank becoming empty, unless it is already scheduled for that tick
+		long tick = -1;
+		if( volumeRate < 0.0 && fluidVolume > 0.0 )
+			tick = this.getSimTicks() + this.secondsToNearestTick( fluidVolume / -volumeRate );
+
+		if( emptyScheduled && tick != emptyTick ) {
+			this.killEvent( emptyTarget );
+			emptyScheduled = false;
+		}
+		if( tick >= 0 && !emptyScheduled ) {
+			this.scheduleProcessTicks( tick - this.getSimTicks(), 5, emptyTarget );
+			emptyScheduled = true;
+			emptyTick = tick;
+		}
+	}
+
+	private static class TankEmptyTarget extends EntityTarget<FluidTank> {
+		public TankEmptyTarget(FluidTank ent, String method) {
+			super(ent, method);
+		}
+
+		@Override
+		public void process() {
+			ent.tankEmpty();
+		}
+	}
+
+	private static class UpdateRatesTarget extends EntityTarget<FluidTank> {
+		public UpdateRatesTarget(FluidTank ent, String method) {
+			super(ent, method);
+		}
+
+		@Override
+		public void process() {
+			ent.updateRates();
+		}
+	}
+
+	private final ProcessTarget emptyTarget = new TankEmptyTarget(this, "tankEmpty");
+	private final ProcessTarget ratesTarget = new UpdateRatesTarget(this, "updateRates");
+
+	void tankEmpty() {
+		emptyScheduled = false;
+		this.updateVolume();
+
+		// Fluid added since the event was scheduled can delay the time at which the tank becomes empty
+		if( volumeRate < 0.0 && this.secondsToNearestTick( fluidVolume / -volumeRate ) > 0 ) {
+			this.updateRates();
+			return;
+		}
+
+		fluidVolume = 0.0;
+		this.updateRates();
 	}
 
 	@Override
 	public double calcOutletPressure( double inletPres, double flowAccel ) {
-		return this.getFluidPressure(0.0);
+		return this.getFluidPressure( 0.0, 0.0 );
+	}
+
+	@Override
+	public double calcOutletPressure( double inletPres, double flowAccel, double dV ) {
+		return this.getFluidPressure( 0.0, dV );
 	}
 
 	@Override
 	public double getTargetInletPressure() {
-		return this.getFluidPressure( inletHeightInput.getValue() );
+		return this.getFluidPressure( inletHeightInput.getValue(), 0.0 );
+	}
+
+	@Override
+	public double getTargetInletPressure( double dV ) {
+		return this.getFluidPressure( inletHeightInput.getValue(), dV );
 	}
 
 	/*
-	 * Return the pressure in the tank at the given height above the outlet.
+	 * Return the pressure in the tank at the given height above the outlet if the given
+	 * volume were added to the tank.
 	 */
-	private double getFluidPressure( double h ) {
+	private double getFluidPressure( double h, double dV ) {
+		double level = Math.max( 0.0, this.getPresentVolume() + dV ) / this.getFlowArea();
 		double pres = ambientPressureInput.getValue();
-		if( h < fluidLevel ) {
-			pres += ( fluidLevel - h) * this.getFluid().getDensityxGravity();
+		if( h < level ) {
+			pres += ( level - h) * this.getFluid().getDensityxGravity();
 		}
 		return pres;
 	}
 
 	@Override
 	public double getFluidVolume() {
-		return fluidVolume;
+		return this.getPresentVolume();
 	}
 
 	public double getFluidLevel() {
-		return fluidLevel;
+		return this.getPresentVolume() / this.getFlowArea();
+	}
+
+	/*
+	 * Return the volume at the given time without updating the stored value.
+	 */
+	private double getVolumeAtTime( double simTime ) {
+		return Math.max( 0.0, fluidVolume + volumeRate * ( simTime - volumeTime ) );
 	}
 
 	@Override
 	public void updateGraphics(double simTime) {
 		super.updateGraphics(simTime);
 
-		double ratio = Math.min( 1.0, fluidVolume / capacityInput.getValue() );
+		double ratio = Math.min( 1.0, this.getVolumeAtTime(simTime) / capacityInput.getValue() );
 
 		setTagSize(DisplayModelCompat.TAG_CONTENTS, ratio);
 
@@ -127,13 +325,20 @@ public class FluidTank extends FluidComponent {
 	 description = "The volume of the fluid stored in the tank.",
 	    unitType = VolumeUnit.class)
 	public double getFluidVolume( double simTime ) {
-		return fluidVolume;
+		return this.getVolumeAtTime(simTime);
 	}
 
 	@Output(name = "FluidLevel",
 	 description = "The height of the fluid from the bottom of the tank.",
 	    unitType = DistanceUnit.class)
 	public double getFluidLevel( double simTime ) {
-		return fluidLevel;
+		return this.getVolumeAtTime(simTime) / this.getFlowArea();
+	}
+
+	@Output(name = "VolumeRate",
+	 description = "The rate of change of the fluid volume due to the flows that are not updated by a Controller.",
+	    unitType = VolumeFlowUnit.class)
+	public double getVolumeRate( double simTime ) {
+		return volumeRate;
 	}
 }
@@ -42,7 +42,9 @@ public class ContinuousDistribution extends Distribution {
 	         example = "ContinuousDist-1 CumulativeProbabilityList { 0.0  0.6  1.0 }")
 	private final DoubleListInput cumulativeProbabilityListInput;
 
-	private final MRG1999a rng = new MRG1999a();
+	private final MRG1999a rng = this.newGenerator();
+	private double[] cumProbs;
+	private double[] values;
 
 	{
 		valueListInput = new ValueListInput("ValueList", "Key Inputs", null);
@@ -89,6 +91,15 @@ public class ContinuousDistribution extends Distribution {
 	public void earlyInit() {
 		super.earlyInit();
 		rng.setSeedStream(getStreamNumber(), getSubstreamNumber());
+
+		DoubleVector cumList = cumulativeProbabilityListInput.getValue();
+		DoubleVector valueList = valueListInput.getValue();
+		cumProbs = new double[cumList.size()];
+		values = new double[cumList.size()];
+		for (int i = 0; i < cumProbs.length; i++) {
+			cumProbs[i] = cumList.get(i);
+			values[i] = valueList.get(i);
+		}
 	}
 
 	@Override
@@ -101,17 +112,26 @@ public class ContinuousDistribution extends Distribution {
 	protected double getNextSample() {
 
 		double rand = rng.nextUniform();
-		DoubleVector cumList = cumulativeProbabilityListInput.getValue();
-		for( int i=1; i<cumList.size(); i++) {
-			if( rand < cumList.get(i) ) {
-				double cum = cumList.get(i);
-				double lastCum = cumList.get(i-1);
-				double val = valueListInput.getValue().get(i);
-				double lastVal = valueListInput.getValue().get(i-1);
-				return lastVal + (rand-lastCum)*(val-lastVal)/(cum-lastCum);
-			}
+
+		// Binary search for the first cumulative probability > rand, the
+		// probabilities are strictly increasing from exactly 0.0 to 1.0
+		int lo = 1;
+		int hi = cumProbs.length;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (rand < cumProbs[mid])
+				hi = mid;
+			else
+				lo = mid + 1;
 		}
-		return valueListInput.getValue().get( cumList.size()-1 );
+		if (lo == cumProbs.length)
+			return values[ cumProbs.length-1 ];
+
+		double cum = cumProbs[lo];
+		double lastCum = cumProbs[lo-1];
+		double val = values[lo];
+		double lastVal = values[lo-1];
+		return lastVal + (rand-lastCum)*(val-lastVal)/(cum-lastCum);
 	}
 
 	@Override
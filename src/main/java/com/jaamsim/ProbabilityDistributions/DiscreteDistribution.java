@@ -22,6 +22,7 @@ import com.jaamsim.units.UserSpecifiedUnit;
 import com.sandwell.JavaSimulation.DoubleListInput;
 import com.sandwell.JavaSimulation.DoubleVector;
 import com.sandwell.JavaSimulation.InputErrorException;
+import com.sandwell.JavaSimulation.Simulation;
 
 /**
  * DiscreteDistribution is a user-defined probability distribution that selects from a given list of specific values
@@ -41,7 +42,9 @@ public class DiscreteDistribution extends Distribution {
 	         example = "DiscreteDist-1 ProbabilityList { 0.3  0.7 }")
 	private final DoubleListInput probabilityListInput;
 
-	private final MRG1999a rng = new MRG1999a();
+	private final MRG1999a rng = this.newGenerator();
+	private DiscreteSampler sampler;
+	private double[] values;
 
 	{
 		valueListInput = new ValueListInput( "ValueList", "Key Inputs", null);
@@ -69,6 +72,12 @@ public class DiscreteDistribution extends Distribution {
 	public void earlyInit() {
 		super.earlyInit();
 		rng.setSeedStream(getStreamNumber(), getSubstreamNumber());
+
+		sampler = new DiscreteSampler(probabilityListInput.getValue(), !Simulation.getLegacySampling());
+		DoubleVector valueList = valueListInput.getValue();
+		values = new double[valueList.size()];
+		for (int i = 0; i < values.length; i++)
+			values[i] = valueList.get(i);
 	}
 
 	@Override
@@ -80,16 +89,7 @@ public class DiscreteDistribution extends Distribution {
 	@Override
 	protected double getNextSample() {
 
-		double rand = rng.nextUniform();
-		double cumProb = 0.0;
-		DoubleVector probList = probabilityListInput.getValue();
-		for( int i=0; i<probList.size(); i++) {
-			cumProb += probList.get(i);
-			if( rand <= cumProb ) {
-				return valueListInput.getValue().get(i);
-			}
-		}
-		return valueListInput.getValue().get( probList.size()-1 );
+		return values[ sampler.nextIndex(rng.nextUniform()) ];
 	}
 
 	@Override
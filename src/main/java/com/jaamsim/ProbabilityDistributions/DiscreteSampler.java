@@ -0,0 +1,113 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.ProbabilityDistributions;
+
+import com.sandwell.JavaSimulation.DoubleVector;
+
+/**
+ * DiscreteSampler selects an index from a list of probabilities given a
+ * uniform random number.  The cumulative probabilities are searched in
+ * O(log n), returning the same index as a linear search through the list,
+ * or an alias table (Walker 1977, Vose 1991) selects the index in O(1).
+ */
+final class DiscreteSampler {
+	private final double[] cumProb; // running sums of the probabilities
+	private final double[] aliasProb; // probability of keeping index i rather than its alias
+	private final int[] alias;
+
+	DiscreteSampler(DoubleVector probList, boolean useAlias) {
+		int n = probList.size();
+
+		// Accumulate in list order so the sums match a linear search exactly
+		cumProb = new double[n];
+		double cumSum = 0.0d;
+		for (int i = 0; i < n; i++) {
+			cumSum += probList.get(i);
+			cumProb[i] = cumSum;
+		}
+
+		if (!useAlias) {
+			aliasProb = null;
+			alias = null;
+			return;
+		}
+
+		// Vose's method: pair each index with less than the average probability
+		// with one that has more, scaled so the average probability is 1
+		aliasProb = new double[n];
+		alias = new int[n];
+		double[] scaled = new double[n];
+		int[] small = new int[n];
+		int[] large = new int[n];
+		int numSmall = 0, numLarge = 0;
+		for (int i = 0; i < n; i++) {
+			scaled[i] = probList.get(i) * n / cumSum;
+			alias[i] = i;
+			if (scaled[i] < 1.0d)
+				small[numSmall++] = i;
+			else
+				large[numLarge++] = i;
+		}
+
+		while (numSmall > 0 && numLarge > 0) {
+			int s = small[--numSmall];
+			int l = large[--numLarge];
+			aliasProb[s] = scaled[s];
+			alias[s] = l;
+			scaled[l] = (scaled[l] + scaled[s]) - 1.0d;
+			if (scaled[l] < 1.0d)
+				small[numSmall++] = l;
+			else
+				large[numLarge++] = l;
+		}
+
+		// The remaining entries are 1 except for rounding error
+		while (numLarge > 0)
+			aliasProb[large[--numLarge]] = 1.0d;
+		while (numSmall > 0)
+			aliasProb[small[--numSmall]] = 1.0d;
+	}
+
+	/**
+	 * Returns the index for the given uniform random number in [0, 1).
+	 */
+	int nextIndex(double rand) {
+		if (alias == null)
+			return this.searchIndex(rand);
+
+		double x = rand * alias.length;
+		int i = Math.min((int)x, alias.length - 1);
+		if (x - i < aliasProb[i])
+			return i;
+		return alias[i];
+	}
+
+	/**
+	 * Returns the first index whose cumulative probability is >= rand, or the
+	 * last index if there is none.
+	 */
+	int searchIndex(double rand) {
+		int lo = 0;
+		int hi = cumProb.length - 1;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (rand <= cumProb[mid])
+				hi = mid;
+			else
+				lo = mid + 1;
+		}
+		return lo;
+	}
+}
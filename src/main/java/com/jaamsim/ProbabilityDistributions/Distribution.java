@@ -20,13 +20,16 @@ import com.jaamsim.input.Output;
 import com.jaamsim.input.OutputHandle;
 import com.jaamsim.input.UnitTypeInput;
 import com.jaamsim.input.ValueInput;
+import com.jaamsim.rng.MRG1999a;
 import com.jaamsim.ui.FrameBox;
 import com.jaamsim.units.DimensionlessUnit;
 import com.jaamsim.units.Unit;
 import com.jaamsim.units.UserSpecifiedUnit;
+import com.sandwell.JavaSimulation.ErrorException;
 import com.sandwell.JavaSimulation.Input;
 import com.sandwell.JavaSimulation.InputErrorException;
 import com.sandwell.JavaSimulation.IntegerInput;
+import com.sandwell.JavaSimulation.Simulation;
 import com.sandwell.JavaSimulation3D.DisplayEntity;
 
 /**
@@ -62,6 +65,18 @@ implements SampleProvider {
 	private double sampleMin;
 	private double sampleMax;
 
+	// Range of uniform random numbers that map to samples between MinValue and
+	// MaxValue, [0, 1] unless the distribution is truncated by inverse transform
+	private boolean truncated;
+	private double uniformMin;
+	private double uniformMax;
+
+	// Samples outside MinValue and MaxValue drawn in a row before giving up
+	private static final int MAX_REJECTIONS = 1000000;
+
+	// Number of uniforms each random generator generates ahead in a block
+	private static int uniformBufferSize = 16;
+
 	static {
 		globalSeedInput = new IntegerInput("GlobalSubstreamSeed", "Key Inputs", 0);
 		globalSeedInput.setValidRange(0, Integer.MAX_VALUE);
@@ -108,6 +123,40 @@ implements SampleProvider {
 		sampleSquaredSum = 0.0;
 		sampleMin = Double.POSITIVE_INFINITY;
 		sampleMax = Double.NEGATIVE_INFINITY;
+
+		this.setTruncation();
+	}
+
+	/**
+	 * Find the range of uniform random numbers that map to samples between
+	 * MinValue and MaxValue, so a truncated distribution can be sampled
+	 * directly instead of rejecting the samples outside the range.
+	 */
+	private void setTruncation() {
+		truncated = false;
+		uniformMin = 0.0d;
+		uniformMax = 1.0d;
+
+		if (Simulation.getLegacySampling())
+			return;
+
+		double u1 = this.getUniformForSample(minValueInput.getValue());
+		double u2 = this.getUniformForSample(maxValueInput.getValue());
+		if (Double.isNaN(u1) || Double.isNaN(u2))
+			return;
+
+		// The uniform may increase or decrease with the sample value
+		double lo = Math.max(Math.min(u1, u2), 0.0d);
+		double hi = Math.min(Math.max(u1, u2), 1.0d);
+		if (lo == 0.0d && hi == 1.0d)
+			return;
+
+		if (hi <= lo)
+			throw new ErrorException("%s: there are no samples between MinValue and MaxValue", this.getInputName());
+
+		truncated = true;
+		uniformMin = lo;
+		uniformMax = hi;
 	}
 
 	@Override
@@ -129,11 +178,64 @@ implements SampleProvider {
 		return out;
 	}
 
+	/**
+	 * Sets the number of uniforms the random generators of distributions created
+	 * from now on generate ahead in a block, 0 generates them one at a time.
+	 * The samples are identical either way.
+	 */
+	public static void setUniformBufferSize(int size) {
+		uniformBufferSize = size;
+	}
+
+	/**
+	 * Returns a random generator for this distribution, it is seeded by
+	 * earlyInit() in the subclass.
+	 */
+	protected final MRG1999a newGenerator() {
+		MRG1999a ret = new MRG1999a();
+		ret.setBufferSize(uniformBufferSize);
+		return ret;
+	}
+
 	/**
 	 * Select the next sample from the probability distribution.
 	 */
 	protected abstract double getNextSample();
 
+	/**
+	 * Returns the sample given by the uniform random number u for a
+	 * distribution sampled by inverse transform, or NaN if it is not.
+	 */
+	protected double getSampleForUniform(double u) {
+		return Double.NaN;
+	}
+
+	/**
+	 * Returns the uniform random number that getSampleForUniform() maps to
+	 * the sample x, either the CDF or 1 - CDF at x, or NaN if the
+	 * distribution is not sampled by inverse transform.
+	 */
+	protected double getUniformForSample(double x) {
+		return Double.NaN;
+	}
+
+	/**
+	 * Returns true if MinValue and MaxValue are sampled by inverse transform
+	 * over the range of uniforms between them.
+	 */
+	protected final boolean isTruncated() {
+		return truncated;
+	}
+
+	/**
+	 * Returns the sample by inverse transform for the uniform random number u
+	 * in (0, 1), scaled to the range of uniforms between MinValue and MaxValue.
+	 * When the distribution is not truncated u is used as is.
+	 */
+	protected final double getInverseSample(double u) {
+		return this.getSampleForUniform(uniformMin + u * (uniformMax - uniformMin));
+	}
+
 	@Override
 	public Class<? extends Unit> getUnitType() {
 		return unitType.getUnitType();
@@ -157,13 +259,30 @@ implements SampleProvider {
 	 */
 	@Override
 	public final double getNextSample(double simTime) {
-		// Loop until the select sample falls within the desired min and max values
+		// Loop until the select sample falls within the desired min and max values,
+		// a truncated distribution is only outside them due to rounding error
+		double min = this.minValueInput.getValue();
+		double max = this.maxValueInput.getValue();
 		double nextSample;
-		do {
+		int numRejected = 0;
+		while (true) {
 			nextSample = this.getNextSample();
+			if (nextSample >= min && nextSample <= max)
+				break;
+
+			if (truncated) {
+				nextSample = Math.min(Math.max(nextSample, min), max);
+				break;
+			}
+
+			if (Double.isNaN(nextSample))
+				break;
+
+			numRejected++;
+			if (numRejected == MAX_REJECTIONS)
+				throw new ErrorException("%s: %d samples in a row were outside MinValue and MaxValue",
+				                         this.getInputName(), numRejected);
 		}
-		while (nextSample < this.minValueInput.getValue() ||
-		       nextSample > this.maxValueInput.getValue());
 
 		// Collect statistics on the sampled values
 		sampleCount++;
@@ -14,8 +14,6 @@
  */
 package com.jaamsim.ProbabilityDistributions;
 
-import com.sandwell.JavaSimulation.DoubleVector;
-
 /**
  * EntitlementSelector selects the next entity to return based on the difference between the expected and actual numbers
  * of samples for each object.  The object with the biggest difference (expected - actual) is selected.
@@ -26,13 +24,13 @@ public class EntitlementSelector extends ObjectSelector {
 
 	@Override
 	protected int getNextIndex() {
-		DoubleVector probList = this.getProbabilityList();
+		double[] probs = this.getProbabilities();
 		int index = 0;
 		double maxDiff = Double.NEGATIVE_INFINITY;
 
 		int nextTotal = this.getNumberOfSamples() + 1;
-		for( int i=0; i<probList.size(); i++) {
-			double diff = nextTotal * probList.get(i) - this.getSampleCount(i);
+		for( int i=0; i<probs.length; i++) {
+			double diff = nextTotal * probs[i] - this.getSampleCount(i);
 			if( diff > maxDiff ) {
 				maxDiff = diff;
 				index = i;
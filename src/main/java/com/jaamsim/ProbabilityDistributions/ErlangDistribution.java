@@ -37,7 +37,7 @@ public class ErlangDistribution extends Distribution {
 	         example = "ErlangDist-1 Shape { 2 }")
 	private final IntegerInput shapeInput;
 
-	private final MRG1999a rng = new MRG1999a();
+	private final MRG1999a rng = this.newGenerator();
 
 	{
 		minValueInput.setDefaultValue(0.0);
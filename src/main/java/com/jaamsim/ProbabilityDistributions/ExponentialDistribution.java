@@ -30,7 +30,7 @@ public class ExponentialDistribution extends Distribution {
 	         example = "ExponentialDist-1 Mean { 5.0 }")
 	private final ValueInput meanInput;
 
-	private final MRG1999a rng = new MRG1999a();
+	private final MRG1999a rng = this.newGenerator();
 
 	{
 		minValueInput.setDefaultValue(0.0);
@@ -59,7 +59,19 @@ public class ExponentialDistribution extends Distribution {
 	protected double getNextSample() {
 
 		// Inverse transform method
-		return (-meanInput.getValue() * Math.log(rng.nextUniform()));
+		return this.getInverseSample(rng.nextUniform());
+	}
+
+	@Override
+	protected double getSampleForUniform(double u) {
+		return (-meanInput.getValue() * Math.log(u));
+	}
+
+	@Override
+	protected double getUniformForSample(double x) {
+		if (x <= 0.0)
+			return 1.0;
+		return Math.exp(-x / meanInput.getValue());
 	}
 
 	@Override
@@ -37,8 +37,8 @@ public class GammaDistribution extends Distribution {
 	         example = "GammaDist-1 Shape { 2.0 }")
 	private final DoubleInput shapeInput;
 
-	private final MRG1999a rng1 = new MRG1999a();
-	private final MRG1999a rng2 = new MRG1999a();
+	private final MRG1999a rng1 = this.newGenerator();
+	private final MRG1999a rng2 = this.newGenerator();
 
 	{
 		minValueInput.setDefaultValue(0.0);
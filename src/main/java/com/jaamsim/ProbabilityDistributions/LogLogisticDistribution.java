@@ -35,7 +35,7 @@ public class LogLogisticDistribution extends Distribution {
 	         example = "LogLogisticDist-1 Shape { 1.0 }")
 	private final ValueInput shapeInput;
 
-	private final MRG1999a rng = new MRG1999a();
+	private final MRG1999a rng = this.newGenerator();
 
 	{
 		minValueInput.setDefaultValue(0.0);
@@ -69,10 +69,21 @@ public class LogLogisticDistribution extends Distribution {
 	protected double getNextSample() {
 
 		// Inverse transform method
-		double u = rng.nextUniform();
+		return this.getInverseSample(rng.nextUniform());
+	}
+
+	@Override
+	protected double getSampleForUniform(double u) {
 		return scaleInput.getValue() * Math.pow( u / (1 - u), 1.0 / shapeInput.getValue() );
 	}
 
+	@Override
+	protected double getUniformForSample(double x) {
+		if (x <= 0.0)
+			return 0.0;
+		return 1.0 / ( 1.0 + Math.pow( scaleInput.getValue() / x, shapeInput.getValue() ) );
+	}
+
 	@Override
 	protected double getMeanValue() {
 		double theta = Math.PI / shapeInput.getValue();
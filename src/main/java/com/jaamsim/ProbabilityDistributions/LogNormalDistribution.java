@@ -35,8 +35,12 @@ public class LogNormalDistribution extends Distribution {
 	         example = "LogNormalDist-1 NormalStandardDeviation { 2.0 }")
 	private final ValueInput normalStandardDeviationInput;
 
-	private final MRG1999a rng1 = new MRG1999a();
-	private final MRG1999a rng2 = new MRG1999a();
+	private final MRG1999a rng1 = this.newGenerator();
+	private final MRG1999a rng2 = this.newGenerator();
+
+	// TRUE if uniforms are mapped to samples by 1 - CDF instead of the CDF, so
+	// that a MinValue far above the median does not round the CDF to 1
+	private boolean upperTail;
 
 	{
 		minValueInput.setDefaultValue(0.0);
@@ -55,6 +59,7 @@ public class LogNormalDistribution extends Distribution {
 
 	@Override
 	public void earlyInit() {
+		upperTail = minValueInput.getValue() > Math.exp(normalMeanInput.getValue());
 		super.earlyInit();
 
 		rng1.setSeedStream(getStreamNumber()    , getSubstreamNumber());
@@ -70,6 +75,9 @@ public class LogNormalDistribution extends Distribution {
 
 	@Override
 	protected double getNextSample() {
+		// Sample between MinValue and MaxValue directly
+		if (this.isTruncated())
+			return this.getInverseSample(rng1.nextUniform());
 
 		// Loop until we have a random x-y coordinate in the unit circle
 		double w, v1, v2, sample;
@@ -90,6 +98,28 @@ public class LogNormalDistribution extends Distribution {
 		return Math.exp( sample );
 	}
 
+	@Override
+	protected double getSampleForUniform(double u) {
+		double sd = normalStandardDeviationInput.getValue();
+		double z = NormalDistribution.inverseStandardCDF(u);
+		if (upperTail)
+			z = -z;
+		return Math.exp( normalMeanInput.getValue() + sd * z );
+	}
+
+	@Override
+	protected double getUniformForSample(double x) {
+		double sd = normalStandardDeviationInput.getValue();
+		if (sd <= 0.0)
+			return Double.NaN;
+		if (x <= 0.0)
+			return upperTail ? 1.0 : 0.0;
+		double z = (Math.log(x) - normalMeanInput.getValue()) / sd;
+		if (upperTail)
+			z = -z;
+		return NormalDistribution.standardCDF(z);
+	}
+
 	@Override
 	protected double getMeanValue() {
 		double sd = normalStandardDeviationInput.getValue();
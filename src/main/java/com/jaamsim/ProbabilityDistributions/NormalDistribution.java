@@ -35,8 +35,12 @@ public class NormalDistribution extends Distribution {
 	         example = "NormalDist-1 StandardDeviation { 2.0 }")
 	private final ValueInput standardDeviationInput;
 
-	private final MRG1999a rng1 = new MRG1999a();
-	private final MRG1999a rng2 = new MRG1999a();
+	private final MRG1999a rng1 = this.newGenerator();
+	private final MRG1999a rng2 = this.newGenerator();
+
+	// TRUE if uniforms are mapped to samples by 1 - CDF instead of the CDF, so
+	// that a MinValue far above the mean does not round the CDF to 1
+	private boolean upperTail;
 
 	{
 		meanInput = new ValueInput("Mean", "Key Inputs", 0.0d);
@@ -53,6 +57,7 @@ public class NormalDistribution extends Distribution {
 
 	@Override
 	public void earlyInit() {
+		upperTail = minValueInput.getValue() > meanInput.getValue();
 		super.earlyInit();
 
 		rng1.setSeedStream(getStreamNumber()    , getSubstreamNumber());
@@ -68,6 +73,9 @@ public class NormalDistribution extends Distribution {
 
 	@Override
 	protected double getNextSample() {
+		// Sample between MinValue and MaxValue directly
+		if (this.isTruncated())
+			return this.getInverseSample(rng1.nextUniform());
 
 		// Loop until we have a random x-y coordinate in the unit circle
 		double w, v1, v2, sample;
@@ -85,6 +93,123 @@ public class NormalDistribution extends Distribution {
 		return meanInput.getValue() + ( sample * standardDeviationInput.getValue() );
 	}
 
+	@Override
+	protected double getSampleForUniform(double u) {
+		double z = NormalDistribution.inverseStandardCDF(u);
+		if (upperTail)
+			z = -z;
+		return meanInput.getValue() + standardDeviationInput.getValue() * z;
+	}
+
+	@Override
+	protected double getUniformForSample(double x) {
+		double sd = standardDeviationInput.getValue();
+		if (sd <= 0.0)
+			return Double.NaN;
+		double z = (x - meanInput.getValue()) / sd;
+		if (upperTail)
+			z = -z;
+		return NormalDistribution.standardCDF(z);
+	}
+
+	private static final double SQRT_2PI = Math.sqrt(2.0 * Math.PI);
+
+	/**
+	 * Returns the standard normal CDF at z.  A Taylor series (Marsaglia 2004)
+	 * is used for |z| <= 3 and Laplace's continued fraction for the tails,
+	 * which keeps the relative accuracy of small probabilities.  The CDF rounds
+	 * to 1 above about z = 8.3, use standardCDF(-z) for 1 - CDF in the upper
+	 * tail.
+	 */
+	static double standardCDF(double z) {
+		if (z < -3.0)
+			return upperTail(-z);
+		if (z > 3.0)
+			return 1.0 - upperTail(z);
+
+		// Phi(z) = 1/2 + phi(z) * (z + z^3/3 + z^5/(3*5) + ...)
+		double z2 = z * z;
+		double term = z;
+		double sum = z;
+		for (int i = 3; sum + term != sum; i += 2) {
+			term *= z2 / i;
+			sum += term;
+		}
+		return 0.5 + sum * Math.exp(-0.5 * z2) / SQRT_2PI;
+	}
+
+	/**
+	 * Returns 1 - Phi(z) for z > 3, Laplace's continued fraction
+	 * phi(z) / (z + 1/(z + 2/(z + 3/(z + ...)))) by the modified Lentz method.
+	 */
+	private static double upperTail(double z) {
+		if (z == Double.POSITIVE_INFINITY)
+			return 0.0;
+
+		double f = z;
+		double c = z;
+		double d = 0.0;
+		for (int n = 1; n < 500; n++) {
+			d = 1.0 / (z + n * d);
+			c = z + n / c;
+			double delta = c * d;
+			f *= delta;
+			if (Math.abs(delta - 1.0) < 1.0e-16)
+				break;
+		}
+		return Math.exp(-0.5 * z * z) / SQRT_2PI / f;
+	}
+
+	// Coefficients for the rational approximations in inverseStandardCDF()
+	private static final double[] ICDF_A = { -3.969683028665376e+01,  2.209460984245205e+02,
+	                                         -2.759285104469687e+02,  1.383577518672690e+02,
+	                                         -3.066479806614716e+01,  2.506628277459239e+00 };
+	private static final double[] ICDF_B = { -5.447609879822406e+01,  1.615858368580409e+02,
+	                                         -1.556989798598866e+02,  6.680131188771972e+01,
+	                                         -1.328068155288572e+01 };
+	private static final double[] ICDF_C = { -7.784894002430293e-03, -3.223964580411365e-01,
+	                                         -2.400758277161838e+00, -2.549732539343734e+00,
+	                                          4.374664141464968e+00,  2.938163982698783e+00 };
+	private static final double[] ICDF_D = {  7.784695709041462e-03,  3.224671290700398e-01,
+	                                          2.445134137142996e+00,  3.754408661907416e+00 };
+
+	/**
+	 * Returns the z value at which the standard normal CDF is p.  Acklam's
+	 * rational approximation (relative error 1.15e-9) is refined by one step
+	 * of Halley's method.
+	 */
+	static double inverseStandardCDF(double p) {
+		if (p <= 0.0)
+			return Double.NEGATIVE_INFINITY;
+		if (p >= 1.0)
+			return Double.POSITIVE_INFINITY;
+
+		double z;
+		if (p < 0.02425) {
+			double q = Math.sqrt(-2.0 * Math.log(p));
+			z = (((((ICDF_C[0]*q + ICDF_C[1])*q + ICDF_C[2])*q + ICDF_C[3])*q + ICDF_C[4])*q + ICDF_C[5]) /
+			    ((((ICDF_D[0]*q + ICDF_D[1])*q + ICDF_D[2])*q + ICDF_D[3])*q + 1.0);
+		}
+		else if (p > 1.0 - 0.02425) {
+			double q = Math.sqrt(-2.0 * Math.log(1.0 - p));
+			z = -(((((ICDF_C[0]*q + ICDF_C[1])*q + ICDF_C[2])*q + ICDF_C[3])*q + ICDF_C[4])*q + ICDF_C[5]) /
+			     ((((ICDF_D[0]*q + ICDF_D[1])*q + ICDF_D[2])*q + ICDF_D[3])*q + 1.0);
+		}
+		else {
+			double q = p - 0.5;
+			double r = q * q;
+			z = (((((ICDF_A[0]*r + ICDF_A[1])*r + ICDF_A[2])*r + ICDF_A[3])*r + ICDF_A[4])*r + ICDF_A[5])*q /
+			    (((((ICDF_B[0]*r + ICDF_B[1])*r + ICDF_B[2])*r + ICDF_B[3])*r + ICDF_B[4])*r + 1.0);
+		}
+
+		// Halley's method, skipped where 1/phi(z) overflows
+		double e = standardCDF(z) - p;
+		double u = e * SQRT_2PI * Math.exp(0.5 * z * z);
+		if (Double.isInfinite(u) || Double.isNaN(u))
+			return z;
+		return z - u / (1.0 + 0.5 * z * u);
+	}
+
 	@Override
 	protected double getMeanValue() {
 		return meanInput.getValue();
@@ -40,6 +40,7 @@ public abstract class ObjectSelector extends DisplayEntity {
 	private int totalCount;  // the total number of samples that have been selected
 	private int[] sampleCount;  // number of times each entity has been selected
 	private double[] sampleDifference;  // (actual number of samples) - (expected number)
+	private double[] probabilities;
 
 	{
 		entityListInput = new EntityListInput<DisplayEntity>( DisplayEntity.class, "EntityList", "Key Inputs", null);
@@ -77,6 +78,11 @@ public abstract class ObjectSelector extends DisplayEntity {
 		totalCount = 0;
 		sampleCount = new int[ entityListInput.getValue().size() ];
 		sampleDifference = new double[ entityListInput.getValue().size() ];
+
+		DoubleVector probList = probabilityListInput.getValue();
+		probabilities = new double[ probList.size() ];
+		for (int i = 0; i < probabilities.length; i++)
+			probabilities[i] = probList.get(i);
 	}
 
 	/**
@@ -87,12 +93,10 @@ public abstract class ObjectSelector extends DisplayEntity {
 		// Sample a non-zero value from the distribution
 		presentIndex = this.getNextIndex();
 
-		// Collect statistics on the sampled values
+		// Collect statistics on the sampled values, the differences are
+		// calculated when they are requested
 		totalCount++;
 		sampleCount[presentIndex]++;
-		for(int i=0; i<sampleCount.length; i++) {
-			sampleDifference[i] = sampleCount[i] - totalCount*probabilityListInput.getValue().get(i);
-		}
 	}
 
 	/**
@@ -127,6 +131,13 @@ public abstract class ObjectSelector extends DisplayEntity {
 		return probabilityListInput.getValue();
 	}
 
+	/**
+	 * Returns the probabilities as an array, valid after earlyInit().
+	 */
+	protected final double[] getProbabilities() {
+		return probabilities;
+	}
+
 	@Output( name="NumberOfSamples",
 			 description="The number of times the distribution has been sampled.")
 	public int getNumberOfSamples( double simTime ) {
@@ -142,6 +153,9 @@ public abstract class ObjectSelector extends DisplayEntity {
 	@Output( name="SampleDifference",
 			 description="The difference between the actual number samples for each entity and the expected number.")
 	public double[] getSampleDifference( double simTime ) {
+		for(int i=0; i<sampleCount.length; i++) {
+			sampleDifference[i] = sampleCount[i] - totalCount*probabilities[i];
+		}
 		return sampleDifference;
 	}
 }
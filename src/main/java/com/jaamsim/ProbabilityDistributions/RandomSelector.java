@@ -17,8 +17,8 @@ package com.jaamsim.ProbabilityDistributions;
 import java.util.Random;
 
 import com.jaamsim.input.Keyword;
-import com.sandwell.JavaSimulation.DoubleVector;
 import com.sandwell.JavaSimulation.IntegerInput;
+import com.sandwell.JavaSimulation.Simulation;
 
 /**
  * RandomSelector randomly selects the next entity to return based on the given probabilities.
@@ -32,6 +32,7 @@ public class RandomSelector extends ObjectSelector {
 	private IntegerInput randomSeedInput;
 
 	protected final Random randomGenerator;
+	private DiscreteSampler sampler;
 
 	{
 		randomSeedInput = new IntegerInput("RandomSeed", "Key Inputs", 1);
@@ -47,19 +48,11 @@ public class RandomSelector extends ObjectSelector {
 	public void earlyInit() {
 		super.earlyInit();
 		randomGenerator.setSeed( randomSeedInput.getValue() );
+		sampler = new DiscreteSampler(this.getProbabilityList(), !Simulation.getLegacySampling());
 	}
 
 	@Override
 	protected int getNextIndex() {
-		DoubleVector probList = this.getProbabilityList();
-		double rand = randomGenerator.nextDouble();
-		double cumProb = 0.0;
-		for( int i=0; i<probList.size(); i++) {
-			cumProb += probList.get(i);
-			if( rand <= cumProb ) {
-				return i;
-			}
-		}
-		return probList.size()-1;
+		return sampler.nextIndex(randomGenerator.nextDouble());
 	}
 }
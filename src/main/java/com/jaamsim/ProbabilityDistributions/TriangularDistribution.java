@@ -31,7 +31,7 @@ public class TriangularDistribution extends Distribution {
 	         example = "TriangularDist-1 Mode { 5.0 }")
 	private final ValueInput modeInput;
 
-	private final MRG1999a rng = new MRG1999a();
+	private final MRG1999a rng = this.newGenerator();
 
 	{
 		modeInput = new ValueInput("Mode", "Key Inputs", 1.0d);
@@ -21,7 +21,7 @@ import com.jaamsim.rng.MRG1999a;
  * Adapted from A.M. Law, "Simulation Modelling and Analysis, 4th Edition", page 448.
  */
 public class UniformDistribution extends Distribution {
-	private final MRG1999a rng = new MRG1999a();
+	private final MRG1999a rng = this.newGenerator();
 
 	public UniformDistribution() {}
 
@@ -37,7 +37,7 @@ public class WeibullDistribution extends Distribution {
 	         example = "WeibullDist-1 Shape { 1.0 }")
 	private final ValueInput shapeInput;
 
-	private final MRG1999a rng = new MRG1999a();
+	private final MRG1999a rng = this.newGenerator();
 
 	{
 		minValueInput.setDefaultValue(0.0);
@@ -71,7 +71,19 @@ public class WeibullDistribution extends Distribution {
 	protected double getNextSample() {
 
 		// Inverse transform method
-		return  scaleInput.getValue() * Math.pow( - Math.log( rng.nextUniform() ), 1.0/shapeInput.getValue() );
+		return this.getInverseSample(rng.nextUniform());
+	}
+
+	@Override
+	protected double getSampleForUniform(double u) {
+		return  scaleInput.getValue() * Math.pow( - Math.log( u ), 1.0/shapeInput.getValue() );
+	}
+
+	@Override
+	protected double getUniformForSample(double x) {
+		if (x <= 0.0)
+			return 1.0;
+		return Math.exp( - Math.pow( x / scaleInput.getValue(), shapeInput.getValue() ) );
 	}
 
 	@Override
@@ -191,11 +191,13 @@ public abstract class Threshold extends DisplayEntity {
 
 		// Print percentage of time open
 		double fraction = openSimTime/totalSimTime;
-		anOut.format("%.1f%%\t", fraction * 100.0d);
+		anOut.putDouble( fraction * 100.0d, 1 );
+		anOut.putString( "%\t" );
 
 		// Print percentage of time closed
 		fraction = closedSimTime/totalSimTime;
-		anOut.format("%.1f%%\t", fraction * 100.0d);
+		anOut.putDouble( fraction * 100.0d, 1 );
+		anOut.putString( "%\t" );
 	}
 
 	@Output(name = "Open",
@@ -26,6 +26,7 @@ import com.jaamsim.units.UserSpecifiedUnit;
 import com.sandwell.JavaSimulation.EntityTarget;
 import com.sandwell.JavaSimulation.Input;
 import com.sandwell.JavaSimulation.InputErrorException;
+import com.sandwell.JavaSimulation.TimeSeriesCursor;
 import com.sandwell.JavaSimulation.TimeSeriesInput;
 import com.sandwell.JavaSimulation.TimeSeriesProvider;
 
@@ -59,6 +60,13 @@ public class TimeSeriesThreshold extends Threshold {
     example = "Threshold1  UnitType { DistanceUnit }")
 	private final UnitTypeInput unitType;
 
+	// Lookup positions in each time series, kept separate from other users of the same series
+	private final TimeSeriesCursor timeSeriesCursor = new TimeSeriesCursor();
+	private final TimeSeriesCursor maxOpenLimitCursor = new TimeSeriesCursor();
+	private final TimeSeriesCursor minOpenLimitCursor = new TimeSeriesCursor();
+
+	private TimeSeriesThresholdIndex index;  // Open and closed times for the inputs
+
 	{
 		unitType = new UnitTypeInput("UnitType", "Key Inputs", UserSpecifiedUnit.class);
 		this.addInput(unitType);
@@ -125,10 +133,26 @@ public class TimeSeriesThreshold extends Threshold {
 			InputAgent.logWarning( "Threshold %s is closed forever.  MinOpenLimit = %f Min TimeSeries Value = %f", this, this.getMaxMinOpenLimit(), this.getTimeSeries().getMinValue() );
 	}
 
+	@Override
+	public void earlyInit() {
+		super.earlyInit();
+
+		// Find the open and closed windows for the first cycle of the inputs
+		index = new TimeSeriesThresholdIndex(this);
+		if (!this.isAlwaysClosed() && !this.isAlwaysOpen())
+			index.build(this.getOffsetInHours());
+	}
+
 	public Class<? extends Unit> getUnitType() {
 		return unitType.getUnitType();
 	}
 
+	private TimeSeriesThresholdIndex getIndex() {
+		if (index == null)
+			index = new TimeSeriesThresholdIndex(this);
+		return index;
+	}
+
 	private static class DoOpenCloseTarget extends EntityTarget<Threshold> {
 		public DoOpenCloseTarget(Threshold ent, String method) {
 			super(ent, method);
@@ -185,26 +209,7 @@ public class TimeSeriesThreshold extends Threshold {
 		// Add offset from input
 		time += this.getOffsetInHours();
 
-		double changeTime = time;
-
-		// if the current point is closed, we are done
-		if( this.isPointClosed(changeTime) ) {
-			return true;
-		}
-
-		while( true ) {
-
-			// Current point is open
-			// If there has already been lookahead hours since the given time, the threshold is open
-			if( changeTime - this.getLookAheadInHours() > time )
-				return false;
-
-			// If the next point is closed, determine if open long enough too satisfy lookahead
-			changeTime = this.getNextChangeTimeAfterHours(changeTime);
-			if( this.isPointClosed(changeTime) ) {
-				return (changeTime - this.getLookAheadInHours()) < time;
-			}
-		}
+		return this.getIndex().isClosedAtTime(time);
 	}
 
 	/**
@@ -230,55 +235,8 @@ public class TimeSeriesThreshold extends Threshold {
 		// Add offset from input
 		startTime += this.getOffsetInHours();
 
-		// Threshold is currently closed. Find the next open point
-		double openTime = -1;
-		double changeTime = startTime;
-		double maxTimeValueFromTimeSeries = this.getMaxTimeValueFromTimeSeries();
-		while( true ) {
-			changeTime = this.getNextChangeTimeAfterHours( changeTime );
-
-			if( changeTime == Double.POSITIVE_INFINITY ) {
-
-				// If an open point was found, it will be open forever
-				if( openTime != -1 ) {
-					return openTime - startTime;
-				}
-
-				// Threshold will never be open
-				return Double.POSITIVE_INFINITY;
-			}
-
-			// if have already searched the longest cycle, the threshold will never open
-			if( changeTime > startTime + maxTimeValueFromTimeSeries + this.getLookAhead() )
-				return Double.POSITIVE_INFINITY;
-
-			// Closed index
-			if( this.isPointClosed(changeTime) ) {
-
-				// If an open point has not been found yet, keep looking
-				if( openTime == -1 ) {
-					continue;
-				}
-
-				// Has enough time been gathered to satisfy the lookahead?
-				double openDuration = changeTime - openTime;
-				if( openDuration >= this.getLookAheadInHours() ) {
-					return openTime - startTime;
-				}
-				// not enough time, need to start again
-				else {
-					openTime = -1;
-				}
-			}
-			// Open index
-			else {
-
-				// Keep track of the first open index.
-				if( openTime == -1 ) {
-					openTime = changeTime;
-				}
-			}
-		}
+		// Threshold is currently closed. Find the next open window
+		return this.getIndex().calcClosedTimeFromTime(startTime);
 	}
 
 	public boolean isAlwaysOpen() {
@@ -378,29 +336,8 @@ public class TimeSeriesThreshold extends Threshold {
 		// Add offset from input
 		startTime += this.getOffsetInHours();
 
-		// Find the next change point after startTime
-		double changeTime = startTime;
-		double maxTimeValueFromTimeSeries = this.getMaxTimeValueFromTimeSeries();
-		while( true ) {
-			changeTime = this.getNextChangeTimeAfterHours( changeTime );
-
-			if( changeTime == Double.POSITIVE_INFINITY )
-				return Double.POSITIVE_INFINITY;
-
-			// if have already searched the longest cycle, the threshold will never close
-			if( changeTime > startTime + maxTimeValueFromTimeSeries )
-				return Double.POSITIVE_INFINITY;
-
-			// Closed index
-			if( this.isPointClosed(changeTime) ) {
-
-				double timeUntilClose = changeTime - this.getLookAheadInHours() - startTime;
-
-				// if the time required is 0.0, the lookahead window is equal to the time until the next closed point.
-				// Need to wait at least one clock tick before closing again.
-				return Math.max(timeUntilClose, Process.getEventTolerance());
-			}
-		}
+		// Find the next closed point after startTime
+		return this.getIndex().calcOpenTimeFromTime(startTime, Process.getEventTolerance());
 	}
 
 	/**
@@ -409,13 +346,13 @@ public class TimeSeriesThreshold extends Threshold {
 	 * @return
 	 */
 	public double getNextChangeTimeAfterHours( double time ) {
-		double firstChange = this.getTimeSeries().getNextChangeTimeAfterHours(time);
+		double firstChange = this.getTimeSeries().getNextChangeTimeAfterHours(time, timeSeriesCursor);
 
 		if (maxOpenLimit.getValue() != null)
-			firstChange = Math.min(firstChange, maxOpenLimit.getValue().getNextChangeTimeAfterHours(time));
+			firstChange = Math.min(firstChange, maxOpenLimit.getValue().getNextChangeTimeAfterHours(time, maxOpenLimitCursor));
 
 		if (minOpenLimit.getValue() != null)
-			firstChange = Math.min(firstChange, minOpenLimit.getValue().getNextChangeTimeAfterHours(time));
+			firstChange = Math.min(firstChange, minOpenLimit.getValue().getNextChangeTimeAfterHours(time, minOpenLimitCursor));
 
 		return firstChange;
 	}
@@ -442,15 +379,15 @@ public class TimeSeriesThreshold extends Threshold {
 	 * MinOpenLimit.
 	 */
 	public boolean isPointClosed( double time ) {
-		double value = this.getTimeSeries().getValueForTimeHours(time);
+		double value = this.getTimeSeries().getValueForTimeHours(time, timeSeriesCursor);
 
 		double minOpenLimitVal = Double.NEGATIVE_INFINITY;
 		if (minOpenLimit.getValue() != null)
-			minOpenLimitVal = minOpenLimit.getValue().getValueForTimeHours(time);
+			minOpenLimitVal = minOpenLimit.getValue().getValueForTimeHours(time, minOpenLimitCursor);
 
 		double maxOpenLimitVal = Double.POSITIVE_INFINITY;
 		if (maxOpenLimit.getValue() != null)
-			maxOpenLimitVal = maxOpenLimit.getValue().getValueForTimeHours(time);
+			maxOpenLimitVal = maxOpenLimit.getValue().getValueForTimeHours(time, maxOpenLimitCursor);
 
 		// Error check that threshold limits remain consistent
 		if (minOpenLimitVal > maxOpenLimitVal)
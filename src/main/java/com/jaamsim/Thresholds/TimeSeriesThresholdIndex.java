@@ -0,0 +1,294 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.Thresholds;
+
+import java.util.Arrays;
+
+/**
+ * Sorted list of the times at which the inputs to a TimeSeriesThreshold change, together with
+ * whether the threshold point is closed at each time. For each entry, the index of the next closed
+ * entry and of the next open window that satisfies the LookAhead time are also kept, so that
+ * the open and closed times can be found with a binary search rather than by stepping through
+ * the time series.
+ * <p>
+ * The entries are generated with the same calls to getNextChangeTimeAfterHours and isPointClosed
+ * that a step-by-step search would make, so the results are identical. The list is built for one
+ * cycle of the inputs by earlyInit and is extended as the simulation moves forward, while entries
+ * that are no longer needed are discarded.
+ */
+class TimeSeriesThresholdIndex {
+	static final int UNKNOWN = -1;  // Not determined by the entries generated so far
+	static final int END = -2;  // The inputs do not change again after the last entry
+
+	private final TimeSeriesThreshold thresh;
+	private final double lookAhead;  // LookAhead in hours
+
+	private double[] times;  // Times in hours at which the inputs change
+	private boolean[] closed;  // TRUE if the threshold point is closed at each time
+	private int[] nextClosed;  // First closed entry at or after each entry
+	private int[] nextWindow;  // First open window long enough to satisfy LookAhead, at or after each entry
+	private int count;
+	private boolean ended;  // TRUE if there is no change after the last entry
+
+	private int pendingClosed;  // First entry whose nextClosed is UNKNOWN
+	private int pendingWindow;  // First entry whose nextWindow is UNKNOWN
+
+	TimeSeriesThresholdIndex(TimeSeriesThreshold t) {
+		thresh = t;
+		lookAhead = t.getLookAheadInHours();
+		times = new double[1024];
+		closed = new boolean[1024];
+		nextClosed = new int[1024];
+		nextWindow = new int[1024];
+	}
+
+	/**
+	 * Generates the entries for one cycle of the inputs, starting from the given time in hours
+	 * including the offset.
+	 */
+	void build(double startTime) {
+		double t = thresh.getNextChangeTimeAfterHours(startTime);
+		if (t == Double.POSITIVE_INFINITY)
+			return;
+
+		this.reset(t);
+		double endTime = t + thresh.getMaxTimeValueFromTimeSeries() + lookAhead;
+		while (!ended && times[count - 1] <= endTime)
+			this.extend();
+	}
+
+	private void reset(double t) {
+		count = 0;
+		ended = false;
+		pendingClosed = 0;
+		pendingWindow = 0;
+		this.append(t, thresh.isPointClosed(t));
+	}
+
+	private void extend() {
+		double last = times[count - 1];
+		double t = thresh.getNextChangeTimeAfterHours(last);
+		if (t == Double.POSITIVE_INFINITY || t <= last) {
+			this.end();
+			return;
+		}
+		this.append(t, thresh.isPointClosed(t));
+	}
+
+	private void append(double t, boolean c) {
+		if (count == times.length) {
+			int n = count * 2;
+			times = Arrays.copyOf(times, n);
+			closed = Arrays.copyOf(closed, n);
+			nextClosed = Arrays.copyOf(nextClosed, n);
+			nextWindow = Arrays.copyOf(nextWindow, n);
+		}
+
+		int idx = count++;
+		times[idx] = t;
+		closed[idx] = c;
+		nextClosed[idx] = UNKNOWN;
+		nextWindow[idx] = UNKNOWN;
+
+		if (!c)
+			return;
+
+		// The open entries since the last closed entry now have their next closed entry
+		int windowStart = pendingClosed;
+		for (int i = pendingClosed; i <= idx; i++)
+			nextClosed[i] = idx;
+		pendingClosed = idx + 1;
+
+		// An open window follows a closed entry. It qualifies if it lasts for the LookAhead time
+		if (windowStart > 0 && windowStart < idx && times[idx] - times[windowStart] >= lookAhead)
+			this.setNextWindow(windowStart);
+	}
+
+	private void end() {
+		ended = true;
+
+		// An open window that lasts forever always qualifies
+		int windowStart = pendingClosed;
+		for (int i = pendingClosed; i < count; i++)
+			nextClosed[i] = END;
+		pendingClosed = count;
+
+		if (windowStart > 0 && windowStart < count)
+			this.setNextWindow(windowStart);
+
+		for (int i = pendingWindow; i < count; i++)
+			nextWindow[i] = END;
+		pendingWindow = count;
+	}
+
+	private void setNextWindow(int windowStart) {
+		for (int i = pendingWindow; i <= windowStart; i++)
+			nextWindow[i] = windowStart;
+		pendingWindow = windowStart + 1;
+	}
+
+	/**
+	 * Returns the index of the entry at the given time, generating or regenerating the entries
+	 * if necessary. The given time must be a change time returned by getNextChangeTimeAfterHours.
+	 */
+	private int locate(double t) {
+		if (count == 0 || t < times[0]) {
+			this.reset(t);
+			return 0;
+		}
+
+		while (!ended && times[count - 1] < t)
+			this.extend();
+
+		int k = Arrays.binarySearch(times, 0, count, t);
+		if (k < 0) {
+			this.reset(t);
+			return 0;
+		}
+
+		// Discard the entries that are before the present time
+		if (k > 4096 && k > count / 2) {
+			this.discard(k);
+			k = 0;
+		}
+		return k;
+	}
+
+	private void discard(int n) {
+		int rem = count - n;
+		System.arraycopy(times, n, times, 0, rem);
+		System.arraycopy(closed, n, closed, 0, rem);
+		System.arraycopy(nextClosed, n, nextClosed, 0, rem);
+		System.arraycopy(nextWindow, n, nextWindow, 0, rem);
+		for (int i = 0; i < rem; i++) {
+			if (nextClosed[i] >= 0) nextClosed[i] -= n;
+			if (nextWindow[i] >= 0) nextWindow[i] -= n;
+		}
+		count = rem;
+		pendingClosed = Math.max(pendingClosed - n, 0);
+		pendingWindow = Math.max(pendingWindow - n, 0);
+	}
+
+	/**
+	 * Returns the first closed entry at or after entry k, generating entries until it is found
+	 * or the last entry is beyond the given limit.
+	 */
+	private int getNextClosed(int k, double limit) {
+		while (nextClosed[k] == UNKNOWN && !ended && times[count - 1] <= limit)
+			this.extend();
+		return nextClosed[k];
+	}
+
+	private int getNextWindow(int k, double limit) {
+		while (nextWindow[k] == UNKNOWN && !ended && times[count - 1] <= limit)
+			this.extend();
+		return nextWindow[k];
+	}
+
+	/**
+	 * Return TRUE if the threshold is closed at the given time, which includes the offset.
+	 */
+	boolean isClosedAtTime(double time) {
+
+		// if the current point is closed, we are done
+		if (thresh.isPointClosed(time))
+			return true;
+
+		if (time - lookAhead > time)
+			return false;
+
+		double changeTime = thresh.getNextChangeTimeAfterHours(time);
+		if (changeTime == Double.POSITIVE_INFINITY)
+			return false;
+
+		// Find the next closed point. The threshold is open if it does not occur within the
+		// lookahead time.
+		int k = this.locate(changeTime);
+		while (nextClosed[k] == UNKNOWN && !ended && times[count - 1] - lookAhead <= time)
+			this.extend();
+
+		int nc = nextClosed[k];
+		if (nc < 0)
+			return false;
+
+		return (times[nc] - lookAhead) < time;
+	}
+
+	/**
+	 * Return the time in hours during which the threshold is open starting from the given time,
+	 * which includes the offset. The threshold must be open at the given time.
+	 */
+	double calcOpenTimeFromTime(double startTime, double eventTolerance) {
+		double changeTime = thresh.getNextChangeTimeAfterHours(startTime);
+		if (changeTime == Double.POSITIVE_INFINITY)
+			return Double.POSITIVE_INFINITY;
+
+		// if have already searched the longest cycle, the threshold will never close
+		double limit = startTime + thresh.getMaxTimeValueFromTimeSeries();
+		int nc = this.getNextClosed(this.locate(changeTime), limit);
+		if (nc < 0 || times[nc] > limit)
+			return Double.POSITIVE_INFINITY;
+
+		// if the time required is 0.0, the lookahead window is equal to the time until the next closed point.
+		// Need to wait at least one clock tick before closing again.
+		double timeUntilClose = times[nc] - lookAhead - startTime;
+		return Math.max(timeUntilClose, eventTolerance);
+	}
+
+	/**
+	 * Return the time in hours during which the threshold is closed starting from the given time,
+	 * which includes the offset. The threshold must be closed at the given time.
+	 */
+	double calcClosedTimeFromTime(double startTime) {
+		double changeTime = thresh.getNextChangeTimeAfterHours(startTime);
+		if (changeTime == Double.POSITIVE_INFINITY)
+			return Double.POSITIVE_INFINITY;
+
+		// if have already searched the longest cycle, the threshold will never open
+		double limit = startTime + thresh.getMaxTimeValueFromTimeSeries() + thresh.getLookAhead();
+		int k = this.locate(changeTime);
+
+		// An open first point starts a window even if the point before it was open
+		if (!closed[k]) {
+			int nc = this.getNextClosed(k, limit);
+			if (nc == UNKNOWN)
+				return Double.POSITIVE_INFINITY;
+
+			if (nc == END || times[nc] - times[k] >= lookAhead)
+				return this.getWindowTime(k, startTime, limit);
+
+			k = nc;
+		}
+
+		int w = this.getNextWindow(k, limit);
+		if (w < 0)
+			return Double.POSITIVE_INFINITY;
+
+		return this.getWindowTime(w, startTime, limit);
+	}
+
+	/**
+	 * Return the time from the given start time to the qualifying open window at entry w, or
+	 * infinity if the search would have passed the limit before confirming the window.
+	 */
+	private double getWindowTime(int w, double startTime, double limit) {
+		int nc = nextClosed[w];
+		double lastTime = (nc == END) ? times[count - 1] : times[nc];
+		if (lastTime > limit)
+			return Double.POSITIVE_INFINITY;
+
+		return times[w] - startTime;
+	}
+}
@@ -59,6 +59,7 @@ public final class EventManager {
 	private long currentTick; // Master simulation time (long)
 	private long nextTick; // The next tick to execute events at
 	private long targetTick; // the largest time we will execute events for (run to time)
+	private long numEvents; // The number of events executed since the last clear()
 
 	private double ticksPerSecond; // The number of discrete ticks per simulated second
 	private double secsPerTick;    // The length of time in seconds each tick represents
@@ -142,6 +143,7 @@ public final class EventManager {
 			currentTick = 0;
 			nextTick = 0;
 			targetTick = Long.MAX_VALUE;
+			numEvents = 0;
 			timelistener.tickUpdate(currentTick);
 			rebaseRealTime = true;
 
@@ -228,6 +230,7 @@ public final class EventManager {
 					Event nextEvent = eventList[headEvtIdx];
 					eventList[headEvtIdx] = null;
 					headEvtIdx--;
+					numEvents++;
 
 					if (trcListener != null) trcListener.traceEvent(this, nextEvent);
 
@@ -647,6 +650,15 @@ public final class EventManager {
 		throw new ProcessError("EVT:%s - Tried to terminate a ProcessTarget that couldn't be found in event list", name);
 	}
 
+	/**
+	 * Returns the number of events that have been executed since the event list was cleared.
+	 */
+	public long getNumEventsExecuted() {
+		synchronized (lockObject) {
+			return numEvents;
+		}
+	}
+
 	public long currentTick() {
 		synchronized (lockObject) {
 			return currentTick;
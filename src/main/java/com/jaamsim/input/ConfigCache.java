@@ -0,0 +1,299 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.input;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import com.sandwell.JavaSimulation.Input.ParseContext;
+
+/**
+ * A binary cache of the tokenized records of a configuration file and all of
+ * the files it includes, in the order they were read.
+ *
+ * The cache holds the configuration file it was built for and a content hash
+ * of every file that was read, so it can be replayed in place of the files
+ * only for the same configuration file and only when none of them has changed.
+ * Include records are not stored, the records of the included file follow in
+ * their place.
+ */
+class ConfigCache {
+	private static final int MAGIC = 0x4A534343; // "JSCC"
+	private static final int VERSION = 2;
+	private static final String DIGEST = "SHA-1";
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private final String root;
+	private final ArrayList<String> files;
+	private final ArrayList<byte[]> digests;
+	private final ArrayList<ParseContext> contexts;
+	private final ArrayList<String[]> records;
+	private final ArrayList<Integer> recordContexts;
+
+	ConfigCache(URI root) {
+		this(root.toString());
+	}
+
+	private ConfigCache(String root) {
+		this.root = root;
+		files = new ArrayList<String>();
+		digests = new ArrayList<byte[]>();
+		contexts = new ArrayList<ParseContext>();
+		records = new ArrayList<String[]>();
+		recordContexts = new ArrayList<Integer>();
+	}
+
+	/**
+	 * Returns a new digest for hashing file contents, or null if the platform
+	 * does not provide one.
+	 */
+	static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance(DIGEST);
+		}
+		catch (NoSuchAlgorithmException e) {
+			return null;
+		}
+	}
+
+	void addFile(URI uri, byte[] digest) {
+		files.add(uri.toString());
+		digests.add(digest);
+	}
+
+	void addRecord(ParseContext pc, ArrayList<String> record) {
+		int ctx = contexts.lastIndexOf(pc);
+		if (ctx == -1) {
+			contexts.add(pc);
+			ctx = contexts.size() - 1;
+		}
+		records.add(record.toArray(new String[record.size()]));
+		recordContexts.add(ctx);
+	}
+
+	int getNumRecords() {
+		return records.size();
+	}
+
+	ParseContext getContext(int i) {
+		return contexts.get(recordContexts.get(i));
+	}
+
+	/**
+	 * Returns a new list holding the tokens of the given record.
+	 */
+	ArrayList<String> getRecord(int i) {
+		return new ArrayList<String>(Arrays.asList(records.get(i)));
+	}
+
+	/**
+	 * Returns true if the cache was built for the given configuration file and
+	 * every file read to build it still has the same contents.
+	 */
+	boolean isValid(URI configFile) {
+		if (!root.equals(configFile.toString()))
+			return false;
+
+		for (int i = 0; i < files.size(); i++) {
+			try {
+				byte[] digest = ConfigCache.digest(URI.create(files.get(i)).toURL().openStream());
+				if (digest == null || !Arrays.equals(digest, digests.get(i)))
+					return false;
+			}
+			catch (IOException e) {
+				return false;
+			}
+			catch (IllegalArgumentException e) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static byte[] digest(InputStream in) throws IOException {
+		try {
+			MessageDigest md = newDigest();
+			if (md == null)
+				return null;
+
+			byte[] buf = new byte[64 * 1024];
+			while (true) {
+				int n = in.read(buf);
+				if (n == -1)
+					break;
+				md.update(buf, 0, n);
+			}
+			return md.digest();
+		}
+		finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Writes the cache to the given file.  Tokens are stored once in a string
+	 * table and each record refers to them by index.
+	 */
+	private static void writeString(DataOutputStream out, String str) throws IOException {
+		byte[] bytes = str.getBytes(UTF8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(ByteBuffer buf) {
+		int len = buf.getInt();
+		String str = new String(buf.array(), buf.position(), len, UTF8);
+		buf.position(buf.position() + len);
+		return str;
+	}
+
+	void write(File file) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 64 * 1024));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			writeString(out, root);
+
+			out.writeInt(files.size());
+			for (int i = 0; i < files.size(); i++) {
+				writeString(out, files.get(i));
+				out.writeInt(digests.get(i).length);
+				out.write(digests.get(i));
+			}
+
+			out.writeInt(contexts.size());
+			for (ParseContext pc : contexts) {
+				writeString(out, pc.jail);
+				writeString(out, pc.context.toString());
+			}
+
+			HashMap<String, Integer> indices = new HashMap<String, Integer>();
+			ArrayList<String> table = new ArrayList<String>();
+			for (String[] rec : records) {
+				for (String tok : rec) {
+					if (indices.containsKey(tok))
+						continue;
+					indices.put(tok, table.size());
+					table.add(tok);
+				}
+			}
+			out.writeInt(table.size());
+			for (String tok : table)
+				writeString(out, tok);
+
+			out.writeInt(records.size());
+			for (int i = 0; i < records.size(); i++) {
+				String[] rec = records.get(i);
+				out.writeInt(recordContexts.get(i));
+				out.writeInt(rec.length);
+				for (String tok : rec)
+					out.writeInt(indices.get(tok));
+			}
+		}
+		finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Reads a cache from the given file, returns null if the file does not
+	 * exist or is not a readable cache.
+	 */
+	static ConfigCache read(File file) {
+		if (!file.isFile() || file.length() > Integer.MAX_VALUE)
+			return null;
+
+		ByteBuffer buf;
+		try {
+			byte[] bytes = new byte[(int)file.length()];
+			DataInputStream in = new DataInputStream(new FileInputStream(file));
+			try {
+				in.readFully(bytes);
+			}
+			finally {
+				in.close();
+			}
+			buf = ByteBuffer.wrap(bytes);
+		}
+		catch (IOException e) {
+			return null;
+		}
+
+		// Any inconsistency in the file shows up as a runtime exception
+		try {
+			if (buf.getInt() != MAGIC || buf.getInt() != VERSION)
+				return null;
+
+			ConfigCache cache = new ConfigCache(readString(buf));
+			int numFiles = buf.getInt();
+			for (int i = 0; i < numFiles; i++) {
+				cache.files.add(readString(buf));
+				byte[] digest = new byte[buf.getInt()];
+				buf.get(digest);
+				cache.digests.add(digest);
+			}
+
+			int numContexts = buf.getInt();
+			for (int i = 0; i < numContexts; i++) {
+				ParseContext pc = new ParseContext();
+				pc.jail = readString(buf);
+				pc.context = URI.create(readString(buf));
+				cache.contexts.add(pc);
+			}
+
+			// Braces are kept as the same String instances the Parser returns
+			String[] table = new String[buf.getInt()];
+			for (int i = 0; i < table.length; i++) {
+				String tok = readString(buf);
+				if ("{".equals(tok))
+					tok = "{";
+				else if ("}".equals(tok))
+					tok = "}";
+				table[i] = tok;
+			}
+
+			int numRecords = buf.getInt();
+			for (int i = 0; i < numRecords; i++) {
+				int ctx = buf.getInt();
+				if (ctx < 0 || ctx >= numContexts)
+					return null;
+
+				String[] rec = new String[buf.getInt()];
+				for (int j = 0; j < rec.length; j++)
+					rec[j] = table[buf.getInt()];
+				cache.records.add(rec);
+				cache.recordContexts.add(ctx);
+			}
+			return cache;
+		}
+		catch (RuntimeException e) {
+			return null;
+		}
+	}
+}
@@ -24,9 +24,12 @@ import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 
 import javax.swing.JFileChooser;
@@ -64,6 +67,14 @@ public class InputAgent {
 	private static boolean recordEditsFound;  // TRUE if the "RecordEdits" marker is found in the configuration file
 	private static boolean recordEdits;       // TRUE if input changes are to be marked as edited.
 
+	private static final String CACHE_EXTENSION = ".cache";
+	private static ConfigCache cacheBuilder;  // collects the records read for the configuration cache, null when not loading a configuration
+
+	private static boolean bulkLoad;               // TRUE while a configuration file is being loaded
+	private static ArrayList<String> pendingEcho;  // record being processed during a bulk load, echoed only if a message is logged for it
+	private static long lexNanos;                  // time spent waiting for tokenized records during a bulk load
+	private static long parseNanos;                // time spent in Input.parse() during a bulk load
+
 	private static final String INP_ERR_DEFINEUSED = "The name: %s has already been used and is a %s";
 
 	private static File reportDir;
@@ -330,14 +341,23 @@ public class InputAgent {
 		}
 
 		BufferedReader buf = null;
+		MessageDigest digest = null;
 		try {
 			InputStream in = url.openStream();
+			if (cacheBuilder != null) {
+				digest = ConfigCache.newDigest();
+				if (digest != null)
+					in = new DigestInputStream(in, digest);
+			}
 			buf = new BufferedReader(new InputStreamReader(in));
 		} catch (IOException e) {
 			InputAgent.logWarning("Could not read from %s", url.toString());
 			return false;
 		}
 
+		// Lines are tokenized ahead of time on worker threads, records are
+		// still assembled and processed here in file order
+		TokenReader tokens = new TokenReader(buf);
 		try {
 			ArrayList<String> record = new ArrayList<String>();
 			int braceDepth = 0;
@@ -347,13 +367,14 @@ public class InputAgent {
 			pc.context = resolved;
 
 			while (true) {
-				String line = buf.readLine();
+				int previousRecordSize = record.size();
 				// end of file, stop reading
-				if (line == null)
+				long lexStart = System.nanoTime();
+				boolean eof = !tokens.appendNextLine(record);
+				lexNanos += System.nanoTime() - lexStart;
+				if (eof)
 					break;
 
-				int previousRecordSize = record.size();
-				Parser.tokenize(record, line, true);
 				braceDepth = InputAgent.getBraceDepth(record, braceDepth, previousRecordSize);
 				if( braceDepth != 0 )
 					continue;
@@ -363,12 +384,6 @@ public class InputAgent {
 
 				InputAgent.echoInputRecord(record);
 
-				if ("DEFINE".equalsIgnoreCase(record.get(0))) {
-					InputAgent.processDefineRecord(record);
-					record.clear();
-					continue;
-				}
-
 				if ("INCLUDE".equalsIgnoreCase(record.get(0))) {
 					try {
 						InputAgent.processIncludeRecord(pc, record);
@@ -376,32 +391,80 @@ public class InputAgent {
 					catch (URISyntaxException ex) {
 						rethrowWrapped(ex);
 					}
+					pendingEcho = null;
 					record.clear();
 					continue;
 				}
 
-				if ("RECORDEDITS".equalsIgnoreCase(record.get(0))) {
-					InputAgent.setRecordEditsFound(true);
-					InputAgent.setRecordEdits(true);
-					record.clear();
-					continue;
-				}
+				if (cacheBuilder != null)
+					cacheBuilder.addRecord(pc, record);
 
-				// Otherwise assume it is a Keyword record
-				InputAgent.processKeywordRecord(record, pc);
+				InputAgent.processRecord(pc, record);
+				pendingEcho = null;
 				record.clear();
 			}
 
 			// Leftover Input at end of file
 			if (record.size() > 0)
 				InputAgent.logBadInput(record, "Leftover input at end of file");
-			buf.close();
+			tokens.close();
+
+			if (cacheBuilder != null) {
+				if (digest != null)
+					cacheBuilder.addFile(resolved.normalize(), digest.digest());
+				else
+					cacheBuilder = null;
+			}
 		}
 		catch (IOException e) {
 			// Make best effort to ensure it closes
-			try { buf.close(); } catch (IOException e2) {}
+			try { tokens.close(); } catch (IOException e2) {}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Processes a complete record other than an Include record.
+	 */
+	private static void processRecord(ParseContext pc, ArrayList<String> record) {
+		if ("DEFINE".equalsIgnoreCase(record.get(0))) {
+			InputAgent.processDefineRecord(record);
+			return;
 		}
 
+		if ("RECORDEDITS".equalsIgnoreCase(record.get(0))) {
+			InputAgent.setRecordEditsFound(true);
+			InputAgent.setRecordEdits(true);
+			return;
+		}
+
+		// Otherwise assume it is a Keyword record
+		InputAgent.processKeywordRecord(record, pc);
+	}
+
+	/**
+	 * Processes the records held in the configuration cache for the given
+	 * file.  Returns false, without processing anything, if there is no cache,
+	 * if it was built for a different configuration file, or if any of the
+	 * files it was built from has changed.
+	 */
+	private static boolean replayConfigCache(File cacheFile, File file) {
+		long lexStart = System.nanoTime();
+		ConfigCache cache = ConfigCache.read(cacheFile);
+		lexNanos += System.nanoTime() - lexStart;
+		if (cache == null || !cache.isValid(file.toURI()))
+			return false;
+
+		for (int i = 0; i < cache.getNumRecords(); i++) {
+			lexStart = System.nanoTime();
+			ArrayList<String> record = cache.getRecord(i);
+			lexNanos += System.nanoTime() - lexStart;
+
+			InputAgent.echoInputRecord(record);
+			InputAgent.processRecord(cache.getContext(i), record);
+			pendingEcho = null;
+		}
 		return true;
 	}
 
@@ -607,8 +670,38 @@ public class InputAgent {
 			InputAgent.logWarning("Could not create trace file");
 		}
 
-		URI dirURI = file.getParentFile().toURI();
-		InputAgent.readStream("", dirURI, file.getName());
+		// Use the tokenized records from the cache when the configuration file
+		// and its includes are unchanged, otherwise read the files and collect
+		// the records for a new cache
+		File cacheFile = new File(file.getParentFile(), file.getName() + CACHE_EXTENSION);
+		ConfigCache cache = null;
+
+		// The records are applied as a single bulk load: the GUI is refreshed
+		// once at the end instead of after every keyword, and records are only
+		// echoed to the log when a message is logged for them
+		long loadStart = System.nanoTime();
+		lexNanos = 0;
+		parseNanos = 0;
+		bulkLoad = true;
+		try {
+			if (!InputAgent.replayConfigCache(cacheFile, file)) {
+				URI dirURI = file.getParentFile().toURI();
+				cacheBuilder = new ConfigCache(file.toURI());
+				try {
+					InputAgent.readStream("", dirURI, file.getName());
+				}
+				finally {
+					cache = cacheBuilder;
+					cacheBuilder = null;
+				}
+			}
+		}
+		finally {
+			bulkLoad = false;
+			pendingEcho = null;
+			FrameBox.valueUpdate();
+		}
+		long applyEnd = System.nanoTime();
 
 		GUIFrame.instance().setProgressText(null);
 		GUIFrame.instance().setProgress(0);
@@ -621,6 +714,7 @@ public class InputAgent {
 		// Save and close the input trace file
 		if (logFile != null) {
 			if (InputAgent.numWarnings == 0 && InputAgent.numErrors == 0) {
+				LogBox.flush();
 				logFile.close();
 				logFile.delete();
 				logFile = new FileEntity( inputTraceFileName);
@@ -628,11 +722,56 @@ public class InputAgent {
 		}
 
 		//  Check for found errors
-		if( InputAgent.numErrors > 0 )
+		if( InputAgent.numErrors > 0 ) {
+			InputAgent.logLoadTimes(loadStart, applyEnd, 0);
 			throw new InputErrorException("%d input errors and %d warnings found, check %s", InputAgent.numErrors, InputAgent.numWarnings, inputTraceFileName);
+		}
+
+		// Only cache a configuration that loaded cleanly
+		long cacheNanos = 0;
+		if (cache != null && InputAgent.numWarnings == 0) {
+			long cacheStart = System.nanoTime();
+			try {
+				cache.write(cacheFile);
+			}
+			catch (IOException e) {
+				cacheFile.delete();
+			}
+			cacheNanos = System.nanoTime() - cacheStart;
+		}
 
 		if (Simulation.getPrintInputReport())
 			InputAgent.printInputFileKeywords();
+
+		InputAgent.logLoadTimes(loadStart, applyEnd, cacheNanos);
+	}
+
+	/**
+	 * Prints the time taken by each phase of the last configuration load:
+	 * waiting for tokenized records (lex), parsing values (parse), the rest of
+	 * processing the records (apply), writing the configuration cache (cache)
+	 * and the rest of the load, closing the input trace file and printing the
+	 * input report (finish).  Entities are validated later, when the run is
+	 * started, see Simulation.start().
+	 */
+	private static void logLoadTimes(long loadStart, long applyEnd, long cacheNanos) {
+		long loadEnd = System.nanoTime();
+		long applyNanos = applyEnd - loadStart - lexNanos - parseNanos;
+		long finishNanos = loadEnd - applyEnd - cacheNanos;
+		LogBox.format("Load time %.1f ms: lex %.1f ms, parse %.1f ms, apply %.1f ms, cache %.1f ms, finish %.1f ms",
+		              (loadEnd - loadStart) / 1.0e6d, lexNanos / 1.0e6d, parseNanos / 1.0e6d,
+		              applyNanos / 1.0e6d, cacheNanos / 1.0e6d, finishNanos / 1.0e6d);
+	}
+
+	/**
+	 * Notifies the GUI that input values have changed, unless a configuration
+	 * file is being loaded in which case a single update is made at the end.
+	 */
+	private static void valueUpdate() {
+		if (bulkLoad)
+			return;
+
+		FrameBox.valueUpdate();
 	}
 
 	public static final void apply(Entity ent, KeywordIndex kw) {
@@ -643,17 +782,71 @@ public class InputAgent {
 		}
 
 		InputAgent.apply(ent, in, kw);
-		FrameBox.valueUpdate();
+		InputAgent.valueUpdate();
 	}
 
 	public static final void apply(Entity ent, Input<?> in, KeywordIndex kw) {
+		StringVector data = InputAgent.getValueTokens(kw);
+		InputAgent.parse(in, data, kw.context);
+		InputAgent.applied(ent, in, data);
+	}
+
+	/**
+	 * Applies the keyword to each of the given entities, e.g. the members of
+	 * a Group. The tokens are parsed once for each class of input and the
+	 * resulting value is shared with every other input that accepts it, the
+	 * remaining inputs parse the tokens themselves. The GUI is notified once
+	 * all of the entities have been updated.
+	 */
+	public static final void applyToEach(List<? extends Entity> ents, KeywordIndex kw) {
+		StringVector data = null;
+		HashMap<Class<?>, Input<?>> parsed = new HashMap<Class<?>, Input<?>>();
+		try {
+			for (int i = 0; i < ents.size(); i++) {
+				Entity ent = ents.get(i);
+				Input<?> in = ent.getInput(kw.keyword);
+				if (in == null) {
+					InputAgent.logWarning("Keyword %s could not be found for Entity %s.", kw.keyword, ent.getInputName());
+					continue;
+				}
+
+				if (data == null)
+					data = InputAgent.getValueTokens(kw);
+
+				if (!in.copyValue(parsed.get(in.getClass()))) {
+					InputAgent.parse(in, data, kw.context);
+					parsed.put(in.getClass(), in);
+				}
+				InputAgent.applied(ent, in, data);
+			}
+		}
+		finally {
+			InputAgent.valueUpdate();
+		}
+	}
+
+	private static void parse(Input<?> in, StringVector data, ParseContext context) {
+		long parseStart = System.nanoTime();
+		try {
+			in.parse(data, context);
+		}
+		finally {
+			parseNanos += System.nanoTime() - parseStart;
+		}
+	}
+
+	private static StringVector getValueTokens(KeywordIndex kw) {
 		StringVector data = new StringVector(kw.end - kw.start);
 		for (int i = kw.start + 2; i < kw.end; i++) {
 			data.add(kw.input.get(i));
 		}
+		return data;
+	}
 
-		in.parse(data, kw.context);
-
+	/**
+	 * Completes the application of a keyword once the input has its new value.
+	 */
+	private static void applied(Entity ent, Input<?> in, StringVector data) {
 		// Only mark the keyword edited if we have finished initial configuration
 		if ( InputAgent.recordEdits() )
 			in.setEdited(true);
@@ -663,23 +856,11 @@ public class InputAgent {
 		if(ent.testFlag(Entity.FLAG_GENERATED))
 			return;
 
-		StringBuilder out = new StringBuilder(data.size() * 6);
-		for (int i = 0; i < data.size(); i++) {
-			String dat = data.get(i);
-			if (Parser.needsQuoting(dat) && !dat.equals("{") && !dat.equals("}"))
-				out.append("'").append(dat).append("'");
-			else
-				out.append(dat);
-
-			if( i < data.size() - 1 )
-				out.append("  ");
-		}
-
 		if(in.isEdited()) {
 			ent.setFlag(Entity.FLAG_EDITED);
 			sessionEdited = true;
 		}
-		in.setValueString(out.toString());
+		in.setValueTokens(data);
 	}
 
 	private static void processKeyword(Entity entity, KeywordIndex key) {
@@ -689,7 +870,7 @@ public class InputAgent {
 		Input<?> input = entity.getInput( key.keyword );
 		if (input != null) {
 			InputAgent.apply(entity, input, key);
-			FrameBox.valueUpdate();
+			InputAgent.valueUpdate();
 			return;
 		}
 
@@ -700,10 +881,7 @@ public class InputAgent {
 		grp.saveGroupKeyword(key);
 
 		// Store the keyword data for use in the edit table
-		for( int i = 0; i < grp.getList().size(); i++ ) {
-			Entity ent = grp.getList().get( i );
-			InputAgent.apply(ent, key);
-		}
+		InputAgent.applyToEach(grp.getList(), key);
 	}
 
 	public static void load(GUIFrame gui) {
@@ -998,6 +1176,7 @@ public class InputAgent {
 		if (logFile == null)
 			return;
 
+		LogBox.flush();
 		logFile.flush();
 		logFile.close();
 
@@ -1007,9 +1186,9 @@ public class InputAgent {
 		logFile = null;
 	}
 
-	private static final String errPrefix = "*** ERROR *** %s%n";
-	private static final String inpErrPrefix = "*** INPUT ERROR *** %s%n";
-	private static final String wrnPrefix = "***WARNING*** %s%n";
+	private static final String errPrefix = "*** ERROR *** ";
+	private static final String inpErrPrefix = "*** INPUT ERROR *** ";
+	private static final String wrnPrefix = "***WARNING*** ";
 
 	public static int numErrors() {
 		return numErrors;
@@ -1022,22 +1201,33 @@ public class InputAgent {
 	private static void echoInputRecord(ArrayList<String> tokens) {
 		if (logFile == null)
 			return;
+
+		// Defer the echo until a message is logged for the record
+		if (bulkLoad) {
+			pendingEcho = tokens;
+			return;
+		}
+
+		InputAgent.writeInputRecord(tokens);
+	}
+
+	/**
+	 * Writes the record to the input trace file, in sequence with the messages
+	 * being written by the log.
+	 */
+	private static void writeInputRecord(ArrayList<String> tokens) {
 		StringBuilder line = new StringBuilder();
 		for (int i = 0; i < tokens.size(); i++) {
 			line.append("  ").append(tokens.get(i));
 			if (tokens.get(i).startsWith("\"")) {
-				logFile.write(line.toString());
-				logFile.newLine();
+				LogBox.mirror(logFile, line.toString());
 				line.setLength(0);
 			}
 		}
 
 		// Leftover input
-		if (line.length() > 0) {
-			logFile.write(line.toString());
-			logFile.newLine();
-		}
-		logFile.flush();
+		if (line.length() > 0)
+			LogBox.mirror(logFile, line.toString());
 	}
 
 	private static void logBadInput(ArrayList<String> tokens, String msg) {
@@ -1045,17 +1235,17 @@ public class InputAgent {
 		InputAgent.logError("%s", msg);
 	}
 
+	/**
+	 * Logs the message and writes it to the input trace file, both are done
+	 * on the log's background thread.
+	 */
 	public static void logMessage(String fmt, Object... args) {
-		String msg = String.format(fmt, args);
-		System.out.println(msg);
-		LogBox.logLine(msg);
-
-		if (logFile == null)
-			return;
+		if (logFile != null && pendingEcho != null) {
+			InputAgent.writeInputRecord(pendingEcho);
+			pendingEcho = null;
+		}
 
-		logFile.write(msg);
-		logFile.newLine();
-		logFile.flush();
+		LogBox.log(logFile, fmt, args);
 	}
 
 	public static void trace(int indent, Entity ent, String meth, String... text) {
@@ -1083,20 +1273,17 @@ public class InputAgent {
 
 	public static void logWarning(String fmt, Object... args) {
 		numWarnings++;
-		String msg = String.format(fmt, args);
-		InputAgent.logMessage(wrnPrefix, msg);
+		InputAgent.logMessage(wrnPrefix + fmt + "%n", args);
 	}
 
 	public static void logError(String fmt, Object... args) {
 		numErrors++;
-		String msg = String.format(fmt, args);
-		InputAgent.logMessage(errPrefix, msg);
+		InputAgent.logMessage(errPrefix + fmt + "%n", args);
 	}
 
 	public static void logInpError(String fmt, Object... args) {
 		numErrors++;
-		String msg = String.format(fmt, args);
-		InputAgent.logMessage(inpErrPrefix, msg);
+		InputAgent.logMessage(inpErrPrefix + fmt + "%n", args);
 	}
 
 	/**
@@ -44,61 +44,69 @@ public static final void tokenize(ArrayList<String> tokens, String rec, boolean
 	// Records can be divided into two pieces, the contents portion and possibly
 	// a commented portion, the division point is the first " character, if no
 	// quoting in a record, the entire line is contents for tokenizing
-	final int cIndex = rec.indexOf("\"");
-	final String contents;
-	if (cIndex == -1)
-		contents = rec;
-	else
-		contents = rec.substring(0, cIndex);
+	final int cIndex = rec.indexOf('"');
+	final int end = (cIndex == -1) ? rec.length() : cIndex;
 
-	// Split the contents along single-quoted substring boundaries to allow
-	// us to parse quoted and unquoted sections separately
-	String[] substring = contents.split("'", -1);
-	for (int i = 0; i < substring.length; i++) {
-		// Odd indices were single-quoted strings in the original record
-		// append the whole string as a single token even if there was nothing
-		// between the quotes (an empty string)
-		if (i % 2 != 0) {
-			tokens.add(substring[i]);
+	// Scan the contents a character at a time, tokStart is the index of the
+	// first character of the unquoted token being read, or -1 between tokens
+	int tokStart = -1;
+	int i = 0;
+	while (i < end) {
+		char c = rec.charAt(i);
+
+		// Everything up to the next single quote is one token, even if there
+		// is nothing between the quotes (an empty string), an unterminated
+		// quote runs to the end of the contents
+		if (c == '\'') {
+			if (tokStart != -1) {
+				tokens.add(rec.substring(tokStart, i));
+				tokStart = -1;
+			}
+
+			int qIndex = rec.indexOf('\'', i + 1);
+			if (qIndex == -1 || qIndex > end)
+				qIndex = end;
+
+			tokens.add(rec.substring(i + 1, qIndex));
+			i = qIndex + 1;
 			continue;
 		}
 
-		// The even-index strings need tokenizing, we allow spaces, tabs and
-		// commas to delimit token boundaries, we also want all braces {} to
-		// appear as a single token
-		// Ensure { or } has tabs separating if from adjacent characters
-		String temp = substring[i].replaceAll("([\\{\\}])", "\t$1\t");
-		// Split along space, comma and tab characters, treat consecutive
-		// characters as one delimiter
-		String[] delimTokens = temp.split("[ ,\t]+", 0);
-		// Append the new tokens that have greater than zero length
-		for (String each : delimTokens) {
-			if (each.length() == 0)
-				continue;
-
-			if (each.length() == 1) {
-				if ("{".equals(each)) {
-					tokens.add("{");
-					continue;
-				}
-				if ("}".equals(each)) {
-					tokens.add("}");
-					continue;
-				}
+		// We allow spaces, tabs and commas to delimit token boundaries, runs
+		// of delimiters are treated as one, braces {} always appear as a
+		// single token
+		if (c == ' ' || c == ',' || c == '\t' || c == '{' || c == '}') {
+			if (tokStart != -1) {
+				tokens.add(rec.substring(tokStart, i));
+				tokStart = -1;
 			}
 
-			tokens.add(each);
+			if (c == '{')
+				tokens.add("{");
+			else if (c == '}')
+				tokens.add("}");
+		}
+		else if (tokStart == -1) {
+			tokStart = i;
 		}
+		i++;
 	}
 
+	if (tokStart != -1)
+		tokens.add(rec.substring(tokStart, end));
+
 	// add comments if they exist including the leading " to denote it as commented
 	if (!stripComments && cIndex > -1)
 		tokens.add(rec.substring(cIndex, rec.length()));
 }
 
-private static final Pattern quoted = Pattern.compile("[ ,\t{}]");
 public static final boolean needsQuoting(String s) {
-	return quoted.matcher(s).find();
+	for (int i = 0; i < s.length(); i++) {
+		char c = s.charAt(i);
+		if (c == ' ' || c == ',' || c == '\t' || c == '{' || c == '}')
+			return true;
+	}
+	return false;
 }
 
 private static final Pattern isquoted = Pattern.compile("'.*'");
@@ -0,0 +1,191 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.input;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+
+import com.sandwell.JavaSimulation.ErrorException;
+
+/**
+ * Reads lines from a configuration file and returns their tokens in the
+ * original order.
+ *
+ * Lines are read in blocks and each block is tokenized on a shared pool of
+ * worker threads, so that tokenizing runs ahead of the thread that groups the
+ * tokens into records and applies them. Comments are stripped.
+ */
+class TokenReader {
+	private static final int BLOCK_LINES = 2048;
+	private static final int MAX_PENDING = 8;
+
+	private static ExecutorService pool;
+
+	private final BufferedReader reader;
+	private final ArrayDeque<Future<String[][]>> pending;
+	private boolean eof;
+
+	private String[][] block;
+	private int index;
+
+	TokenReader(BufferedReader reader) {
+		this.reader = reader;
+		pending = new ArrayDeque<Future<String[][]>>(MAX_PENDING);
+		eof = false;
+	}
+
+	private static class TokenizeTask implements Callable<String[][]> {
+		private final String[] lines;
+
+		TokenizeTask(String[] lines) {
+			this.lines = lines;
+		}
+
+		@Override
+		public String[][] call() {
+			String[][] ret = new String[lines.length][];
+			ArrayList<String> tokens = new ArrayList<String>();
+			for (int i = 0; i < lines.length; i++) {
+				tokens.clear();
+				Parser.tokenize(tokens, lines[i], true);
+				ret[i] = tokens.toArray(new String[tokens.size()]);
+			}
+			return ret;
+		}
+	}
+
+	/**
+	 * Returns the shared worker pool, or null if there is only one processor
+	 * and blocks should be tokenized on the calling thread.
+	 */
+	private static synchronized ExecutorService getPool() {
+		int numThreads = Runtime.getRuntime().availableProcessors() - 1;
+		if (numThreads < 1)
+			return null;
+
+		if (pool == null) {
+			pool = Executors.newFixedThreadPool(numThreads, new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread t = new Thread(r, "TokenReader");
+					t.setDaemon(true);
+					return t;
+				}
+			});
+		}
+		return pool;
+	}
+
+	/**
+	 * Appends the tokens of the next line to the given list.
+	 * @return false if the end of the file has been reached
+	 */
+	boolean appendNextLine(ArrayList<String> tokens) throws IOException {
+		while (block == null || index == block.length) {
+			this.fill();
+			if (pending.isEmpty())
+				return false;
+
+			block = TokenReader.getBlock(pending.removeFirst());
+			index = 0;
+		}
+
+		String[] line = block[index];
+		block[index] = null;
+		index++;
+		for (String tok : line)
+			tokens.add(tok);
+		return true;
+	}
+
+	/**
+	 * Reads further blocks of lines and queues them to be tokenized until
+	 * MAX_PENDING blocks are outstanding or the file is exhausted.
+	 */
+	private void fill() throws IOException {
+		ArrayList<String> lines = new ArrayList<String>(BLOCK_LINES);
+		while (!eof && pending.size() < MAX_PENDING) {
+			lines.clear();
+			while (lines.size() < BLOCK_LINES) {
+				String line = reader.readLine();
+				if (line == null) {
+					eof = true;
+					break;
+				}
+				lines.add(line);
+			}
+
+			if (lines.isEmpty())
+				break;
+
+			TokenizeTask task = new TokenizeTask(lines.toArray(new String[lines.size()]));
+			ExecutorService exec = getPool();
+			if (exec != null) {
+				pending.add(exec.submit(task));
+				continue;
+			}
+
+			FutureTask<String[][]> inline = new FutureTask<String[][]>(task);
+			inline.run();
+			pending.add(inline);
+		}
+	}
+
+	private static String[][] getBlock(Future<String[][]> future) {
+		boolean interrupted = false;
+		try {
+			while (true) {
+				try {
+					return future.get();
+				}
+				catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException)cause;
+			if (cause instanceof Error)
+				throw (Error)cause;
+			throw new ErrorException(cause);
+		}
+		finally {
+			if (interrupted)
+				Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Discards any blocks still being tokenized and closes the reader.
+	 */
+	void close() throws IOException {
+		for (Future<String[][]> each : pending)
+			each.cancel(false);
+		pending.clear();
+		block = null;
+		reader.close();
+	}
+}
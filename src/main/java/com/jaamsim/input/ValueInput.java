@@ -42,6 +42,19 @@ public class ValueInput extends Input<Double> {
 		value = Double.valueOf(temp.get(0));
 	}
 
+	@Override
+	public boolean copyValue(Input<?> in) {
+		if (!isSameClass(in))
+			return false;
+
+		ValueInput other = (ValueInput)in;
+		if (other.unitType != unitType || other.minValue != minValue || other.maxValue != maxValue)
+			return false;
+
+		value = other.value;
+		return true;
+	}
+
 	public void setValidRange(double min, double max) {
 		minValue = min;
 		maxValue = max;
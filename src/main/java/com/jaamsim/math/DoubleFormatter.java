@@ -0,0 +1,93 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.math;
+
+import java.util.Locale;
+
+/**
+ * Formats doubles with a fixed number of decimal places without going through
+ * java.util.Formatter. The output is identical to String.format("%.nf") in the
+ * root locale; values close to a rounding tie, very large values and non-finite
+ * values are passed to String.format so that its rounding rules are preserved.
+ */
+public class DoubleFormatter {
+	private static final int MAX_DECIMALS = 9;
+	private static final double MAX_SCALED = 1.0e9d;
+	private static final double TIE_TOLERANCE = 1.0e-6d;
+
+	private static final long[] POW10;
+	static {
+		POW10 = new long[MAX_DECIMALS + 1];
+		POW10[0] = 1;
+		for (int i = 1; i < POW10.length; i++)
+			POW10[i] = POW10[i - 1] * 10;
+	}
+
+	private DoubleFormatter() {}
+
+	public static String format(double val, int decimals) {
+		StringBuilder sb = new StringBuilder(16);
+		DoubleFormatter.append(sb, val, decimals);
+		return sb.toString();
+	}
+
+	/**
+	 * Appends the given value to the StringBuilder rounded to the given number
+	 * of decimal places.
+	 */
+	public static void append(StringBuilder sb, double val, int decimals) {
+		if (decimals < 0 || decimals > MAX_DECIMALS || Double.isNaN(val) || Double.isInfinite(val)) {
+			appendSlow(sb, val, decimals);
+			return;
+		}
+
+		double scaled = Math.abs(val) * POW10[decimals];
+		if (scaled >= MAX_SCALED) {
+			appendSlow(sb, val, decimals);
+			return;
+		}
+
+		// The product carries a small rounding error, so values near a tie
+		// are left to String.format
+		double floor = Math.floor(scaled);
+		double frac = scaled - floor;
+		if (Math.abs(frac - 0.5d) < TIE_TOLERANCE) {
+			appendSlow(sb, val, decimals);
+			return;
+		}
+
+		long digits = (long)floor;
+		if (frac > 0.5d)
+			digits++;
+
+		// String.format keeps the sign of negative values that round to zero
+		if (Double.doubleToRawLongBits(val) < 0)
+			sb.append('-');
+
+		sb.append(digits / POW10[decimals]);
+		if (decimals == 0)
+			return;
+
+		sb.append('.');
+		long fraction = digits % POW10[decimals];
+		for (int i = decimals - 1; i > 0 && fraction < POW10[i]; i--)
+			sb.append('0');
+		sb.append(fraction);
+	}
+
+	private static void appendSlow(StringBuilder sb, double val, int decimals) {
+		sb.append(String.format(Locale.ROOT, "%." + decimals + "f", val));
+	}
+}
@@ -27,6 +27,12 @@ public class MRG1999a {
 	// The internal state machine is held in 6 integer values (treat as unsigned)
 	int s0, s1, s2, s3, s4, s5;
 
+	// Optional buffer of uniforms generated ahead of the caller, the values from
+	// bufPos onwards have not been returned yet
+	private int bufferSize = 0;
+	private double[] buffer;
+	private int bufPos;
+
 	/**
 	 * Constructs a random generator seeded with values the first entry in the seed
 	 * table.
@@ -77,11 +83,8 @@ public class MRG1999a {
 			throw new IllegalArgumentException("Substream numbers must be positive");
 
 		long seeds[] = { 12345, 12345, 12345, 12345, 12345, 12345 };
-		for (int i = 0; i < stream; i++)
-			advanceStream(seeds);
-
-		for (int i = 0; i < substream; i++)
-			advanceSubstream(seeds);
+		advance(streamJumps, stream, seeds);
+		advance(substreamJumps, substream, seeds);
 
 		setSeed(seeds[0], seeds[1], seeds[2], seeds[3], seeds[4], seeds[5]);
 	}
@@ -99,6 +102,22 @@ public class MRG1999a {
 			throw new IllegalArgumentException("All seeds must be > 0");
 		this.s0 = (int)s0; this.s1 = (int)s1; this.s2 = (int)s2;
 		this.s3 = (int)s3; this.s4 = (int)s4; this.s5 = (int)s5;
+
+		buffer = (bufferSize > 0) ? new double[bufferSize] : null;
+		bufPos = bufferSize;
+	}
+
+	/**
+	 * Sets the number of uniforms to generate ahead in blocks, 0 to generate
+	 * them one at a time. The values returned are identical either way. The
+	 * buffer takes effect when the generator is next seeded, while buffering
+	 * the state returned by toString() is ahead of the values returned.
+	 * @param size
+	 */
+	public void setBufferSize(int size) {
+		if (size < 0)
+			throw new IllegalArgumentException("The buffer size cannot be negative");
+		bufferSize = size;
 	}
 
 	/**
@@ -106,6 +125,39 @@ public class MRG1999a {
 	 * @return
 	 */
 	public double nextUniform() {
+		if (buffer == null)
+			return this.step();
+
+		if (bufPos == buffer.length) {
+			this.generate(buffer, 0, buffer.length);
+			bufPos = 0;
+		}
+		return buffer[bufPos++];
+	}
+
+	/**
+	 * Fill out[off] to out[off + len - 1] with the next len uniforms U(0,1), the
+	 * same values as len calls to nextUniform().
+	 * @param out
+	 * @param off
+	 * @param len
+	 */
+	public void nextUniforms(double[] out, int off, int len) {
+		if (off < 0 || len < 0 || off + len > out.length)
+			throw new IndexOutOfBoundsException();
+
+		// Values already buffered come first
+		if (buffer != null) {
+			int n = Math.min(len, buffer.length - bufPos);
+			System.arraycopy(buffer, bufPos, out, off, n);
+			bufPos += n;
+			off += n;
+			len -= n;
+		}
+		this.generate(out, off, len);
+	}
+
+	private double step() {
 		// Mix the first half of the state
 		long p1 = 1403580l * uint(s1) - 810728l * uint(s0);
 		p1 = p1 % m1;
@@ -123,6 +175,57 @@ public class MRG1999a {
 		return p * norm;
 	}
 
+	/**
+	 * Generate the next len uniforms directly from the state. The recurrences
+	 * are unrolled three steps at a time so the state registers rotate in place
+	 * instead of shifting, and the mod corrections are done with sign masks.
+	 */
+	private void generate(double[] out, int off, int len) {
+		long a0 = uint(s0), a1 = uint(s1), a2 = uint(s2);
+		long b0 = uint(s3), b1 = uint(s4), b2 = uint(s5);
+
+		int end = off + len - len % 3;
+		for (int i = off; i < end; i += 3) {
+			long p;
+			a0 = 1403580l * a1 - 810728l * a0;
+			a0 = a0 % m1;
+			a0 += (a0 >> 63) & m1;
+			b0 = 527612l * b2 - 1370589l * b0;
+			b0 = b0 % m2;
+			b0 += (b0 >> 63) & m2;
+			p = a0 - b0;
+			p += ((p - 1) >> 63) & m1;
+			out[i] = p * norm;
+
+			a1 = 1403580l * a2 - 810728l * a1;
+			a1 = a1 % m1;
+			a1 += (a1 >> 63) & m1;
+			b1 = 527612l * b0 - 1370589l * b1;
+			b1 = b1 % m2;
+			b1 += (b1 >> 63) & m2;
+			p = a1 - b1;
+			p += ((p - 1) >> 63) & m1;
+			out[i + 1] = p * norm;
+
+			a2 = 1403580l * a0 - 810728l * a2;
+			a2 = a2 % m1;
+			a2 += (a2 >> 63) & m1;
+			b2 = 527612l * b1 - 1370589l * b2;
+			b2 = b2 % m2;
+			b2 += (b2 >> 63) & m2;
+			p = a2 - b2;
+			p += ((p - 1) >> 63) & m1;
+			out[i + 2] = p * norm;
+		}
+
+		s0 = (int)a0; s1 = (int)a1; s2 = (int)a2;
+		s3 = (int)b0; s4 = (int)b1; s5 = (int)b2;
+
+		// Leftover values
+		for (int i = end; i < off + len; i++)
+			out[i] = this.step();
+	}
+
 	@Override
 	public String toString() {
 		return String.format("%d, %d, %d, %d, %d, %d",
@@ -172,29 +275,84 @@ public class MRG1999a {
 		{ 3859662829L, 4292754251L, 3708466080L }
 	};
 
+	// Jump matrices for advancing by 2^k streams or substreams, entry k is the
+	// advance matrix raised to the power 2^k, one entry per bit of an int
+	private static final long streamJumps[][][] = powersOfTwo(streamAdvance);
+	private static final long substreamJumps[][][] = powersOfTwo(substreamAdvance);
+
 	static void advanceStream(long[] seeds) {
-		long s0 = mixHalf1(streamAdvance[0], seeds);
-		long s1 = mixHalf1(streamAdvance[1], seeds);
-		long s2 = mixHalf1(streamAdvance[2], seeds);
+		mix(streamAdvance, seeds);
+	}
 
-		long s3 = mixHalf2(streamAdvance[3], seeds);
-		long s4 = mixHalf2(streamAdvance[4], seeds);
-		long s5 = mixHalf2(streamAdvance[5], seeds);
+	static void advanceSubstream(long[] seeds) {
+		mix(substreamAdvance, seeds);
+	}
 
-		seeds[0] = s0; seeds[1] = s1; seeds[2] = s2;
-		seeds[3] = s3; seeds[4] = s4; seeds[5] = s5;
+	/**
+	 * Advance the seeds by the given number of streams, equivalent to calling
+	 * advanceStream() count times.
+	 */
+	static void advanceStream(long[] seeds, int count) {
+		advance(streamJumps, count, seeds);
 	}
 
-	static void advanceSubstream(long[] seeds) {
-		long s0 = mixHalf1(substreamAdvance[0], seeds);
-		long s1 = mixHalf1(substreamAdvance[1], seeds);
-		long s2 = mixHalf1(substreamAdvance[2], seeds);
+	/**
+	 * Advance the seeds by the given number of substreams, equivalent to
+	 * calling advanceSubstream() count times.
+	 */
+	static void advanceSubstream(long[] seeds, int count) {
+		advance(substreamJumps, count, seeds);
+	}
+
+	private static void mix(long[][] a, long[] seeds) {
+		long s0 = mixHalf1(a[0], seeds);
+		long s1 = mixHalf1(a[1], seeds);
+		long s2 = mixHalf1(a[2], seeds);
 
-		long s3 = mixHalf2(substreamAdvance[3], seeds);
-		long s4 = mixHalf2(substreamAdvance[4], seeds);
-		long s5 = mixHalf2(substreamAdvance[5], seeds);
+		long s3 = mixHalf2(a[3], seeds);
+		long s4 = mixHalf2(a[4], seeds);
+		long s5 = mixHalf2(a[5], seeds);
 
 		seeds[0] = s0; seeds[1] = s1; seeds[2] = s2;
 		seeds[3] = s3; seeds[4] = s4; seeds[5] = s5;
 	}
+
+	/**
+	 * Apply the jump matrix for each set bit of count, O(log count) instead of
+	 * count single steps.
+	 */
+	private static void advance(long[][][] jumps, int count, long[] seeds) {
+		for (int k = 0; count != 0; k++, count >>>= 1) {
+			if ((count & 1) != 0)
+				mix(jumps[k], seeds);
+		}
+	}
+
+	private static long[][][] powersOfTwo(long[][] a) {
+		long[][][] ret = new long[31][][];
+		ret[0] = a;
+		for (int k = 1; k < ret.length; k++)
+			ret[k] = multiply(ret[k - 1], ret[k - 1]);
+		return ret;
+	}
+
+	/**
+	 * Multiply the two advance matrices, the first three rows are the matrix for
+	 * the first half of the state (mod m1), the last three for the second half
+	 * (mod m2).
+	 */
+	private static long[][] multiply(long[][] a, long[][] b) {
+		long[][] ret = new long[6][3];
+		long[] col = new long[6];
+		for (int j = 0; j < 3; j++) {
+			for (int i = 0; i < 6; i++)
+				col[i] = b[i][j];
+
+			for (int i = 0; i < 3; i++) {
+				ret[i][j] = mixHalf1(a[i], col);
+				ret[i + 3][j] = mixHalf2(a[i + 3], col);
+			}
+		}
+		return ret;
+	}
 }
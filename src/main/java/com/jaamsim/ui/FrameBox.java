@@ -16,6 +16,8 @@ package com.jaamsim.ui;
 
 import java.awt.Color;
 import java.awt.Font;
+import java.awt.Point;
+import java.awt.Rectangle;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.util.ArrayList;
@@ -42,6 +44,10 @@ public class FrameBox extends JFrame {
 	private static final FrameBoxUpdater updater;
 	private static final FrameBoxValueUpdater valueUpdater;
 
+	private static volatile boolean timeRunning;  // TRUE while the event manager is executing events
+	private static long lastSnapshotNanos;        // wall clock time of the last snapshot taken by the event manager
+	private static volatile long lastTick;        // simulation time of the last time update
+
 	protected static final Color TABLE_SELECT = new Color(255, 250, 180);
 
 	protected static final Font boldFont;
@@ -108,10 +114,46 @@ public class FrameBox extends JFrame {
 	}
 
 	public static final void timeUpdate(long tick) {
+		lastTick = tick;
+
+		// The event manager calls this between events, take the snapshots
+		// here at the rate set by the user
+		if (timeRunning) {
+			long now = System.nanoTime();
+			if (now - lastSnapshotNanos >= Simulation.getViewerUpdateInterval() * 1.0e9d) {
+				lastSnapshotNanos = now;
+				FrameBox.takeSnapshots(Process.ticksToSeconds(tick));
+			}
+		}
+
 		valueUpdater.scheduleUpdate(tick);
 		RenderManager.updateTime(tick);
 	}
 
+	/**
+	 * Called by the event manager when it starts or stops executing events.
+	 * A final snapshot is taken when it stops, after that the snapshots are
+	 * taken on the event dispatch thread before each update of the values.
+	 */
+	public static final void timeRunning(boolean running) {
+		timeRunning = running;
+		if (!running) {
+			FrameBox.takeSnapshots(Process.ticksToSeconds(lastTick));
+			valueUpdater.scheduleUpdate();
+		}
+	}
+
+	private static void takeSnapshots(double simTime) {
+		for (int i = 0; i < allInstances.size(); i++) {
+			try {
+				allInstances.get(i).takeSnapshot(simTime);
+			}
+			catch (IndexOutOfBoundsException e) {
+				break;
+			}
+		}
+	}
+
 	public static final void valueUpdate() {
 		valueUpdater.scheduleUpdate();
 		RenderManager.redraw();
@@ -120,6 +162,32 @@ public class FrameBox extends JFrame {
 	public void setEntity(Entity ent) {}
 	public void updateValues(double simTime) {}
 
+	/**
+	 * Captures the values shown by this box. While the model is running this
+	 * is called from the event manager thread between events, at most once
+	 * per ViewerUpdateInterval, so the values are consistent with each other
+	 * and updateValues() only has to display them.
+	 */
+	public void takeSnapshot(double simTime) {}
+
+	/**
+	 * Returns the first and last rows of the table that are visible in its
+	 * viewport, or null if no rows are visible.
+	 */
+	protected static int[] getVisibleRows(JTable tab) {
+		if (tab.getRowCount() == 0)
+			return null;
+
+		Rectangle rect = tab.getVisibleRect();
+		int first = tab.rowAtPoint(new Point(0, rect.y));
+		int last = tab.rowAtPoint(new Point(0, rect.y + rect.height - 1));
+		if (first == -1)
+			first = 0;
+		if (last == -1)
+			last = tab.getRowCount() - 1;
+		return new int[] { first, last };
+	}
+
 	private static class FrameBoxUpdater implements Runnable {
 		private boolean scheduled;
 		private Entity entity;
@@ -200,6 +268,10 @@ public class FrameBox extends JFrame {
 				callBackTime = Process.ticksToSeconds(simTick);
 			}
 
+			// The model is not running, the values can be read directly
+			if (!timeRunning)
+				FrameBox.takeSnapshots(callBackTime);
+
 			GUIFrame.instance().setClock(callBackTime);
 			for (int i = 0; i < allInstances.size(); i++) {
 				try {
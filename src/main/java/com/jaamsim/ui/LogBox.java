@@ -16,21 +16,67 @@ package com.jaamsim.ui;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import javax.swing.JScrollPane;
 import javax.swing.JTextArea;
 import javax.swing.SwingUtilities;
 
+import com.sandwell.JavaSimulation.FileEntity;
 import com.sandwell.JavaSimulation3D.GUIFrame;
 
+/**
+ * The Log Viewer and the log itself. Lines are handed to a background thread
+ * that formats them, prints them to standard out and writes them to an
+ * optional mirror file. The log keeps only the most recent LOG_CAPACITY
+ * lines and at most MAX_LINES_PER_SECOND lines are added to it each second,
+ * the rest are counted and reported in a single summary line. Lines with a
+ * mirror file are always printed and written to the file, only their display
+ * in the log is limited.
+ */
 public class LogBox extends FrameBox {
 
 	private static LogBox myInstance;
 
-	private static Object logLock = new Object();
-	private static StringBuilder logBuilder = new StringBuilder();
+	private static final int LOG_CAPACITY = 10000;
+	private static final int MAX_LINES_PER_SECOND = 500;
+	private static final long RATE_WINDOW_NANOS = 1000000000L;
+
+	private static final Object logLock = new Object();
+
+	// Ring buffer holding the most recent lines of the log
+	private static final String[] lines = new String[LOG_CAPACITY];
+	private static int lineStart = 0;  // index of the oldest line
+	private static int lineCount = 0;
+	private static int unshownCount = 0;  // lines not yet appended to the log area
+	private static boolean flushScheduled = false;
+
+	// Rate limiting of the lines accepted from the callers
+	private static long windowStart = 0;
+	private static int windowCount = 0;
+	private static int suppressedCount = 0;
+
+	private static final LinkedBlockingQueue<LogEntry> queue;
+	private static final Thread writer;
 
 	private JTextArea logArea;
+	private int areaLines;  // number of lines presently in the log area
+
+	static {
+		queue = new LinkedBlockingQueue<LogEntry>(2 * MAX_LINES_PER_SECOND);
+		writer = new Thread(new LogWriter(), "LogBox");
+		writer.setDaemon(true);
+		writer.start();
+
+		// Do not lose the last lines of the log when the application exits
+		Runtime.getRuntime().addShutdownHook(new Thread() {
+			@Override
+			public void run() {
+				LogBox.flush();
+			}
+		});
+	}
 
 	public LogBox() {
 		super( "Log Viewer" );
@@ -38,8 +84,10 @@ public class LogBox extends FrameBox {
 		addWindowListener(FrameBox.getCloseListener("ShowLogViewer"));
 
 		synchronized(logLock) {
-			logArea = new JTextArea(logBuilder.toString());
+			logArea = new JTextArea(getLogText());
 			logArea.setEditable(false);
+			areaLines = lineCount;
+			unshownCount = 0;
 		}
 
 		JScrollPane scrollPane = new JScrollPane(logArea);
@@ -76,29 +124,292 @@ public class LogBox extends FrameBox {
 	 * @param args
 	 */
 	public static void format(String format, Object... args) {
-		logLine(String.format(format, args));
+		LogBox.log(null, format, args);
 	}
 
 	public static void logLine(final String logLine) {
-		synchronized(logLock) {
-			logBuilder.append(logLine + "\n");
+		LogBox.log(null, null, logLine);
+	}
+
+	/**
+	 * Logs a formatted message and writes it to the given mirror file as well,
+	 * the file may be null. Messages whose arguments are all immutable are
+	 * formatted by the log's background thread, otherwise they are formatted
+	 * immediately so they show the present state of the arguments.
+	 */
+	public static void log(FileEntity mirror, String format, Object... args) {
+		boolean show = LogBox.acceptLine();
+		if (!show && mirror == null)
+			return;
+
+		LogEntry entry;
+		if (format != null && !isImmutable(args))
+			entry = new LogEntry(mirror, show, null, String.format(format, args));
+		else
+			entry = new LogEntry(mirror, show, format, args);
+
+		// A line for the mirror file is never dropped
+		if (mirror != null) {
+			LogBox.put(entry);
+			return;
+		}
+
+		// The rate limit normally prevents the queue from filling up
+		if (!queue.offer(entry)) {
+			synchronized (logLock) {
+				suppressedCount++;
+			}
+		}
+	}
+
+	/**
+	 * Writes the text to the mirror file in sequence with the logged lines,
+	 * the text is not shown in the log.
+	 */
+	public static void mirror(FileEntity mirror, String text) {
+		LogBox.put(new LogEntry(mirror, text));
+	}
+
+	/**
+	 * Waits until the lines logged so far have been printed and written to
+	 * their mirror files.
+	 */
+	public static void flush() {
+		if (Thread.currentThread() == writer)
+			return;
+
+		// An empty entry, signalled once the entries ahead of it are written
+		LogEntry marker = new LogEntry(null, (String)null);
+		LogBox.put(marker);
+		marker.await();
+	}
+
+	private static void put(LogEntry entry) {
+		while (true) {
+			try {
+				queue.put(entry);
+				return;
+			}
+			catch (InterruptedException e) {}
+		}
+	}
+
+	private static boolean isImmutable(Object[] args) {
+		if (args == null)
+			return true;
+
+		for (Object each : args) {
+			if (each == null || each instanceof String || each instanceof Number ||
+			    each instanceof Boolean || each instanceof Character || each instanceof Enum)
+				continue;
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns true if a line may be added to the log now, otherwise counts it
+	 * as suppressed.
+	 */
+	private static boolean acceptLine() {
+		synchronized (logLock) {
+			long now = System.nanoTime();
+			if (now - windowStart >= RATE_WINDOW_NANOS) {
+				windowStart = now;
+				windowCount = 0;
+			}
+
+			if (windowCount < MAX_LINES_PER_SECOND) {
+				windowCount++;
+				return true;
+			}
+
+			suppressedCount++;
+			return false;
+		}
+	}
+
+	/**
+	 * Returns the summary line for the suppressed lines, or null if there are
+	 * none or if lines are still being suppressed.
+	 */
+	private static LogEntry takeSuppressedSummary() {
+		synchronized (logLock) {
+			if (suppressedCount == 0 || System.nanoTime() - windowStart < RATE_WINDOW_NANOS)
+				return null;
+
+			String summary = String.format("*** %d messages suppressed ***", suppressedCount);
+			LogEntry entry = new LogEntry(null, true, null, summary);
+			suppressedCount = 0;
+			return entry;
 		}
+	}
+
+	private static class LogEntry {
+		final FileEntity mirror;
+		final String format;
+		final Object[] args;
+		final boolean print;  // TRUE if the line is printed to standard out
+		final boolean showInLog;
+		private boolean done;
 
-		System.out.println(logLine);
+		LogEntry(FileEntity mirror, boolean showInLog, String format, Object... args) {
+			this.mirror = mirror;
+			this.format = format;
+			this.args = args;
+			this.print = true;
+			this.showInLog = showInLog;
+		}
 
-		// Append to the existing log area if it exists
-		if (myInstance != null) {
-			SwingUtilities.invokeLater(new Runnable() {
-				@Override
-				public void run() {
-					myInstance.logArea.append(logLine + "\n");
+		LogEntry(FileEntity mirror, String text) {
+			this.mirror = mirror;
+			this.format = null;
+			this.args = new Object[] { text };
+			print = false;
+			showInLog = false;
+		}
+
+		String getText() {
+			if (format != null)
+				return String.format(format, args);
+			return (String)args[0];
+		}
+
+		synchronized void await() {
+			while (!done) {
+				try {
+					this.wait();
 				}
-			});
+				catch (InterruptedException e) {}
+			}
+		}
+
+		synchronized void signal() {
+			done = true;
+			this.notifyAll();
 		}
 	}
 
+	/**
+	 * Formats the queued lines, prints them to standard out, writes them to
+	 * their mirror files and adds them to the log.
+	 */
+	private static class LogWriter implements Runnable {
+		@Override
+		public void run() {
+			while (true) {
+				LogEntry entry = null;
+				try {
+					entry = queue.poll(RATE_WINDOW_NANOS, TimeUnit.NANOSECONDS);
+				}
+				catch (InterruptedException e) {}
+
+				LogEntry summary = LogBox.takeSuppressedSummary();
+				if (summary != null)
+					this.write(summary);
+
+				if (entry == null)
+					continue;
+
+				try {
+					this.write(entry);
+				}
+				catch (Throwable t) {
+					// Never let a bad line stop the log
+				}
+				entry.signal();
+			}
+		}
+
+		private void write(LogEntry entry) {
+			String text = entry.getText();
+			if (text == null)
+				return;
+
+			if (entry.mirror != null) {
+				entry.mirror.write(text);
+				entry.mirror.newLine();
+				entry.mirror.flush();
+			}
+
+			if (!entry.print)
+				return;
+
+			System.out.println(text);
+			if (entry.showInLog)
+				LogBox.addLine(text);
+		}
+	}
+
+	/**
+	 * Adds the line to the ring buffer and schedules the update of the log
+	 * area, one update is pending at a time.
+	 */
+	private static void addLine(String text) {
+		synchronized (logLock) {
+			if (lineCount < LOG_CAPACITY) {
+				lines[(lineStart + lineCount) % LOG_CAPACITY] = text;
+				lineCount++;
+			}
+			else {
+				lines[lineStart] = text;
+				lineStart = (lineStart + 1) % LOG_CAPACITY;
+			}
+			unshownCount++;
+
+			if (flushScheduled || myInstance == null)
+				return;
+
+			flushScheduled = true;
+		}
+		SwingUtilities.invokeLater(flushTask);
+	}
+
+	private static String getLogText() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < lineCount; i++)
+			sb.append(lines[(lineStart + i) % LOG_CAPACITY]).append("\n");
+		return sb.toString();
+	}
+
+	private static final Runnable flushTask = new Runnable() {
+		@Override
+		public void run() {
+			LogBox box = myInstance;
+			String text;
+			boolean replace;
+			synchronized (logLock) {
+				flushScheduled = false;
+				if (box == null || unshownCount == 0)
+					return;
+
+				// Append the new lines unless the log area would grow too far
+				// beyond the capacity of the log, then it is replaced
+				replace = box.areaLines + unshownCount > LOG_CAPACITY + LOG_CAPACITY / 4;
+				if (replace) {
+					text = getLogText();
+					box.areaLines = lineCount;
+				}
+				else {
+					StringBuilder sb = new StringBuilder();
+					int n = Math.min(unshownCount, lineCount);
+					for (int i = lineCount - n; i < lineCount; i++)
+						sb.append(lines[(lineStart + i) % LOG_CAPACITY]).append("\n");
+					text = sb.toString();
+					box.areaLines += n;
+				}
+				unshownCount = 0;
+			}
+
+			if (replace)
+				box.logArea.setText(text);
+			else
+				box.logArea.append(text);
+		}
+	};
+
 	public static void formatRenderLog(String format, Object... args) {
-		logLine(String.format(format, args));
+		LogBox.format(format, args);
 	}
 
 	public static void renderLog(String line) {
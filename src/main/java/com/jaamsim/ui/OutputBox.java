@@ -20,6 +20,8 @@ import java.util.ArrayList;
 
 import javax.swing.JScrollPane;
 import javax.swing.JTable;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
 import javax.swing.table.AbstractTableModel;
 import javax.swing.table.TableModel;
 
@@ -33,8 +35,14 @@ public class OutputBox extends FrameBox {
 	private static OutputBox myInstance;
 	private Entity currentEntity;
 	OutputTableModel tableModel;
+	private final OutputTable table;
 
-	private final ArrayList<Object> entries = new ArrayList<Object>();
+	// The rows are replaced, never modified, as they are read by the event
+	// manager when taking a snapshot
+	private volatile Object[] entries = new Object[0];
+	private volatile int firstVisibleRow = 0;
+	private volatile int lastVisibleRow = Integer.MAX_VALUE;
+	private volatile OutputSnapshot snapshot;
 
 	public OutputBox() {
 		super( "Output Viewer" );
@@ -42,8 +50,16 @@ public class OutputBox extends FrameBox {
 		addWindowListener(FrameBox.getCloseListener("ShowOutputViewer"));
 
 		tableModel = new OutputTableModel();
-		OutputTable table = new OutputTable(tableModel);
+		table = new OutputTable(tableModel);
 		JScrollPane scrollPane = new JScrollPane(table);
+		scrollPane.getViewport().addChangeListener(new ChangeListener() {
+			@Override
+			public void stateChanged(ChangeEvent e) {
+				// Newly visible rows need their values
+				if (updateVisibleRows())
+					FrameBox.valueUpdate();
+			}
+		});
 
 		getContentPane().add( scrollPane );
 
@@ -68,14 +84,15 @@ public class OutputBox extends FrameBox {
 		currentEntity = entity;
 		if (currentEntity == null) {
 			setTitle("Output Viewer");
-			entries.clear();
+			entries = new Object[0];
+			tableModel.fireTableDataChanged();
 			return;
 		}
 		setTitle("Output Viewer - " + currentEntity.getInputName());
 
 		// Build up the row list, leaving extra rows for entity names
 		Class<?> currClass = null;
-		entries.clear();
+		ArrayList<Object> rows = new ArrayList<Object>();
 
 		ArrayList<OutputHandle> handles = OutputHandle.getOutputHandleList(currentEntity);
 		for (OutputHandle h : handles) {
@@ -83,16 +100,97 @@ public class OutputBox extends FrameBox {
 			if (currClass != klass) {
 				// This is the first time we've seen this class, add a place holder row
 				currClass = klass;
-				entries.add(klass);
+				rows.add(klass);
 			}
-			entries.add(h);
+			rows.add(h);
+		}
+		entries = rows.toArray();
+		tableModel.fireTableDataChanged();
+		updateVisibleRows();
+	}
+
+	/**
+	 * Records the rows presently visible, returns true if they have changed.
+	 */
+	private boolean updateVisibleRows() {
+		int[] vis = FrameBox.getVisibleRows(table);
+		if (vis == null)
+			return false;
+
+		if (vis[0] == firstVisibleRow && vis[1] == lastVisibleRow)
+			return false;
+
+		firstVisibleRow = vis[0];
+		lastVisibleRow = vis[1];
+		return true;
+	}
+
+	@Override
+	public void takeSnapshot(double simTime) {
+		if (!this.isVisible())
+			return;
+
+		Object[] rows = entries;
+		String[] values = new String[rows.length];
+		int last = Math.min(lastVisibleRow, rows.length - 1);
+		for (int i = Math.max(firstVisibleRow, 0); i <= last; i++) {
+			if (rows[i] instanceof OutputHandle)
+				values[i] = formatValue((OutputHandle)rows[i], simTime);
 		}
+		snapshot = new OutputSnapshot(rows, values);
 	}
 
 	@Override
 	public void updateValues(double simTime) {
-		tableModel.simTime = simTime;
-		tableModel.fireTableDataChanged();
+		updateVisibleRows();
+
+		// Only the visible rows are repainted
+		int last = Math.min(lastVisibleRow, entries.length - 1);
+		if (last < firstVisibleRow)
+			return;
+		tableModel.fireTableRowsUpdated(firstVisibleRow, last);
+	}
+
+	/**
+	 * The output values of the visible rows at one point in the simulation,
+	 * the value is null for rows that were not visible.
+	 */
+	private static class OutputSnapshot {
+		final Object[] entries;
+		final String[] values;
+
+		OutputSnapshot(Object[] entries, String[] values) {
+			this.entries = entries;
+			this.values = values;
+		}
+	}
+
+	private static String formatValue(OutputHandle o, double simTime) {
+		try {
+			if (o.isNumericValue()) {
+				double d = o.getValueAsDouble(simTime, Double.NaN);
+				Class<? extends Unit> ut = o.getUnitType();
+				if (ut == Unit.class || ut == DimensionlessUnit.class) {
+					return String.format("%g", d);
+				}
+				else {
+					Unit u = Unit.getPreferredUnit(ut);
+					if (u == null)
+						return String.format("%g  %s", d, Unit.getSIUnit(ut));
+					else
+						return String.format("%g  %s", d / u.getConversionFactorToSI(), u.getInputName());
+				}
+			}
+
+			String s = o.getValue(simTime, o.getReturnType()).toString();
+			if (o.getUnitType() == Unit.class )
+				return s;
+			else
+				return s + "  " + Unit.getSIUnit(o.getUnitType());
+		}
+		catch (Throwable e) {
+			return "";
+		}
 	}
 
 	private synchronized static void killInstance() {
@@ -122,13 +220,14 @@ private class OutputTable extends JTable {
 	public String getToolTipText(MouseEvent event) {
 		Point p = event.getPoint();
 		int row = rowAtPoint(p);
-		if (currentEntity == null ||
-		    row >= entries.size() ||
-		    entries.get(row) instanceof Class) {
+		Object[] rows = entries;
+		if (currentEntity == null || row < 0 ||
+		    row >= rows.length ||
+		    rows[row] instanceof Class) {
 			return null;
 		}
 
-		OutputHandle output = (OutputHandle)entries.get(row);
+		OutputHandle output = (OutputHandle)rows[row];
 
 		StringBuilder build = new StringBuilder();
 		build.append("<HTML>");
@@ -168,7 +267,6 @@ private class OutputTable extends JTable {
 }
 
 private class OutputTableModel extends AbstractTableModel {
-	double simTime = 0.0d;
 	@Override
 	public int getColumnCount() {
 		return 2;
@@ -186,46 +284,27 @@ private class OutputTableModel extends AbstractTableModel {
 
 	@Override
 	public int getRowCount() {
-		return entries.size();
+		return entries.length;
 	}
 
 	@Override
 	public Object getValueAt(int row, int col) {
-		Object entry = entries.get(row);
+		Object[] rows = entries;
+		if (row >= rows.length)
+			return "";
+
+		Object entry = rows[row];
 		switch (col) {
 		case 0:
 			if (entry instanceof Class)
 				return String.format("<HTML><B>%s</B></HTML>", ((Class<?>)entry).getSimpleName());
 			return String.format("    %s", ((OutputHandle)entry).getName());
 		case 1:
-			if (entry instanceof Class)
-				return "";
-			try {
-				OutputHandle o = (OutputHandle)entry;
-				if (o.isNumericValue()) {
-					double d = o.getValueAsDouble(simTime, Double.NaN);
-					Class<? extends Unit> ut = o.getUnitType();
-					if (ut == Unit.class || ut == DimensionlessUnit.class) {
-						return String.format("%g", d);
-					}
-					else {
-						Unit u = Unit.getPreferredUnit(ut);
-						if (u == null)
-							return String.format("%g  %s", d, Unit.getSIUnit(ut));
-						else
-							return String.format("%g  %s", d / u.getConversionFactorToSI(), u.getInputName());
-					}
-				}
-
-				String s = o.getValue(simTime, o.getReturnType()).toString();
-				if (o.getUnitType() == Unit.class )
-					return s;
-				else
-					return s + "  " + Unit.getSIUnit(o.getUnitType());
-			}
-			catch (Throwable e) {
+			// Show the value from the latest snapshot of these rows
+			OutputSnapshot snap = snapshot;
+			if (snap == null || snap.entries != rows || snap.values[row] == null)
 				return "";
-			}
+			return snap.values[row];
 		default:
 			assert false;
 			return null;
@@ -27,7 +27,6 @@ import javax.swing.JTable;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 import javax.swing.table.AbstractTableModel;
-import javax.swing.table.TableModel;
 
 import com.sandwell.JavaSimulation.Entity;
 import com.sandwell.JavaSimulation3D.GUIFrame;
@@ -40,6 +39,7 @@ public class PropertyBox extends FrameBox {
 	private static PropertyBox myInstance;  // only one instance allowed to be open
 	private Entity currentEntity;
 	private final JTabbedPane jTabbedFrame = new JTabbedPane();
+	private volatile PropertyTable watchedTable;  // the table in the selected tab
 
 	public PropertyBox() {
 		super("Property Viewer");
@@ -67,6 +67,7 @@ public class PropertyBox extends FrameBox {
 	public void setEntity(Entity entity) {
 
 		jTabbedFrame.removeAll();
+		watchedTable = null;
 
 		currentEntity = entity;
 		if (currentEntity == null) {
@@ -80,11 +81,40 @@ public class PropertyBox extends FrameBox {
 			// The properties in the current page
 			ClassFields cf = cFields.get(i);
 			PropertyTableModel mod = new PropertyTableModel(entity, cf.fields);
-			PropertyTable tab = new PropertyTable(mod);
+			final PropertyTable tab = new PropertyTable(mod);
 			JScrollPane scroll = new JScrollPane(tab);
+			scroll.getViewport().addChangeListener(new ChangeListener() {
+				@Override
+				public void stateChanged(ChangeEvent e) {
+					// Newly visible rows need their values
+					if (tab.updateVisibleRows())
+						FrameBox.valueUpdate();
+				}
+			});
 
 			jTabbedFrame.addTab(cf.klass.getSimpleName(), scroll);
 		}
+		watchedTable = getSelectedTable();
+	}
+
+	private PropertyTable getSelectedTable() {
+		JScrollPane scroll = (JScrollPane)jTabbedFrame.getSelectedComponent();
+		if (scroll == null)
+			return null;
+
+		return (PropertyTable)scroll.getViewport().getComponent(0);
+	}
+
+	@Override
+	public void takeSnapshot(double simTime) {
+		if (!this.isVisible())
+			return;
+
+		PropertyTable tab = watchedTable;
+		if (tab == null)
+			return;
+
+		tab.model.takeSnapshot(tab.firstVisibleRow, tab.lastVisibleRow);
 	}
 
 	@Override
@@ -92,8 +122,16 @@ public class PropertyBox extends FrameBox {
 		if(currentEntity == null)
 			return;
 
-		JTable propTable = (JTable)(((JScrollPane)jTabbedFrame.getSelectedComponent()).getViewport().getComponent(0));
-		((PropertyTableModel)propTable.getModel()).fireTableDataChanged();
+		PropertyTable tab = watchedTable;
+		if (tab == null)
+			return;
+
+		// Only the visible rows are repainted
+		tab.updateVisibleRows();
+		int last = Math.min(tab.lastVisibleRow, tab.model.getRowCount() - 1);
+		if (last < tab.firstVisibleRow)
+			return;
+		tab.model.fireTableRowsUpdated(tab.firstVisibleRow, last);
 	}
 
 	private synchronized static void killInstance() {
@@ -106,9 +144,10 @@ public class PropertyBox extends FrameBox {
 		super.dispose();
 	}
 
-private static class TabListener implements ChangeListener {
+private class TabListener implements ChangeListener {
 	@Override
 	public void stateChanged(ChangeEvent e) {
+		watchedTable = getSelectedTable();
 		FrameBox.valueUpdate();
 	}
 }
@@ -174,8 +213,13 @@ private static class ClassFields implements Comparator<Field> {
 	}
 
 private static class PropertyTable extends JTable {
-	PropertyTable(TableModel model) {
+	final PropertyTableModel model;
+	volatile int firstVisibleRow = 0;
+	volatile int lastVisibleRow = Integer.MAX_VALUE;
+
+	PropertyTable(PropertyTableModel model) {
 		super(model);
+		this.model = model;
 
 		setDefaultRenderer(Object.class, colRenderer);
 
@@ -191,15 +235,61 @@ private static class PropertyTable extends JTable {
 	public void doLayout() {
 		FrameBox.fitTableToLastColumn(this);
 	}
+
+	/**
+	 * Records the rows presently visible, returns true if they have changed.
+	 */
+	boolean updateVisibleRows() {
+		int[] vis = FrameBox.getVisibleRows(this);
+		if (vis == null)
+			return false;
+
+		if (vis[0] == firstVisibleRow && vis[1] == lastVisibleRow)
+			return false;
+
+		firstVisibleRow = vis[0];
+		lastVisibleRow = vis[1];
+		return true;
+	}
 }
 
 private static class PropertyTableModel extends AbstractTableModel {
 	Entity ent;
 	ArrayList<Field> fields;
+	private volatile String[] values;  // the values of the visible fields at the last snapshot
 
 	PropertyTableModel(Entity e, ArrayList<Field> cf) {
 		ent = e;
 		fields = cf;
+		values = new String[cf.size()];
+	}
+
+	/**
+	 * Reads the values of the given range of fields.
+	 */
+	void takeSnapshot(int first, int last) {
+		String[] vals = new String[fields.size()];
+		last = Math.min(last, fields.size() - 1);
+		for (int i = Math.max(first, 0); i <= last; i++)
+			vals[i] = readField(fields.get(i));
+		values = vals;
+	}
+
+	private String readField(Field field) {
+		try {
+			// save the field's accessibility, reset after reading
+			boolean accessible = field.isAccessible();
+			field.setAccessible(true);
+
+			Object o = field.get(ent);
+			field.setAccessible(accessible);
+			return format(o);
+		}
+		catch (SecurityException e) {}
+		catch (IllegalArgumentException e) {}
+		catch (IllegalAccessException e) {}
+
+		return "";
 	}
 
 	@Override
@@ -237,20 +327,11 @@ private static class PropertyTableModel extends AbstractTableModel {
 		if (col == 1)
 			return field.getType().getSimpleName();
 
-		try {
-			// save the field's accessibility, reset after reading
-			boolean accessible = field.isAccessible();
-			field.setAccessible(true);
-
-			Object o = field.get(ent);
-			field.setAccessible(accessible);
-			return format(o);
-		}
-		catch (SecurityException e) {}
-		catch (IllegalArgumentException e) {}
-		catch (IllegalAccessException e) {}
-
-		return "";
+		// Show the value from the latest snapshot
+		String val = values[row];
+		if (val == null)
+			return "";
+		return val;
 	}
 }
 }
@@ -153,6 +153,10 @@ public class VideoRecorderEntity extends Entity {
 		}
 	}
 
+	public boolean isCaptureEnabled() {
+		return videoCapture.getValue();
+	}
+
 	private static class CaptureNetworkTarget extends ProcessTarget {
 		final VideoRecorderEntity rec;
 
@@ -41,6 +41,15 @@ public class BooleanInput extends Input<Boolean> {
 		value = Boolean.valueOf(Input.parseBoolean(input.get(0)));
 	}
 
+	@Override
+	public boolean copyValue(Input<?> in) {
+		if (!isSameClass(in))
+			return false;
+
+		value = ((BooleanInput)in).value;
+		return true;
+	}
+
 	@Override
 	public ArrayList<String> getValidOptions() {
 		return validOptions;
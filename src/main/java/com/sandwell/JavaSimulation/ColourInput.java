@@ -54,6 +54,15 @@ static {
 		value = Input.parseColour(input);
 	}
 
+	@Override
+	public boolean copyValue(Input<?> in) {
+		if (!isSameClass(in))
+			return false;
+
+		value = ((ColourInput)in).value;
+		return true;
+	}
+
 public static Color4d getColorWithName(String colorName) {
 	return colorMap.get(colorName);
 }
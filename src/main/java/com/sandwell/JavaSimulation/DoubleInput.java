@@ -37,6 +37,20 @@ public class DoubleInput extends Input<Double> {
 		value = Input.parseDouble( input, minValue, maxValue, unitString);
 	}
 
+	@Override
+	public boolean copyValue(Input<?> in) {
+		if (!isSameClass(in))
+			return false;
+
+		DoubleInput other = (DoubleInput)in;
+		if (other.minValue != minValue || other.maxValue != maxValue ||
+		    !other.unitString.equals(unitString))
+			return false;
+
+		value = other.value;
+		return true;
+	}
+
 	public void setValidRange(double min, double max) {
 		minValue = min;
 		maxValue = max;
@@ -16,8 +16,6 @@ package com.sandwell.JavaSimulation;
 
 import java.util.ArrayList;
 
-import com.jaamsim.input.InputAgent;
-
 public class DoubleTableInput extends Input<ArrayList<DoubleVector>> {
 	protected double minValue = Double.NEGATIVE_INFINITY;
 	protected double maxValue = Double.POSITIVE_INFINITY;
@@ -34,15 +32,27 @@ public class DoubleTableInput extends Input<ArrayList<DoubleVector>> {
 
 	@Override
 	public void parse(StringVector input) throws InputErrorException {
-		ArrayList<StringVector> temp = InputAgent.splitStringVectorByBraces(input);
-		ArrayList<DoubleVector> tab = new ArrayList<DoubleVector>(temp.size());
-		for (StringVector each : temp) {
-			DoubleVector vec = Input.parseDoubleVector(each, minValue, maxValue, unitString);
+		// Parse each row in place rather than splitting the input by braces
+		ArrayList<DoubleVector> tab = new ArrayList<DoubleVector>();
+		for (int i = 0; i < input.size(); i++) {
+
+			//skip over opening brace if present
+			if (input.get(i).equals("{"))
+				continue;
+
+			//the row runs until closing brace, or end of entry
+			int end = i;
+			while (end < input.size() && !input.get(end).equals("}"))
+				end++;
+
+			DoubleVector vec = Input.parseDoubleVector(input, i, end, minValue, maxValue, unitString);
 			if (!Double.isNaN(sumValue))
 				Input.assertSumTolerance(vec, sumValue, 0.001d);
 
 			tab.add(vec);
+			i = end;
 		}
+		tab.trimToSize();
 		value = tab;
 	}
 
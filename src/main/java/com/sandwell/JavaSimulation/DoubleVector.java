@@ -56,12 +56,25 @@ public class DoubleVector {
 		numElements = 0;
 	}
 
+	/**
+	 * Construct a vector holding the given values.  The array is used as the
+	 * storage for the vector and is not copied.
+	 */
+	public DoubleVector(double[] values) {
+		storage = values;
+		capIncrement = 1;
+		numElements = values.length;
+	}
+
 	private void ensureCapacity(int newCapacity) {
 		if (storage.length >= newCapacity)
 			return;
 
-		if (storage.length + capIncrement >= newCapacity) {
-			newCapacity = storage.length + capIncrement;
+		// Grow by at least half the present capacity so that appending
+		// one element at a time stays linear
+		int increment = Math.max(capIncrement, storage.length / 2);
+		if (storage.length + increment >= newCapacity) {
+			newCapacity = storage.length + increment;
 		}
 
 		double[] copy = new double[newCapacity];
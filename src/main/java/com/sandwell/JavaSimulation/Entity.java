@@ -16,6 +16,7 @@ package com.sandwell.JavaSimulation;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import com.jaamsim.basicsim.ClonesOfIterable;
 import com.jaamsim.basicsim.InstanceIterable;
@@ -41,6 +42,7 @@ public class Entity {
 	private static long entityCount = 0;
 	private static final ArrayList<Entity> allInstances;
 	private static final HashMap<String, Entity> namedEntities;
+	private static final CopyOnWriteArrayList<Listener> listeners;
 
 	private String entityName;
 	private String entityInputName; // Name input by user
@@ -81,6 +83,25 @@ public class Entity {
 	static {
 		allInstances = new ArrayList<Entity>(100);
 		namedEntities = new HashMap<String, Entity>(100);
+		listeners = new CopyOnWriteArrayList<Listener>();
+	}
+
+	/**
+	 * Receives notice of entities being created and killed. The methods are
+	 * called on the thread creating or killing the entity, entityAdded() is
+	 * called before the sub-class constructors have run.
+	 */
+	public interface Listener {
+		public void entityAdded(Entity ent);
+		public void entityRemoved(Entity ent);
+	}
+
+	public static void addListener(Listener l) {
+		listeners.addIfAbsent(l);
+	}
+
+	public static void removeListener(Listener l) {
+		listeners.remove(l);
 	}
 
 	{
@@ -105,6 +126,9 @@ public class Entity {
 		}
 
 		flags = 0;
+
+		for (Listener each : listeners)
+			each.entityAdded(this);
 	}
 
 	private static synchronized long getNextID() {
@@ -180,6 +204,9 @@ public class Entity {
 		removeInputName();
 
 		setFlag(FLAG_DEAD);
+
+		for (Listener each : listeners)
+			each.entityRemoved(this);
 	}
 
 	public void doEnd() {}
@@ -50,6 +50,24 @@ public class EntityInput<T extends Entity> extends Input<T> {
 		}
 	}
 
+	@Override
+	public boolean copyValue(Input<?> in) {
+		if (!isSameClass(in))
+			return false;
+
+		EntityInput<?> other = (EntityInput<?>)in;
+		if (other.entClass != entClass)
+			return false;
+
+		// The invalid entities usually include the owning entity itself
+		T tmp = entClass.cast(other.value);
+		if (tmp != null && !isValid(tmp))
+			return false;
+
+		value = tmp;
+		return true;
+	}
+
 	@Override
 	public ArrayList<String> getValidOptions() {
 		ArrayList<String> list = new ArrayList<String>();
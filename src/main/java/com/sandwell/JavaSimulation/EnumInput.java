@@ -31,6 +31,19 @@ public class EnumInput<T extends Enum<T>> extends Input<T> {
 		value = Input.parseEnum(type, input.get(0));
 	}
 
+	@Override
+	public boolean copyValue(Input<?> in) {
+		if (!isSameClass(in))
+			return false;
+
+		EnumInput<?> other = (EnumInput<?>)in;
+		if (other.type != type)
+			return false;
+
+		value = type.cast(other.value);
+		return true;
+	}
+
 	@Override
 	public ArrayList<String> getValidOptions() {
 		ArrayList<String> tmp = new ArrayList<String>();
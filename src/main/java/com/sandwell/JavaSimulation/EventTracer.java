@@ -77,7 +77,7 @@ class EventTracer {
 	static void traceAllEvents(EventManager evt, boolean enable) {
 		if (enable) {
 			verifyAllEvents(evt, false);
-			eventTraceFile = new FileEntity(InputAgent.getConfigFile().getParentFile()+ File.separator+ InputAgent.getRunName() + ".evt");
+			eventTraceFile = new FileEntity(InputAgent.getConfigFile().getParentFile()+ File.separator+ InputAgent.getRunName() + ".evt", false, true);
 			evt.setTraceListener(new EventTraceRecord());
 		} else if (eventTraceFile != null) {
 			eventTraceFile.close();
@@ -167,7 +167,6 @@ class EventTracer {
 			eventTraceFile.putString(each);
 			eventTraceFile.newLine();
 		}
-		eventTraceFile.flush();
 	}
 
 	static void processTraceData(EventTraceRecord traceRecord) {
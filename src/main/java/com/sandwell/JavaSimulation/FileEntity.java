@@ -16,14 +16,32 @@ package com.sandwell.JavaSimulation;
 
 import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
 import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
 
+import com.jaamsim.math.DoubleFormatter;
 import com.jaamsim.ui.LogBox;
 
 /**
  * Class encapsulating file input/output methods and file access.
+ *
+ * Output is buffered and only reaches the file when flush(), sync() or close()
+ * is called, or when the buffer fills. In asynchronous mode the buffered text
+ * is handed to a dedicated writer thread that encodes it into a direct buffer
+ * and writes it to a FileChannel, so flush() does not wait for the disk.
  */
 public class FileEntity {
 	public static int ALIGNMENT_LEFT = 0;
@@ -31,20 +49,54 @@ public class FileEntity {
 
 	private File backingFileObject;
 	private BufferedWriter outputStream;
+	private AsyncChannelWriter asyncWriter;
 
 	private DecimalFormat formatter;
+	private final StringBuilder numberBuffer = new StringBuilder(32);
+
+	// Asynchronous files whose writer threads are completing while close() is deferred
+	private static ArrayList<FileEntity> closingFiles;
+
+	// Asynchronous files that are open, synced by syncAll()
+	private static final ArrayList<FileEntity> openAsyncFiles;
+
+	static {
+		openAsyncFiles = new ArrayList<FileEntity>();
+
+		// The writer threads are daemons, write out what has been buffered
+		// before the application exits
+		Runtime.getRuntime().addShutdownHook(new Thread() {
+			@Override
+			public void run() {
+				FileEntity.syncAll();
+			}
+		});
+	}
 
 	public FileEntity(String fileName) {
-		this(fileName, false);
+		this(fileName, false, false);
 	}
 
 	public FileEntity(String fileName, boolean append) {
+		this(fileName, append, false);
+	}
+
+	public FileEntity(String fileName, boolean append, boolean async) {
 		backingFileObject = new File( fileName);
 		formatter = new DecimalFormat( "##0.00" );
 
 		try {
 			backingFileObject.createNewFile();
-			outputStream = new BufferedWriter( new FileWriter( backingFileObject, append ) );
+			if( async ) {
+				asyncWriter = new AsyncChannelWriter( backingFileObject, append );
+				outputStream = new BufferedWriter( asyncWriter, AsyncChannelWriter.BLOCK_SIZE );
+				synchronized (FileEntity.class) {
+					openAsyncFiles.add(this);
+				}
+			}
+			else {
+				outputStream = new BufferedWriter( new FileWriter( backingFileObject, append ) );
+			}
 		}
 		catch( IOException e ) {
 			throw new InputErrorException( "IOException thrown trying to open FileEntity: " + e );
@@ -58,9 +110,20 @@ public class FileEntity {
 	}
 
 	public void close() {
+		if( asyncWriter != null ) {
+			synchronized (FileEntity.class) {
+				openAsyncFiles.remove(this);
+			}
+		}
+
 		try {
 			if( outputStream != null ) {
 				outputStream.flush();
+				if( asyncWriter != null && deferClose(this) ) {
+					asyncWriter.finishWriting();
+					outputStream = null;
+					return;
+				}
 				outputStream.close();
 				outputStream = null;
 			}
@@ -71,10 +134,51 @@ public class FileEntity {
 		}
 	}
 
+	private static synchronized boolean deferClose(FileEntity file) {
+		if (closingFiles == null)
+			return false;
+
+		closingFiles.add(file);
+		return true;
+	}
+
+	/**
+	 * Until endDeferredClose() is called, close() returns as soon as an
+	 * asynchronous file has handed its remaining text to the writer thread,
+	 * so that the writer threads for several files complete in parallel.
+	 */
+	public static synchronized void beginDeferredClose() {
+		if (closingFiles == null)
+			closingFiles = new ArrayList<FileEntity>();
+	}
+
+	/**
+	 * Waits for the files closed since beginDeferredClose() to be written.
+	 */
+	public static void endDeferredClose() {
+		ArrayList<FileEntity> files;
+		synchronized (FileEntity.class) {
+			files = closingFiles;
+			closingFiles = null;
+		}
+		if (files == null)
+			return;
+
+		for (FileEntity each : files) {
+			try {
+				each.asyncWriter.close();
+			}
+			catch (IOException e) {
+				LogBox.logLine( "Unable to close FileEntity: " + each.backingFileObject.getName() );
+			}
+		}
+	}
+
 	public void flush() {
 		try {
-			if( outputStream != null ) {
-				outputStream.flush();
+			BufferedWriter out = outputStream;
+			if( out != null ) {
+				out.flush();
 			}
 		}
 		catch( IOException e ) {
@@ -82,6 +186,48 @@ public class FileEntity {
 		}
 	}
 
+	/**
+	 * Flushes the buffered output and waits until it has been written to the
+	 * storage device.  This is the durability point for asynchronous files,
+	 * flush() only hands the text to the writer thread.
+	 */
+	public void sync() {
+		this.flush();
+		if( asyncWriter == null )
+			return;
+
+		try {
+			asyncWriter.sync();
+		}
+		catch( IllegalStateException e ) {
+			// The file was closed, which writes out the output as well
+		}
+		catch( IOException e ) {
+			throw new ErrorException( "Unable to sync FileEntity: " + e );
+		}
+	}
+
+	/**
+	 * Syncs every open asynchronous file, so that their output is on disk
+	 * when the run stops, when an error is reported and when the application
+	 * exits.  May be called from any thread.
+	 */
+	public static void syncAll() {
+		FileEntity[] files;
+		synchronized (FileEntity.class) {
+			files = openAsyncFiles.toArray(new FileEntity[openAsyncFiles.size()]);
+		}
+
+		for (FileEntity each : files) {
+			try {
+				each.sync();
+			}
+			catch (ErrorException e) {
+				LogBox.logLine( "Unable to sync FileEntity: " + each.backingFileObject.getName() );
+			}
+		}
+	}
+
 	public void putString( String string ) {
 		try {
 			outputStream.write( string );
@@ -95,6 +241,21 @@ public class FileEntity {
 		putString(String.format(format, args));
 	}
 
+	/**
+	 * Prints the given value with a fixed number of decimal places, equivalent
+	 * to format("%.nf", value) but without the overhead of String.format.
+	 */
+	public void putDouble( double value, int decimalPlaces ) {
+		numberBuffer.setLength(0);
+		DoubleFormatter.append(numberBuffer, value, decimalPlaces);
+		try {
+			outputStream.append( numberBuffer );
+		}
+		catch( IOException e ) {
+			return;
+		}
+	}
+
 	/**
 	 * Prints the given string for the specified number of times.
 	 */
@@ -113,19 +274,16 @@ public class FileEntity {
 	 * Generic string writing method.  All other methods will wrap this class.
 	 */
 	public void putString( String string, int putLength, int alignment ) {
-		String spaces = "";
-
-		for( int i = 0; i < putLength - string.length(); i++ ) {
-			spaces = " " + spaces;
-		}
+		int numSpaces = putLength - string.length();
 		try {
 			if( alignment == ALIGNMENT_LEFT ) {
-				outputStream.write( string + spaces );
+				outputStream.write( string );
+				this.putSpaces( numSpaces );
 			}
 			if( alignment == ALIGNMENT_RIGHT ) {
-				outputStream.write( spaces + string );
+				this.putSpaces( numSpaces );
+				outputStream.write( string );
 			}
-			outputStream.flush();
 		}
 		catch( IOException e ) {
 			return;
@@ -230,7 +388,7 @@ public class FileEntity {
 	public void putTabs( int numTabs ) {
 		try {
 			for( int i = 0; i < numTabs; i++ ) {
-				outputStream.write( "\t" );
+				outputStream.write( '\t' );
 			}
 		}
 		catch( IOException e ) {
@@ -250,7 +408,7 @@ public class FileEntity {
 	public void putSpaces( int numSpaces ) {
 		try {
 			for( int i = 0; i < numSpaces; i++ ) {
-				outputStream.write( " " );
+				outputStream.write( ' ' );
 			}
 		}
 		catch( IOException e ) {
@@ -278,4 +436,244 @@ public class FileEntity {
 			throw new ErrorException( "Unable to delete " + backingFileObject.getName() + "(" + e.getMessage() + ")" );
 		}
 	}
+
+	/**
+	 * Writer that hands blocks of text to a background thread which encodes
+	 * them and writes them to a FileChannel.  At most QUEUE_SIZE blocks may be
+	 * waiting to be written before the producer blocks.
+	 */
+	private static final class AsyncChannelWriter extends Writer implements Runnable {
+		static final int BLOCK_SIZE = 64 * 1024;
+		private static final int QUEUE_SIZE = 16;
+		private static final CharBuffer SYNC = CharBuffer.allocate(0);
+		private static final CharBuffer END = CharBuffer.allocate(0);
+
+		private final FileOutputStream stream;
+		private final FileChannel channel;
+		private final CharsetEncoder encoder;
+		private final ByteBuffer byteBuf;
+		private final ArrayBlockingQueue<CharBuffer> queue;
+		private final ConcurrentLinkedQueue<char[]> freeBlocks;
+		private final Semaphore synced;
+		private final Thread thread;
+
+		private char[] block;
+		private int count;
+		private volatile IOException error;
+		private boolean closed;  // TRUE once the end marker has been passed to the writer thread
+		private boolean streamClosed;
+
+		AsyncChannelWriter(File file, boolean append) throws IOException {
+			stream = new FileOutputStream(file, append);
+			channel = stream.getChannel();
+			encoder = Charset.defaultCharset().newEncoder()
+			                 .onMalformedInput(CodingErrorAction.REPLACE)
+			                 .onUnmappableCharacter(CodingErrorAction.REPLACE);
+			byteBuf = ByteBuffer.allocateDirect(4 * BLOCK_SIZE);
+			queue = new ArrayBlockingQueue<CharBuffer>(QUEUE_SIZE);
+			freeBlocks = new ConcurrentLinkedQueue<char[]>();
+			synced = new Semaphore(0);
+			block = new char[BLOCK_SIZE];
+
+			thread = new Thread(this, "FileEntity-" + file.getName());
+			thread.setDaemon(true);
+			thread.start();
+		}
+
+		@Override
+		public void write(char[] cbuf, int off, int len) throws IOException {
+			this.checkError();
+			while (len > 0) {
+				int n = Math.min(len, BLOCK_SIZE - count);
+				System.arraycopy(cbuf, off, block, count, n);
+				count += n;
+				off += n;
+				len -= n;
+				if (count == BLOCK_SIZE)
+					this.handOffFull();
+			}
+		}
+
+		private void handOffFull() {
+			// Keep a surrogate pair together so that each block encodes on its own
+			char last = block[BLOCK_SIZE - 1];
+			if (!Character.isHighSurrogate(last)) {
+				this.handOff();
+				return;
+			}
+			count--;
+			this.handOff();
+			block[0] = last;
+			count = 1;
+		}
+
+		@Override
+		public void flush() throws IOException {
+			this.checkError();
+			this.handOff();
+		}
+
+		void sync() throws IOException {
+			// The BufferedWriter in front of this writer holds the same lock
+			// while it writes, so another thread may sync the file
+			synchronized (lock) {
+				this.handOff();
+				this.enqueue(SYNC);
+			}
+			synced.acquireUninterruptibly();
+			this.checkError();
+		}
+
+		/**
+		 * Passes the remaining text and the end marker to the writer thread
+		 * without waiting for it to be written.
+		 */
+		void finishWriting() {
+			if (closed)
+				return;
+
+			this.handOff();
+			this.enqueue(END);
+			closed = true;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (streamClosed)
+				return;
+
+			this.finishWriting();
+			boolean interrupted = false;
+			while (thread.isAlive()) {
+				try {
+					thread.join();
+				}
+				catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			if (interrupted)
+				Thread.currentThread().interrupt();
+
+			stream.close();
+			streamClosed = true;
+			this.checkError();
+		}
+
+		private void checkError() throws IOException {
+			if (error != null)
+				throw error;
+		}
+
+		/**
+		 * Passes the text written so far to the writer thread.  A full block is
+		 * handed over as is, a partial one is copied so the block can be reused.
+		 */
+		private void handOff() {
+			if (count == 0)
+				return;
+
+			if (count == BLOCK_SIZE) {
+				this.enqueue(CharBuffer.wrap(block));
+				block = freeBlocks.poll();
+				if (block == null)
+					block = new char[BLOCK_SIZE];
+			}
+			else {
+				char[] part = new char[count];
+				System.arraycopy(block, 0, part, 0, count);
+				this.enqueue(CharBuffer.wrap(part));
+			}
+			count = 0;
+		}
+
+		private void enqueue(CharBuffer buf) {
+			if (closed)
+				throw new IllegalStateException("Writer has been closed");
+
+			boolean interrupted = false;
+			while (true) {
+				try {
+					queue.put(buf);
+					break;
+				}
+				catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			if (interrupted)
+				Thread.currentThread().interrupt();
+		}
+
+		@Override
+		public void run() {
+			while (true) {
+				CharBuffer buf;
+				try {
+					buf = queue.take();
+				}
+				catch (InterruptedException e) {
+					continue;
+				}
+
+				if (buf == SYNC) {
+					try {
+						if (error == null) {
+							this.drain();
+							channel.force(false);
+						}
+					}
+					catch (IOException e) {
+						error = e;
+					}
+					synced.release();
+					continue;
+				}
+
+				// Discard any further output once an error has occurred, it
+				// is reported to the producer on its next call
+				try {
+					if (error == null) {
+						if (buf == END)
+							this.finish();
+						else
+							this.encode(buf);
+					}
+				}
+				catch (IOException e) {
+					error = e;
+				}
+
+				if (buf == END)
+					return;
+
+				if (buf.capacity() == BLOCK_SIZE)
+					freeBlocks.offer(buf.array());
+			}
+		}
+
+		private void encode(CharBuffer buf) throws IOException {
+			while (encoder.encode(buf, byteBuf, false).isOverflow())
+				this.drain();
+
+			// Combine small blocks into a single write while more are waiting
+			if (queue.isEmpty())
+				this.drain();
+		}
+
+		private void finish() throws IOException {
+			while (encoder.encode(CharBuffer.allocate(0), byteBuf, true).isOverflow())
+				this.drain();
+			while (encoder.flush(byteBuf).isOverflow())
+				this.drain();
+			this.drain();
+		}
+
+		private void drain() throws IOException {
+			byteBuf.flip();
+			while (byteBuf.hasRemaining())
+				channel.write(byteBuf);
+			byteBuf.clear();
+		}
+	}
 }
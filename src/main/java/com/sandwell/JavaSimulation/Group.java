@@ -15,6 +15,7 @@
 package com.sandwell.JavaSimulation;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import com.jaamsim.input.InputAgent;
 import com.jaamsim.input.InputAgent.KeywordIndex;
@@ -80,12 +81,10 @@ public class Group extends Entity {
 				this.checkType();
 				// set values of appended objects to the group values
 				if ( type != null ) {
-					for ( int i = originalListSize; i < list.size(); i ++ ) {
-						Entity ent = list.get( i );
-						for ( int j = 0; j < groupKeywordValues.size(); j++  ) {
-							KeywordIndex kw = groupKeywordValues.get(j);
-							InputAgent.apply(ent, kw);
-						}
+					List<Entity> appended = list.subList(originalListSize, list.size());
+					for ( int j = 0; j < groupKeywordValues.size(); j++  ) {
+						KeywordIndex kw = groupKeywordValues.get(j);
+						InputAgent.applyToEach(appended, kw);
 					}
 				}
 
@@ -16,11 +16,13 @@ package com.sandwell.JavaSimulation;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.regex.Pattern;
 
 import com.jaamsim.Samples.SampleConstant;
 import com.jaamsim.Samples.SampleProvider;
 import com.jaamsim.input.InputAgent;
+import com.jaamsim.input.Parser;
 import com.jaamsim.input.ValueListInput;
 import com.jaamsim.math.Color4d;
 import com.jaamsim.math.Vec3d;
@@ -72,6 +74,7 @@ public abstract class Input<T> {
 	private boolean edited; // indicates if input has been edited for this entity
 	private boolean hidden; // Hide this input from the EditBox
 	protected String valueString; // value from .cfg file
+	private StringVector valueTokens; // tokens for the value string, joined when first requested
 
 	public static class ParseContext {
 		public URI context;
@@ -90,7 +93,7 @@ public abstract class Input<T> {
 
 	public void reset() {
 		this.setDefaultValue( this.getDefaultValue() );
-		valueString = "";
+		this.setValueString("");
 		edited = false;
 	}
 
@@ -157,12 +160,54 @@ public abstract class Input<T> {
 		return edited;
 	}
 
-	public String getValueString() {
+	/**
+	 * Returns the value string, joining the tokens on first use.  The value
+	 * string and its tokens are only accessed while holding the lock on this
+	 * input, as the GUI reads them while the inputs are being processed.
+	 */
+	public synchronized String getValueString() {
+		if (valueTokens != null) {
+			valueString = Input.joinTokens(valueTokens);
+			valueTokens = null;
+		}
 		return valueString;
 	}
 
-	public void setValueString(String str) {
+	public synchronized void setValueString(String str) {
 		valueString = str;
+		valueTokens = null;
+	}
+
+	/**
+	 * Sets the value string to the given tokens.  The string itself is only
+	 * built if it is requested, the tokens must not be modified afterwards.
+	 */
+	public synchronized void setValueTokens(StringVector tokens) {
+		valueTokens = tokens;
+		valueString = null;
+	}
+
+	/**
+	 * Returns the tokens joined into a single string with quotes added where
+	 * needed.
+	 */
+	public static String joinTokens(StringVector data) {
+		int len = 0;
+		for (int i = 0; i < data.size(); i++)
+			len += data.get(i).length() + 2;
+
+		StringBuilder out = new StringBuilder(len);
+		for (int i = 0; i < data.size(); i++) {
+			String dat = data.get(i);
+			if (Parser.needsQuoting(dat) && !dat.equals("{") && !dat.equals("}"))
+				out.append("'").append(dat).append("'");
+			else
+				out.append(dat);
+
+			if( i < data.size() - 1 )
+				out.append("  ");
+		}
+		return out.toString();
 	}
 
 	public abstract void parse(StringVector input) throws InputErrorException;
@@ -171,6 +216,24 @@ public abstract class Input<T> {
 		parse(input);
 	}
 
+	/**
+	 * Sets the value of this input to the value already parsed by the given
+	 * input from the same tokens, e.g. for the members of a Group.  Returns
+	 * false if the value cannot be shared and the tokens must be parsed by
+	 * this input instead.
+	 */
+	public boolean copyValue(Input<?> in) {
+		return false;
+	}
+
+	/**
+	 * Returns true if the given input is of the same class as this input and
+	 * its value can be assigned to this input without re-parsing.
+	 */
+	protected final boolean isSameClass(Input<?> in) {
+		return in != null && in.getClass() == this.getClass();
+	}
+
 	public static void assertCount(DoubleVector input, int... counts)
 	throws InputErrorException {
 		// If there is no constraint on the element count, return
@@ -724,12 +787,19 @@ public abstract class Input<T> {
 	 */
 	public static DoubleVector parseDoubleVector(StringVector input, double minValue, double maxValue, double factor)
 	throws InputErrorException {
-		DoubleVector temp = new DoubleVector(input.size());
+		return new DoubleVector(Input.parseDoubleArray(input, 0, input.size(), minValue, maxValue, factor));
+	}
 
-		for (int i = 0; i < input.size(); i++) {
+	/**
+	 * Convert the tokens from start (inclusive) to end (exclusive) to an array
+	 * of doubles and apply the given conversion factor
+	 */
+	public static double[] parseDoubleArray(List<String> input, int start, int end, double minValue, double maxValue, double factor)
+	throws InputErrorException {
+		double[] temp = new double[end - start];
+		for (int i = 0; i < temp.length; i++) {
 			try {
-				double element = Input.parseDouble(input.get(i), minValue, maxValue, factor);
-				temp.add(element);
+				temp[i] = Input.parseDouble(input.get(start + i), minValue, maxValue, factor);
 			} catch (InputErrorException e) {
 				throw new InputErrorException(INP_ERR_ELEMENT, i, e.getMessage());
 			}
@@ -741,39 +811,46 @@ public abstract class Input<T> {
 	 * Convert the given StringVector to a DoubleVector and apply the given conversion factor
 	 */
 	public static DoubleVector parseDoubles(StringVector input, double minValue, double maxValue, Class<? extends Unit> unitType)
+	throws InputErrorException {
+		return new DoubleVector(Input.parseDoubleArray(input, 0, input.size(), minValue, maxValue, unitType));
+	}
+
+	/**
+	 * Convert the tokens from start (inclusive) to end (exclusive) to an array
+	 * of doubles in SI units.  Unless the unit type is dimensionless the last
+	 * token must be a unit of the given type.
+	 */
+	public static double[] parseDoubleArray(List<String> input, int start, int end, double minValue, double maxValue, Class<? extends Unit> unitType)
 	throws InputErrorException {
 		if (unitType == UserSpecifiedUnit.class)
 			throw new InputErrorException(INP_ERR_UNITUNSPECIFIED);
 
 		double factor = 1.0d;
-		int numDoubles = input.size();
+		int numDoubles = end - start;
 
 		// If not a Dimensionless value, a unit is mandatory
 		if (unitType != DimensionlessUnit.class) {
-			Entity ent = Entity.getNamedEntity(input.get(input.size() - 1));
+			String unitName = (end > start) ? input.get(end - 1) : "";
+			Entity ent = Entity.getNamedEntity(unitName);
 			if (ent == null)
-				throw new InputErrorException(INP_ERR_NOUNITFOUND, input.get(input.size() - 1), unitType.getSimpleName());
+				throw new InputErrorException(INP_ERR_NOUNITFOUND, unitName, unitType.getSimpleName());
 
 			Unit unit = Input.castEntity(ent, unitType);
 			if (unit == null)
 				throw new InputErrorException(INP_ERR_ENTCLASS, unitType.getSimpleName(), ent.getInputName(), ent.getClass().getSimpleName());
 
 			factor = unit.getConversionFactorToSI();
-			numDoubles = input.size() - 1;
+			numDoubles--;
 		}
 
-		DoubleVector temp = new DoubleVector(numDoubles);
+		// Allow a special syntax for time-based inputs
+		if (unitType != TimeUnit.class)
+			return Input.parseDoubleArray(input, start, start + numDoubles, minValue, maxValue, factor);
+
+		double[] temp = new double[numDoubles];
 		for (int i = 0; i < numDoubles; i++) {
 			try {
-				// Allow a special syntax for time-based inputs
-				if (unitType == TimeUnit.class) {
-					double element = Input.parseSeconds(input.get(i), minValue, maxValue, factor);
-					temp.add(element);
-				}
-				else {
-					double element = Input.parseDouble(input.get(i), minValue, maxValue, factor);
-					temp.add(element);
-				}
+				temp[i] = Input.parseSeconds(input.get(start + i), minValue, maxValue, factor);
 			} catch (InputErrorException e) {
 				throw new InputErrorException(INP_ERR_ELEMENT, i, e.getMessage());
 			}
@@ -786,12 +863,24 @@ public abstract class Input<T> {
 	 */
 	public static DoubleVector parseDoubleVector(StringVector data, double minValue, double maxValue, String defaultUnitString)
 	throws InputErrorException {
-		StringVector numericData = new StringVector(data);
+		return Input.parseDoubleVector(data, 0, data.size(), minValue, maxValue, defaultUnitString);
+	}
+
+	/**
+	 * Convert the tokens from start (inclusive) to end (exclusive) to a
+	 * DoubleVector including a unit conversion, if necessary
+	 */
+	public static DoubleVector parseDoubleVector(List<String> data, int start, int end, double minValue, double maxValue, String defaultUnitString)
+	throws InputErrorException {
+		if (end <= start)
+			throw new InputErrorException(INP_ERR_RANGECOUNT, 1, Integer.MAX_VALUE, "[]");
+
+		int numericEnd = end;
 
 		// If there is more than one value, and the last one is not a number, then assume it is a unit
 		double conversionFactor = 1.0;
-		String unitString = data.get( data.size()-1 );
-		if( data.size() > 1 && !Tester.isDouble(unitString) ) {
+		String unitString = data.get( end-1 );
+		if( end - start > 1 && !Tester.isDouble(unitString) ) {
 
 			// Determine the units
 			Unit unit = Input.parseUnits(unitString);
@@ -809,7 +898,7 @@ public abstract class Input<T> {
 			conversionFactor = unit.getConversionFactorToUnit( defaultUnit );
 
 			// Remove the unit string from the inputs
-			numericData.remove( numericData.size()-1 );
+			numericEnd--;
 		}
 		else {
 			if( defaultUnitString.length() > 0 )
@@ -817,7 +906,7 @@ public abstract class Input<T> {
 		}
 
 		// Parse and convert the values
-		return Input.parseDoubleVector( numericData, minValue, maxValue, conversionFactor);
+		return new DoubleVector(Input.parseDoubleArray(data, start, numericEnd, minValue, maxValue, conversionFactor));
 	}
 
 	public static Vec3d parseVec3d(StringVector input)
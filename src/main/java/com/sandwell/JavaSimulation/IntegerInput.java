@@ -29,6 +29,19 @@ public class IntegerInput extends Input<Integer> {
 		value = Input.parseInteger(input.get(0), minValue, maxValue);
 	}
 
+	@Override
+	public boolean copyValue(Input<?> in) {
+		if (!isSameClass(in))
+			return false;
+
+		IntegerInput other = (IntegerInput)in;
+		if (other.minValue != minValue || other.maxValue != maxValue)
+			return false;
+
+		value = other.value;
+		return true;
+	}
+
 	public void setValidRange(int min, int max) {
 		minValue = min;
 		maxValue = max;
@@ -14,6 +14,8 @@
  */
 package com.sandwell.JavaSimulation;
 
+import java.util.ArrayList;
+
 import javax.swing.JFrame;
 
 import com.jaamsim.events.ProcessTarget;
@@ -28,6 +30,7 @@ import com.jaamsim.ui.FrameBox;
 import com.jaamsim.ui.LogBox;
 import com.jaamsim.ui.OutputBox;
 import com.jaamsim.ui.PropertyBox;
+import com.jaamsim.ui.VideoRecorderEntity;
 import com.jaamsim.units.TimeUnit;
 import com.sandwell.JavaSimulation3D.Clock;
 import com.sandwell.JavaSimulation3D.GUIFrame;
@@ -80,6 +83,15 @@ public class Simulation extends Entity {
 	         example = "This is placeholder example text")
 	private static final BooleanInput verifyEventsInput;
 
+	@Keyword(description = "If TRUE, DiscreteDistribution and RandomSelector objects select their " +
+	                "values by searching the cumulative probabilities, and distributions resample values " +
+	                "outside MinValue and MaxValue, which reproduces the samples of models built with " +
+	                "earlier releases.  If FALSE, a faster alias table is used and distributions that can " +
+	                "be inverted sample between MinValue and MaxValue directly, which returns different " +
+	                "samples for the same random seed.",
+	         example = "Simulation LegacySampling { TRUE }")
+	private static final BooleanInput legacySampling;
+
 	@Keyword(description = "The real time speed up factor",
 	         example = "RunControl RealTimeFactor { 1200 }")
 	private static final IntegerInput realTimeFactor;
@@ -118,9 +130,15 @@ public class Simulation extends Entity {
 	         example = "Simulation ShowLogViewer { TRUE }")
 	private static final BooleanInput showLogViewer;
 
+	@Keyword(description = "The wall clock time between updates of the values shown by the Output " +
+	                "and Property Viewers while the model is running.",
+	         example = "Simulation ViewerUpdateInterval { 0.5 s }")
+	private static final ValueInput viewerUpdateInterval;
+
 
 	private static double startTime;
 	private static double endTime;
+	private static long skippedDisplayEvents;  // Number of display events not scheduled in a batch run
 
 	private static Simulation myInstance;
 
@@ -147,6 +165,8 @@ public class Simulation extends Entity {
 		traceEventsInput = new BooleanInput("TraceEvents", "Key Inputs", false);
 		verifyEventsInput = new BooleanInput("VerifyEvents", "Key Inputs", false);
 
+		legacySampling = new BooleanInput("LegacySampling", "Key Inputs", false);
+
 		printInputReport = new BooleanInput("PrintInputReport", "Key Inputs", false);
 
 		realTimeFactor = new IntegerInput("RealTimeFactor", "Key Inputs", DEFAULT_REAL_TIME_FACTOR);
@@ -163,6 +183,10 @@ public class Simulation extends Entity {
 		showPropertyViewer = new BooleanInput("ShowPropertyViewer", "Key Inputs", false);
 		showLogViewer = new BooleanInput("ShowLogViewer", "Key Inputs", false);
 
+		viewerUpdateInterval = new ValueInput("ViewerUpdateInterval", "Key Inputs", 0.2d);
+		viewerUpdateInterval.setUnitType(TimeUnit.class);
+		viewerUpdateInterval.setValidRange(0.0d, Double.POSITIVE_INFINITY);
+
 		// Create clock
 		Clock.setStartDate(2000, 1, 1);
 
@@ -184,6 +208,8 @@ public class Simulation extends Entity {
 		this.addInput(traceEventsInput);
 		this.addInput(verifyEventsInput);
 
+		this.addInput(legacySampling);
+
 		this.addInput(printInputReport);
 
 		this.addInput(realTimeFactor);
@@ -197,6 +223,8 @@ public class Simulation extends Entity {
 		this.addInput(showOutputViewer);
 		this.addInput(showPropertyViewer);
 		this.addInput(showLogViewer);
+
+		this.addInput(viewerUpdateInterval);
 	}
 
 	public Simulation() {}
@@ -276,6 +304,7 @@ public class Simulation extends Entity {
 		simTimeScaleInput.reset();
 		traceEventsInput.reset();
 		verifyEventsInput.reset();
+		legacySampling.reset();
 		printInputReport.reset();
 		realTimeFactor.reset();
 		realTime.reset();
@@ -292,6 +321,8 @@ public class Simulation extends Entity {
 		showPropertyViewer.reset();
 		showLogViewer.reset();
 
+		viewerUpdateInterval.reset();
+
 		// Create clock
 		Clock.setStartDate(2000, 1, 1);
 
@@ -317,6 +348,7 @@ public class Simulation extends Entity {
 	 */
 	public static void start() {
 		// Validate each entity based on inputs only
+		long validateStart = System.nanoTime();
 		for (int i = 0; i < Entity.getAll().size(); i++) {
 			try {
 				Entity.getAll().get(i).validate();
@@ -327,9 +359,11 @@ public class Simulation extends Entity {
 				return;
 			}
 		}
+		LogBox.format("Validate time %.1f ms", (System.nanoTime() - validateStart) / 1.0e6d);
 
 		InputAgent.prepareReportDirectory();
 		EventTracer.init();
+		skippedDisplayEvents = 0;
 		root.clear();
 		root.setTraceListener(null);
 
@@ -434,12 +468,26 @@ public class Simulation extends Entity {
 		@Override
 		public void process() {
 			Simulation.pause();
-			for (int i = 0; i < Entity.getAll().size(); i++) {
-				Entity.getAll().get(i).doEnd();
+
+			// Let the output files written by each entity complete in parallel
+			FileEntity.beginDeferredClose();
+			try {
+				ArrayList<? extends Entity> ents = Entity.getAll();
+				for (int i = 0; i < ents.size(); i++) {
+					ents.get(i).doEnd();
+				}
+			}
+			finally {
+				FileEntity.endDeferredClose();
 			}
 
 			System.out.println( "Made it to do end at" );
-			// close warning/error trace file
+			if (InputAgent.getBatch())
+				System.out.format("Events executed: %d, display events skipped: %d%n",
+				                  root.getNumEventsExecuted(), skippedDisplayEvents);
+
+			// close the event trace and warning/error trace files
+			EventTracer.traceAllEvents(root, false);
 			InputAgent.closeLogFile();
 
 			if (Simulation.getExitAtStop() || InputAgent.getBatch())
@@ -450,6 +498,30 @@ public class Simulation extends Entity {
 		}
 	}
 
+	/**
+	 * Returns TRUE if events that only update the display need to be executed.
+	 * A batch run has no renderer attached, so these events are only needed
+	 * when a video is being recorded.
+	 */
+	public static boolean isDisplayRequired() {
+		if (!InputAgent.getBatch())
+			return true;
+
+		for (VideoRecorderEntity rec : Entity.getClonesOfIterator(VideoRecorderEntity.class)) {
+			if (rec.isCaptureEnabled())
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Records the number of display events that were not scheduled because
+	 * the display is not required.
+	 */
+	public static void addSkippedDisplayEvents(long num) {
+		skippedDisplayEvents += num;
+	}
+
 	/**
 	 * Returns the end time of the run.
 	 * @return double - the time the current run will stop
@@ -514,10 +586,26 @@ public class Simulation extends Entity {
 		return exitAtStop.getValue();
 	}
 
+	/**
+	 * Returns true if discrete samples are to be selected the same way as
+	 * earlier releases, rather than from an alias table.
+	 */
+	public static boolean getLegacySampling() {
+		return legacySampling.getValue();
+	}
+
 	public static boolean getPrintInputReport() {
 		return printInputReport.getValue();
 	}
 
+	/**
+	 * Returns the wall clock time in seconds between updates of the values
+	 * shown by the Output and Property Viewers.
+	 */
+	public static double getViewerUpdateInterval() {
+		return viewerUpdateInterval.getValue();
+	}
+
 	private static void setWindowVisible(JFrame f, boolean visible) {
 		f.setVisible(visible);
 		if (visible)
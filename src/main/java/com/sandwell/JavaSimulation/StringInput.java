@@ -25,4 +25,13 @@ public class StringInput extends Input<String> {
 		Input.assertCount(input, 1);
 		value = input.firstElement();
 	}
+
+	@Override
+	public boolean copyValue(Input<?> in) {
+		if (!isSameClass(in))
+			return false;
+
+		value = ((StringInput)in).value;
+		return true;
+	}
 }
@@ -41,6 +41,13 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 	         example = "TimeSeries1  Value { { '2010-01-01 00:00:00' 0.5 m } { '2010-01-01 03:00:00' 1.5 m } { '2010-01-01 06:00:00' 1.2 m } }")
 	private final TimeSeriesDataInput value;
 
+	@Keyword(description = "A file containing the time series records, used instead of the Value keyword for long series.\n" +
+					"A CSV file (.csv) has one record per line with format YYYY-MM-DD hh:mm:ss, value, units\n" +
+					"A binary file (.tsb) is created from a CSV file by TimeSeriesExporter and is read much faster.\n" +
+					"The file is not read until the time series is first used.",
+	         example = "TimeSeries1  DataFile { 'tide.csv' }")
+	private final FileInput dataFile;
+
 	@Keyword(description = "The unit type for the time series (e.g. DistanceUnit, TimeUnit, MassUnit).  " +
 			"If the UnitType keyword is specified, it must be specified before the Value keyword.",
      example = "TimeSeries1  UnitType { DistanceUnit }")
@@ -50,6 +57,9 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
             example = "TimeSeries1  CycleTime { 8760.0 h }")
 	private final ValueInput cycleTime;
 
+	private final TimeSeriesCursor cursor;  // Lookup position for users that do not supply their own cursor
+	private volatile TimeSeriesData fileData;  // Records read from DataFile, loaded on first use
+
 	{
 		unitType = new UnitTypeInput( "UnitType", "Key Inputs", UserSpecifiedUnit.class );
 		this.addInput( unitType );
@@ -58,12 +68,19 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 		value.setUnitType(UserSpecifiedUnit.class);
 		this.addInput(value);
 
+		dataFile = new FileInput("DataFile", "Key Inputs", null);
+		dataFile.setFileType("Time Series");
+		dataFile.setValidFileExtensions(TimeSeriesDataFile.VALID_EXTENSIONS);
+		this.addInput(dataFile);
+
 		cycleTime = new ValueInput( "CycleTime", "Key Inputs", Double.POSITIVE_INFINITY );
 		cycleTime.setUnitType(TimeUnit.class);
 		this.addInput( cycleTime );
 	}
 
-	public TimeSeries() { }
+	public TimeSeries() {
+		cursor = new TimeSeriesCursor();
+	}
 
 	@Override
 	public void validate() {
@@ -72,10 +89,13 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 		if( unitType.getValue() == null )
 			throw new InputErrorException( "UnitType must be specified first" );
 
-		if( value.getValue() == null || value.getValue().timeList.length == 0 )
-			throw new InputErrorException( "Time series Value must be specified" );
+		if( value.getValue() != null && dataFile.getValue() != null )
+			throw new InputErrorException( "Only one of Value and DataFile may be specified" );
+
+		if( this.getData() == null || this.getData().timeList.length == 0 )
+			throw new InputErrorException( "Time series Value or DataFile must be specified" );
 
-		double[] tList = value.getValue().timeList;
+		double[] tList = this.getData().timeList;
 		if (this.getCycleTimeInHours() < tList[tList.length - 1])
 			throw new InputErrorException( "CycleTime must be larger than the last time in the series" );
 	}
@@ -87,10 +107,32 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 		if (in == unitType) {
 			value.setUnitType( unitType.getUnitType() );
 			this.getOutputHandle("PresentValue").setUnitType( unitType.getUnitType() );
+			fileData = null;
+			return;
+		}
+
+		if (in == dataFile) {
+			fileData = null;
 			return;
 		}
 	}
 
+	/**
+	 * Return the time series records, reading them from DataFile if they have not been loaded yet
+	 */
+	private TimeSeriesData getData() {
+		if (dataFile.getValue() == null)
+			return value.getValue();
+
+		TimeSeriesData data = fileData;
+		if (data == null) {
+			data = TimeSeriesDataFile.read(dataFile.getValue(), unitType.getUnitType(),
+			                               value.getMinValue(), value.getMaxValue());
+			fileData = data;
+		}
+		return data;
+	}
+
 	@Override
 	public OutputHandle getOutputHandle(String outputName) {
 		OutputHandle out = super.getOutputHandle(outputName);
@@ -112,15 +154,32 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 	 */
 	@Override
 	public double getValueForTimeHours( double time ) {
-		double[] valueList = value.getValue().valueList;
-		return valueList[ getIndexForTimeHours( time ) ];
+		return this.getValueForTimeHours(time, cursor);
+	}
+
+	/**
+	 * Return the value for the given simulation time in hours, starting the search from the
+	 * position held by the given cursor
+	 */
+	@Override
+	public double getValueForTimeHours( double time, TimeSeriesCursor c ) {
+		double[] valueList = this.getData().valueList;
+		return valueList[ getIndexForTimeHours( time, c ) ];
 	}
 
 	/**
 	 * Return the index for the given simulation time in hours
 	 */
 	public int getIndexForTimeHours( double time ) {
-		double[] timeList = value.getValue().timeList;
+		return this.getIndexForTimeHours(time, cursor);
+	}
+
+	/**
+	 * Return the index for the given simulation time in hours, starting the search from the
+	 * position held by the given cursor
+	 */
+	public int getIndexForTimeHours( double time, TimeSeriesCursor c ) {
+		double[] timeList = this.getData().timeList;
 
 		// Determine the time in the cycle for the given time
 		double timeInCycle = time;
@@ -132,6 +191,42 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 			}
 		}
 
+		// Try the index from the last lookup and the one following it
+		int last = c.index;
+		if( isIndexForTimeInCycle( timeList, last, timeInCycle ) )
+			return last;
+
+		if( isIndexForTimeInCycle( timeList, last + 1, timeInCycle ) ) {
+			c.index = last + 1;
+			return last + 1;
+		}
+
+		// The time has jumped, search the whole series
+		int index = this.findIndexForTimeInCycle( timeList, timeInCycle, time );
+		c.index = index;
+		return index;
+	}
+
+	/**
+	 * Return TRUE if the given index is the one that findIndexForTimeInCycle would return for
+	 * the given time in the cycle. Only the common case of a time lying strictly between two
+	 * entries (or after the last one) is recognized, anything else returns FALSE.
+	 */
+	private static boolean isIndexForTimeInCycle( double[] timeList, int index, double timeInCycle ) {
+		if( index < 0 || index >= timeList.length )
+			return false;
+
+		if( index == timeList.length - 1 )
+			return Tester.greaterOrEqualCheckTimeStep( timeInCycle, timeList[ index ] );
+
+		return timeList[ index ] <= timeInCycle && Tester.lessCheckTimeStep( timeInCycle, timeList[ index + 1 ] );
+	}
+
+	/**
+	 * Return the index for the given time in the cycle using a binary search
+	 */
+	private int findIndexForTimeInCycle( double[] timeList, double timeInCycle, double time ) {
+
 		// If the time in the cycle is greater than the last time, return the last value
 		if( Tester.greaterOrEqualCheckTimeStep( timeInCycle, timeList[ timeList.length - 1 ] ) ) {
 			return timeList.length - 1;
@@ -168,9 +263,18 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 	 */
 	@Override
 	public double getNextChangeTimeAfterHours( double time ) {
+		return this.getNextChangeTimeAfterHours(time, cursor);
+	}
+
+	/**
+	 * Return the first time that the value will be updated, after the given time, starting the
+	 * search from the position held by the given cursor.
+	 */
+	@Override
+	public double getNextChangeTimeAfterHours( double time, TimeSeriesCursor c ) {
 
 		// Collect parameters for the current time
-		int startIndex = this.getIndexForTimeHours(time)+1;
+		int startIndex = this.getIndexForTimeHours(time, c)+1;
 		double cycleTime = this.getCycleTimeInHours();
 
 		// Determine how many cycles through the time series have been completed
@@ -182,7 +286,7 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 			completedCycles++;
 		}
 
-		double[] timeList = value.getValue().timeList;
+		double[] timeList = this.getData().timeList;
 		// If this is the last point in the cycle, need to cycle around to get the next point
 		if( startIndex > timeList.length - 1 ) {
 
@@ -221,7 +325,7 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 		if (this.getCycleLength() < Double.POSITIVE_INFINITY)
 			return this.getCycleLength();
 
-		double[] tList = value.getValue().timeList;
+		double[] tList = this.getData().timeList;
 		return tList[ tList.length-1 ] * 3600.0d;
 	}
 
@@ -232,12 +336,12 @@ public class TimeSeries extends DisplayEntity implements TimeSeriesProvider {
 
 	@Override
 	public double getMaxValue() {
-		return value.getValue().getMaxValue();
+		return this.getData().getMaxValue();
 	}
 
 	@Override
 	public double getMinValue() {
-		return value.getValue().getMinValue();
+		return this.getData().getMinValue();
 	}
 
 	@Override
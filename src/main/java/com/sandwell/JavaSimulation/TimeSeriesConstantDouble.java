@@ -45,11 +45,21 @@ public class TimeSeriesConstantDouble implements TimeSeriesProvider {
 		return val;
 	}
 
+	@Override
+	public double getValueForTimeHours(double simTime, TimeSeriesCursor cursor) {
+		return val;
+	}
+
 	@Override
 	public double getNextChangeTimeAfterHours( double simTime ) {
 		return Double.POSITIVE_INFINITY;
 	}
 
+	@Override
+	public double getNextChangeTimeAfterHours( double simTime, TimeSeriesCursor cursor ) {
+		return Double.POSITIVE_INFINITY;
+	}
+
 	@Override
 	public double getMaxValue() {
 		return val;
@@ -0,0 +1,28 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.sandwell.JavaSimulation;
+
+/**
+ * Remembers the entry of a TimeSeries that was found by the last lookup made by one of its users.
+ * As simulation time moves forward, the next lookup almost always returns the same entry or the
+ * one following it, so it can be found without searching the series.
+ */
+public class TimeSeriesCursor {
+	int index;
+
+	public TimeSeriesCursor() {
+		index = 0;
+	}
+}
@@ -26,10 +26,25 @@ public class TimeSeriesData {
 			timeList[i] = times.get(i);
 
 		valueList = new double[values.size()];
+		for (int i = 0; i < values.size(); i++)
+			valueList[i] = values.get(i);
+
+		this.calcMinMax();
+	}
+
+	/**
+	 * Creates the time series data from the given arrays, which are used without being copied.
+	 */
+	public TimeSeriesData( double[] times, double[] values ) {
+		timeList = times;
+		valueList = values;
+		this.calcMinMax();
+	}
+
+	private void calcMinMax() {
 		maxValue = Double.NEGATIVE_INFINITY;
 		minValue = Double.POSITIVE_INFINITY;
-		for (int i = 0; i < values.size(); i++) {
-			valueList[i] = values.get(i);
+		for (int i = 0; i < valueList.length; i++) {
 			maxValue = Math.max(maxValue, valueList[i]);
 			minValue = Math.min(minValue, valueList[i]);
 		}
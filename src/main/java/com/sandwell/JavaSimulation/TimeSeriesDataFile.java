@@ -0,0 +1,283 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.sandwell.JavaSimulation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+import com.jaamsim.units.DimensionlessUnit;
+import com.jaamsim.units.Unit;
+import com.jaamsim.units.UserSpecifiedUnit;
+
+/**
+ * Reads TimeSeriesData from an external file instead of from the configuration file.
+ * <p>
+ * Two formats are supported:
+ * <ul>
+ * <li>CSV (.csv) - one record per line in the form YYYY-MM-DD hh:mm:ss, value, units, where the
+ * units are optional for dimensionless series. Blank lines and lines starting with # are ignored.
+ * The records are streamed straight into primitive arrays without tokenizing the whole file.</li>
+ * <li>Binary (.tsb) - a 16 byte header holding the magic number, the format version and the number
+ * of records, followed by the record times in hours and then the values in SI units, all as
+ * big-endian doubles. Local files are memory-mapped.</li>
+ * </ul>
+ * TimeSeriesExporter converts a CSV file to the binary format.
+ */
+public class TimeSeriesDataFile {
+	private static final int MAGIC = 0x4A535453; // "JSTS"
+	private static final int VERSION = 1;
+	private static final int HEADER_BYTES = 16;
+
+	public static final String[] VALID_EXTENSIONS = { "CSV", "TSB" };
+
+	/**
+	 * Reads the time series at the given location, choosing the format from the file extension.
+	 * @param uri - location of the file
+	 * @param unitType - unit type of the values in a CSV file
+	 * @param minValue - smallest valid value in SI units
+	 * @param maxValue - largest valid value in SI units
+	 */
+	public static TimeSeriesData read(URI uri, Class<? extends Unit> unitType, double minValue, double maxValue)
+	throws InputErrorException {
+		if (uri.toString().toLowerCase().endsWith(".tsb"))
+			return readBinary(uri, minValue, maxValue);
+
+		return readCSV(uri, unitType, minValue, maxValue);
+	}
+
+	public static TimeSeriesData readCSV(URI uri, Class<? extends Unit> unitType, double minValue, double maxValue)
+	throws InputErrorException {
+		if (unitType == UserSpecifiedUnit.class)
+			throw new InputErrorException(Input.INP_ERR_UNITUNSPECIFIED);
+
+		try {
+			InputStream r = uri.toURL().openStream();
+			BufferedReader b = new BufferedReader(new InputStreamReader(r), 1 << 16);
+			try {
+				return readCSV(b, unitType, minValue, maxValue, uri.toString());
+			}
+			finally {
+				b.close();
+			}
+		}
+		catch (IOException e) {
+			throw new InputErrorException("Unable to read the time series file %s\n%s", uri, e.getMessage());
+		}
+	}
+
+	static TimeSeriesData readCSV(BufferedReader b, Class<? extends Unit> unitType,
+	                              double minValue, double maxValue, String fileName)
+	throws IOException, InputErrorException {
+		double[] times = new double[1024];
+		double[] values = new double[1024];
+		int count = 0;
+
+		long startingYearOffset = -1;
+		long lastTime = -1;
+
+		// The last unit seen, so that its conversion factor is only looked up once
+		String lastUnitName = null;
+		double factor = 1.0d;
+
+		int lineNum = 0;
+		while (true) {
+			String line = b.readLine();
+			if (line == null)
+				break;
+			lineNum++;
+
+			line = line.trim();
+			if (line.length() == 0 || line.charAt(0) == '#')
+				continue;
+
+			try {
+				// Split the record into its date, value and optional units
+				int c1 = line.indexOf(',');
+				if (c1 < 0)
+					throw new InputErrorException("Expected a record of the form: date, value, units");
+				int c2 = line.indexOf(',', c1 + 1);
+
+				long recordus = Input.parseRFC8601DateTime(stripQuotes(line.substring(0, c1).trim()));
+				// Make sure the times are in increasing order
+				if (recordus <= lastTime)
+					throw new InputErrorException("The times must be given in increasing order");
+				lastTime = recordus;
+
+				// set the offset to the number of whole years from the first record
+				if (startingYearOffset == -1) {
+					startingYearOffset = recordus / Input.usPerYr;
+					startingYearOffset *= Input.usPerYr;
+				}
+
+				String valString;
+				String unitName = null;
+				if (c2 < 0) {
+					valString = line.substring(c1 + 1).trim();
+				}
+				else {
+					valString = line.substring(c1 + 1, c2).trim();
+					unitName = line.substring(c2 + 1).trim();
+					if (unitName.length() == 0)
+						unitName = null;
+				}
+
+				// If not a Dimensionless value, a unit is mandatory
+				if (unitType == DimensionlessUnit.class) {
+					if (unitName != null)
+						throw new InputErrorException("Units are not expected for a dimensionless series: %s", unitName);
+				}
+				else {
+					if (unitName == null)
+						throw new InputErrorException(Input.INP_ERR_NOUNITFOUND, "", unitType.getSimpleName());
+
+					if (!unitName.equals(lastUnitName)) {
+						Unit unit = Input.tryParseEntity(unitName, unitType);
+						if (unit == null)
+							throw new InputErrorException(Input.INP_ERR_NOUNITFOUND, unitName, unitType.getSimpleName());
+						factor = unit.getConversionFactorToSI();
+						lastUnitName = unitName;
+					}
+				}
+
+				double val = Input.parseDouble(valString, minValue, maxValue, factor);
+
+				if (count == times.length) {
+					times = Arrays.copyOf(times, count * 2);
+					values = Arrays.copyOf(values, count * 2);
+				}
+				times[count] = (recordus - startingYearOffset) / 3.6e9d; // convert to hours 3600 secs * 1e6 us
+				values[count] = val;
+				count++;
+			}
+			catch (InputErrorException e) {
+				throw new InputErrorException("%s line %d: %s", fileName, lineNum, e.getMessage());
+			}
+		}
+
+		return new TimeSeriesData(Arrays.copyOf(times, count), Arrays.copyOf(values, count));
+	}
+
+	private static String stripQuotes(String str) {
+		if (str.length() >= 2 && str.charAt(0) == '\'' && str.charAt(str.length() - 1) == '\'')
+			return str.substring(1, str.length() - 1);
+
+		return str;
+	}
+
+	public static TimeSeriesData readBinary(URI uri, double minValue, double maxValue) throws InputErrorException {
+		try {
+			if ("file".equals(uri.getScheme()))
+				return readBinary(new File(uri), minValue, maxValue);
+
+			// Resources inside a jar cannot be mapped, so stream them instead
+			DataInputStream in = new DataInputStream(new BufferedInputStream(uri.toURL().openStream(), 1 << 16));
+			try {
+				int count = readHeader(in.readInt(), in.readInt(), in.readLong(), uri);
+				double[] times = new double[count];
+				double[] values = new double[count];
+				for (int i = 0; i < count; i++)
+					times[i] = in.readDouble();
+				for (int i = 0; i < count; i++)
+					values[i] = in.readDouble();
+				checkRecords(times, values, minValue, maxValue, uri);
+				return new TimeSeriesData(times, values);
+			}
+			finally {
+				in.close();
+			}
+		}
+		catch (IOException e) {
+			throw new InputErrorException("Unable to read the time series file %s\n%s", uri, e.getMessage());
+		}
+	}
+
+	private static TimeSeriesData readBinary(File file, double minValue, double maxValue)
+	throws IOException, InputErrorException {
+		FileInputStream in = new FileInputStream(file);
+		try {
+			FileChannel channel = in.getChannel();
+			ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+			int count = readHeader(buf.getInt(), buf.getInt(), buf.getLong(), file);
+			if (buf.remaining() < count * 16L)
+				throw new InputErrorException("The time series file %s is truncated", file);
+
+			double[] times = new double[count];
+			double[] values = new double[count];
+			DoubleBuffer dbuf = buf.asDoubleBuffer();
+			dbuf.get(times);
+			dbuf.get(values);
+			checkRecords(times, values, minValue, maxValue, file);
+			return new TimeSeriesData(times, values);
+		}
+		finally {
+			in.close();
+		}
+	}
+
+	private static int readHeader(int magic, int version, long count, Object file) throws InputErrorException {
+		if (magic != MAGIC)
+			throw new InputErrorException("%s is not a binary time series file", file);
+		if (version != VERSION)
+			throw new InputErrorException("%s has unsupported binary time series version %d", file, version);
+		if (count <= 0 || count > Integer.MAX_VALUE)
+			throw new InputErrorException("%s has an invalid number of records: %d", file, count);
+
+		return (int)count;
+	}
+
+	private static void checkRecords(double[] times, double[] values, double minValue, double maxValue, Object file)
+	throws InputErrorException {
+		for (int i = 0; i < times.length; i++) {
+			if (i > 0 && times[i] <= times[i-1])
+				throw new InputErrorException("%s record %d: The times must be given in increasing order", file, i);
+			if (values[i] < minValue || values[i] > maxValue)
+				throw new InputErrorException("%s record %d: " + Input.INP_ERR_DOUBLERANGE, file, i, minValue, maxValue, values[i]);
+		}
+	}
+
+	/**
+	 * Writes the given time series to a file in the binary format.
+	 */
+	public static void writeBinary(TimeSeriesData data, File file) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(data.timeList.length);
+			for (double t : data.timeList)
+				out.writeDouble(t);
+			for (double v : data.valueList)
+				out.writeDouble(v);
+		}
+		finally {
+			out.close();
+		}
+	}
+}
@@ -44,30 +44,26 @@ public class TimeSeriesDataInput extends Input<TimeSeriesData> {
 		// Determine records in the time series
 		// Records have form: (e.g.) yyyy-MM-dd HH:mm value units
 		// where units are optional
-		StringVector each = new StringVector();
 		for (int i=0; i < input.size(); i++) {
 
 			//skip over opening brace if present
 			if (input.get(i).equals("{") )
 				continue;
 
-			each.clear();
-
-			// Load one record into 'each' containing an individual timeseries record
-			for (int j = i; j < input.size(); j++, i++){
-				if (input.get(j).equals("}"))
-					break;
-
-				each.add(input.get(j));
-			}
+			// Find the end of the individual timeseries record
+			int end = i;
+			while (end < input.size() && !input.get(end).equals("}"))
+				end++;
 
 			// Check the number of entries in the record
-			Input.assertCountRange(each, 2, 3);
+			int count = end - i;
+			if (count < 2 || count > 3)
+				throw new InputErrorException(INP_ERR_RANGECOUNT, 2, 3, input.subList(i, end).toString());
 
-			long recordus = Input.parseRFC8601DateTime(each.get(0));
+			long recordus = Input.parseRFC8601DateTime(input.get(i));
 			// Make sure the times are in increasing order
 			if (recordus <= lastTime)
-				throw new InputErrorException( "The times must be given in increasing order on " + each.get(0));
+				throw new InputErrorException( "The times must be given in increasing order on " + input.get(i));
 
 			lastTime = recordus;
 
@@ -79,11 +75,12 @@ public class TimeSeriesDataInput extends Input<TimeSeriesData> {
 
 			long usOffset = recordus - startingYearOffset;
 
-			each.remove(0);  // We've finished parsing the date at this point
-			DoubleVector v = Input.parseDoubles(each, minValue, maxValue, unitType);
+			// The date has been parsed, the remainder is the value
+			double[] v = Input.parseDoubleArray(input, i + 1, end, minValue, maxValue, unitType);
 
 			times.add(usOffset / 3.6e9d); // convert to hours 3600 secs * 1e6 us
-			values.add(v.get(0));
+			values.add(v[0]);
+			i = end;
 		}
 
 		// Set the value to a new time series data object
@@ -93,4 +90,17 @@ public class TimeSeriesDataInput extends Input<TimeSeriesData> {
 	public void setUnitType(Class<? extends Unit> u) {
 		unitType = u;
 	}
+
+	public void setValidRange(double min, double max) {
+		minValue = min;
+		maxValue = max;
+	}
+
+	public double getMinValue() {
+		return minValue;
+	}
+
+	public double getMaxValue() {
+		return maxValue;
+	}
 }
@@ -0,0 +1,53 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.sandwell.JavaSimulation;
+
+import java.io.File;
+
+import com.jaamsim.units.DimensionlessUnit;
+
+/**
+ * Converts a CSV time series file to the binary format read by TimeSeriesDataFile.
+ * The CSV records must not have units. The values are multiplied by the optional
+ * conversion factor to give SI units, e.g. 0.01 for a file holding centimetres.
+ */
+public class TimeSeriesExporter {
+
+	public static void main(String[] args) {
+		if (args.length < 2 || args.length > 3) {
+			System.out.println("Usage: TimeSeriesExporter [csv-input-filename] [tsb-binary-output-filename] [factor-to-SI]");
+			return;
+		}
+
+		try {
+			double factor = 1.0d;
+			if (args.length == 3)
+				factor = Double.parseDouble(args[2]);
+
+			TimeSeriesData csv = TimeSeriesDataFile.readCSV(new File(args[0]).toURI(),
+					DimensionlessUnit.class, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+			double[] values = new double[csv.valueList.length];
+			for (int i = 0; i < values.length; i++)
+				values[i] = csv.valueList[i] * factor;
+
+			TimeSeriesData data = new TimeSeriesData(csv.timeList, values);
+			TimeSeriesDataFile.writeBinary(data, new File(args[1]));
+			System.out.format("Wrote %d records to %s%n", data.timeList.length, args[1]);
+		}
+		catch (Exception ex) {
+			System.out.println(ex.getMessage());
+		}
+	}
+}
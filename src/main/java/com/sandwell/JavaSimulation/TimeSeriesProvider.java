@@ -18,6 +18,8 @@ import com.jaamsim.Samples.SampleProvider;
 
 public interface TimeSeriesProvider extends SampleProvider {
 	public double getValueForTimeHours(double simTime);
+	public double getValueForTimeHours(double simTime, TimeSeriesCursor cursor);
 	public double getNextChangeTimeAfterHours( double simTime );
+	public double getNextChangeTimeAfterHours( double simTime, TimeSeriesCursor cursor );
 	public double getMaxTimeValue();
 }
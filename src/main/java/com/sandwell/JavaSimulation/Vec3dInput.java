@@ -31,6 +31,20 @@ public class Vec3dInput extends Input<Vec3d> {
 		value = new Vec3d(temp.get(0), temp.get(1), temp.get(2));
 	}
 
+	@Override
+	public boolean copyValue(Input<?> in) {
+		if (!isSameClass(in))
+			return false;
+
+		Vec3dInput other = (Vec3dInput)in;
+		if (other.unitType != unitType || other.minValue != minValue || other.maxValue != maxValue)
+			return false;
+
+		// Vec3d is mutable, each input gets its own copy
+		value = new Vec3d(other.value);
+		return true;
+	}
+
 	public void setValidRange(double min, double max) {
 		minValue = min;
 		maxValue = max;
@@ -83,6 +83,7 @@ import com.jaamsim.ui.PropertyBox;
 import com.jaamsim.ui.View;
 import com.sandwell.JavaSimulation.Entity;
 import com.sandwell.JavaSimulation.ErrorException;
+import com.sandwell.JavaSimulation.FileEntity;
 import com.sandwell.JavaSimulation.Simulation;
 import com.sandwell.JavaSimulation.Tester;
 
@@ -1668,16 +1669,22 @@ public class GUIFrame extends JFrame implements EventTimeListener, EventErrorLis
 
 	@Override
 	public void timeRunning(boolean running) {
+		FrameBox.timeRunning(running);
 		if (running) {
 
 		}
 		else {
+			// Output files are complete up to the present time while paused
+			FileEntity.syncAll();
 			updateForSimulationState(SIM_STATE_PAUSED);
 		}
 	}
 
 	@Override
 	public void handleError(EventManager evt, Throwable t, long currentTick) {
+		// Keep the output files, such as the event trace, that lead up to the error
+		FileEntity.syncAll();
+
 		if (t instanceof OutOfMemoryError) {
 			OutOfMemoryError e = (OutOfMemoryError)t;
 			LogBox.logLine("Out of Memory use the -Xmx flag during execution for more memory");
@@ -31,6 +31,7 @@ import com.sandwell.JavaSimulation.DoubleVector;
 import com.sandwell.JavaSimulation.Input;
 import com.sandwell.JavaSimulation.InputErrorException;
 import com.sandwell.JavaSimulation.IntegerInput;
+import com.sandwell.JavaSimulation.Simulation;
 
 public class Graph extends GraphBasics  {
 
@@ -260,6 +261,15 @@ public class Graph extends GraphBasics  {
 			setupSeriesData(info, xLength, xInterval);
 		}
 
+		// The graph is never seen when there is no renderer, so do not sample its data
+		if (!Simulation.isDisplayRequired()) {
+			if (!primarySeries.isEmpty() || !secondarySeries.isEmpty()) {
+				double remaining = Simulation.getEndHours() * 3600.0d - getSimTime();
+				Simulation.addSkippedDisplayEvents((long)Math.max(0.0d, remaining / xInterval));
+			}
+			return;
+		}
+
 		processGraph();
 	}
 
@@ -285,13 +295,11 @@ public class Graph extends GraphBasics  {
 	 */
 	private void setupSeriesData(SeriesInfo info, double xLength, double xInterval) {
 
-		info.numPoints = 0;
+		info.clearPoints();
 
 		for( int i = 0; i * xInterval < xAxisEnd.getValue(); i++ ) {
 			double t = i * xInterval;
-			info.numPoints++;
-			info.xValues[info.numPoints] = t;
-			info.yValues[info.numPoints] = this.getCurrentValue(t, info);
+			info.addPoint(t, this.getCurrentValue(t, info));
 		}
 	}
 
@@ -359,17 +367,7 @@ public class Graph extends GraphBasics  {
 
 		double t = getSimTime() + xAxisEnd.getValue();
 		double presentValue = this.getCurrentValue(t, info);
-		if (info.numPoints < info.yValues.length) {
-			info.xValues[info.numPoints] = t;
-			info.yValues[info.numPoints] = presentValue;
-			info.numPoints++;
-		}
-		else {
-			System.arraycopy(info.xValues, 1, info.xValues, 0, info.xValues.length - 1);
-			System.arraycopy(info.yValues, 1, info.yValues, 0, info.yValues.length - 1);
-			info.xValues[info.xValues.length - 1] = t;
-			info.yValues[info.yValues.length - 1] = presentValue;
-		}
+		info.addPoint(t, presentValue);
 	}
 
 	/**
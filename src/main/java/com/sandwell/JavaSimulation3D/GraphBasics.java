@@ -41,10 +41,55 @@ public abstract class GraphBasics extends DisplayEntity {
 	public static class SeriesInfo {
 		public double[] yValues;
 		public double[] xValues;
+		public int firstIndex; // index in xValues and yValues of the oldest point
 		public int numPoints; // number of points to be graphed
 		public OutputHandle out; // The source of the data for the series
 		public double lineWidth;
 		public Color4d lineColour;
+
+		/**
+		 * Add a point to the series, overwriting the oldest point once the storage is full.
+		 */
+		public synchronized void addPoint(double x, double y) {
+			int len = xValues.length;
+			if (len == 0)
+				return;
+
+			if (numPoints < len) {
+				int ind = (firstIndex + numPoints) % len;
+				xValues[ind] = x;
+				yValues[ind] = y;
+				numPoints++;
+				return;
+			}
+
+			xValues[firstIndex] = x;
+			yValues[firstIndex] = y;
+			firstIndex = (firstIndex + 1) % len;
+		}
+
+		/**
+		 * Remove all the points from the series.
+		 */
+		public synchronized void clearPoints() {
+			firstIndex = 0;
+			numPoints = 0;
+		}
+
+		/**
+		 * Copy the points in the series, oldest first, to the given arrays, which must be at
+		 * least as long as xValues.
+		 * @return the number of points copied.
+		 */
+		public synchronized int copyPoints(double[] x, double[] y) {
+			int len = xValues.length;
+			int n = Math.min(numPoints, len - firstIndex);
+			System.arraycopy(xValues, firstIndex, x, 0, n);
+			System.arraycopy(yValues, firstIndex, y, 0, n);
+			System.arraycopy(xValues, 0, x, n, numPoints - n);
+			System.arraycopy(yValues, 0, y, n, numPoints - n);
+			return numPoints;
+		}
 	}
 
 	protected final ArrayList<SeriesInfo> primarySeries;
@@ -22,17 +22,23 @@ import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Locale;
+import java.util.Map.Entry;
 
 import javax.swing.JFrame;
 import javax.swing.JMenuItem;
 import javax.swing.JPopupMenu;
 import javax.swing.JScrollPane;
 import javax.swing.JTree;
+import javax.swing.event.TreeExpansionEvent;
 import javax.swing.event.TreeModelEvent;
 import javax.swing.event.TreeModelListener;
 import javax.swing.event.TreeSelectionEvent;
 import javax.swing.event.TreeSelectionListener;
+import javax.swing.event.TreeWillExpandListener;
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.DefaultTreeModel;
 import javax.swing.tree.TreePath;
@@ -61,30 +67,56 @@ public class ObjectSelector extends FrameBox {
 	private final JScrollPane treeView;
 	public static Entity currentEntity;
 
-	private long entSequence;
+	// Index of the nodes in the tree
+	private final HashMap<Palette, DefaultMutableTreeNode> paletteNodes;
+	private final HashMap<Class<?>, ClassEntry> classEntries;
+	private final HashMap<Entity, DefaultMutableTreeNode> entityNodes;
+
+	// Entities added during the session that are listed on their own, an
+	// entity is flagged as generated only after it has been created
+	private final LinkedHashSet<Entity> addedPlain;
+
+	// Entities created and killed since the tree was last updated
+	private static final int MAX_PENDING = 10000;
+	private final EntityTracker tracker;
+	private final Object pendingLock;
+	private final LinkedHashSet<Entity> pendingAdded;
+	private final LinkedHashSet<Entity> pendingKilled;
+	private boolean rebuildPending;
 
 	public ObjectSelector() {
 		super( "Object Selector" );
 		setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
 		addWindowListener(FrameBox.getCloseListener("ShowObjectSelector"));
 
+		paletteNodes = new HashMap<Palette, DefaultMutableTreeNode>();
+		classEntries = new HashMap<Class<?>, ClassEntry>();
+		entityNodes = new HashMap<Entity, DefaultMutableTreeNode>();
+		addedPlain = new LinkedHashSet<Entity>();
+
+		pendingLock = new Object();
+		pendingAdded = new LinkedHashSet<Entity>();
+		pendingKilled = new LinkedHashSet<Entity>();
+		tracker = new EntityTracker();
+		Entity.addListener(tracker);
+
 		top = new DefaultMutableTreeNode( "Defined Objects");
 		treeModel = new DefaultTreeModel(top);
+		treeModel.setAsksAllowsChildren(true);
 		tree = new JTree();
 		tree.setModel(treeModel);
 		tree.getSelectionModel().setSelectionMode( TreeSelectionModel.SINGLE_TREE_SELECTION );
-		updateTree();
+		rebuildTree();
 
 		treeView = new JScrollPane(tree);
 		getContentPane().add(treeView);
 
-		entSequence = 0;
-
 		setLocation(GUIFrame.COL1_START, GUIFrame.BOTTOM_START);
 		setSize(GUIFrame.COL1_WIDTH, GUIFrame.HALF_BOTTOM);
 
 		tree.addTreeSelectionListener( new MyTreeSelectionListener() );
 		treeModel.addTreeModelListener( new MyTreeModelListener(tree) );
+		tree.addTreeWillExpandListener( new GeneratedExpansionListener() );
 
 		tree.addMouseListener(new MyMouseListener());
 		tree.addKeyListener(new MyKeyListener());
@@ -96,11 +128,7 @@ public class ObjectSelector extends FrameBox {
 			return;
 
 		currentEntity = ent;
-		long curSequence = Entity.getEntitySequence();
-		if (entSequence != curSequence) {
-			entSequence = curSequence;
-			updateTree();
-		}
+		updateTree();
 
 		if (currentEntity == null) {
 			tree.setSelectionPath(null);
@@ -113,29 +141,32 @@ public class ObjectSelector extends FrameBox {
 		else
 			tree.setEditable(false);
 
-		DefaultMutableTreeNode root = (DefaultMutableTreeNode)tree.getModel().getRoot();
-		Enumeration<?> e = root.depthFirstEnumeration();
-		while (e.hasMoreElements()) {
-			DefaultMutableTreeNode aNode = (DefaultMutableTreeNode)e.nextElement();
-			if (aNode.getUserObject() == currentEntity) {
-				TreePath path = new TreePath(aNode.getPath());
-				tree.scrollPathToVisible(path);
-				tree.setSelectionPath(path);
-				return;
-			}
+		// Generated entities only have a node while their group is expanded
+		DefaultMutableTreeNode node = entityNodes.get(currentEntity);
+		if (node == null) {
+			tree.setSelectionPath(null);
+			return;
 		}
+
+		TreePath path = new TreePath(node.getPath());
+		tree.scrollPathToVisible(path);
+		tree.setSelectionPath(path);
 	}
 
 	@Override
 	public void updateValues(double simTime) {
-		if (!this.isVisible())
+		// Rebuild the tree when it is next shown rather than holding on to
+		// the entities created in the meantime
+		if (!this.isVisible()) {
+			synchronized (pendingLock) {
+				pendingAdded.clear();
+				pendingKilled.clear();
+				rebuildPending = true;
+			}
 			return;
-
-		long curSequence = Entity.getEntitySequence();
-		if (entSequence != curSequence) {
-			entSequence = curSequence;
-			updateTree();
 		}
+
+		updateTree();
 	}
 
 	/**
@@ -154,142 +185,382 @@ public class ObjectSelector extends FrameBox {
 
 	@Override
 	public void dispose() {
+		Entity.removeListener(tracker);
 		killInstance();
 		currentEntity = null;
 		super.dispose();
 	}
 
-	private void updateTree() {
+	/**
+	 * Queues the entities created and killed for the next update of the tree,
+	 * the tree itself is only modified on the event dispatch thread.
+	 */
+	private class EntityTracker implements Entity.Listener {
+		@Override
+		public void entityAdded(Entity ent) {
+			synchronized (pendingLock) {
+				if (rebuildPending)
+					return;
 
-		// Make a best-effort attempt to find all used classes...can race with
-		// object creation/deletion, but that's ok
-		ArrayList<Class<? extends Entity>> used = new ArrayList<Class<? extends Entity>>();
-		for (int i = 0; i < Entity.getAll().size(); i++) {
-			try {
-				Class<? extends Entity> klass = Entity.getAll().get(i).getClass();
-				if (!used.contains(klass))
-					used.add(klass);
+				pendingAdded.add(ent);
+				checkPending(ent);
 			}
-			catch (IndexOutOfBoundsException e) {}
 		}
 
-		for (int k = 0; k < Palette.getAll().size(); k++) {
-			Palette p = null;
-			try {
-				p = Palette.getAll().get(k);
-			}
-			catch (IndexOutOfBoundsException e) {
-				break;
+		@Override
+		public void entityRemoved(Entity ent) {
+			synchronized (pendingLock) {
+				if (rebuildPending)
+					return;
+
+				// Nothing to do if the entity never reached the tree
+				if (!pendingAdded.remove(ent))
+					pendingKilled.add(ent);
+				checkPending(ent);
 			}
+		}
 
-			DefaultMutableTreeNode palNode = getNodeFor_In(p.getName(), top);
-			for (int j = 0; j < ObjectType.getAll().size(); j++) {
-				ObjectType type = null;
-				try {
-					type = ObjectType.getAll().get(j);
-				}
-				catch (IndexOutOfBoundsException e) {
-					break;
-				}
-				if( type.getPalette() != p )
-					continue;
-
-				Class<? extends Entity> proto = type.getJavaClass();
-				// skip unused classes
-				DefaultMutableTreeNode classNode = getNodeFor_In(proto.getSimpleName(), palNode);
-				if (!used.contains(proto)) {
-					if( classNode != null ) {
-						classNode.removeAllChildren();
-						classNode.removeFromParent();
-					}
-					continue;
-				}
+		private void checkPending(Entity ent) {
+			// A new palette or object type changes the layout of the tree and
+			// a long backlog is cheaper to replace with a single rebuild
+			if (ent instanceof Palette || ent instanceof ObjectType ||
+			    pendingAdded.size() + pendingKilled.size() > MAX_PENDING) {
+				pendingAdded.clear();
+				pendingKilled.clear();
+				rebuildPending = true;
+			}
+		}
+	}
 
-				for (int i = 0; i < Entity.getAll().size(); i++) {
-					try {
-						Entity each = Entity.getAll().get(i);
+	/**
+	 * The tree nodes for the entities of a single class. Generated entities are
+	 * shown as a single node with a count, their own nodes are only created
+	 * while that node is expanded.
+	 */
+	private static class ClassEntry {
+		final DefaultMutableTreeNode paletteNode;
+		final DefaultMutableTreeNode node;
+		final int order;
+		final DefaultMutableTreeNode generatedNode;
+		final LinkedHashSet<Entity> generated;
+
+		ClassEntry(DefaultMutableTreeNode palNode, String name, int order) {
+			paletteNode = palNode;
+			node = new DefaultMutableTreeNode(name, true);
+			this.order = order;
+			generated = new LinkedHashSet<Entity>();
+			generatedNode = new DefaultMutableTreeNode(new GeneratedEntities(generated), true);
+		}
+	}
 
-						// Skip all that do not match the current class
-						if (each.getClass() != proto)
-							continue;
+	private static class GeneratedEntities {
+		private final LinkedHashSet<Entity> ents;
 
-						// skip locked Entities
-						if (each.testFlag(Entity.FLAG_LOCKED))
-							continue;
-						DefaultMutableTreeNode eachNode = getNodeFor_In(each, classNode);
-						if(classNode.getIndex(eachNode) < 0)
-							classNode.add(eachNode);
-					}
-					catch (IndexOutOfBoundsException e) {
-						continue;
-					}
-				}
+		GeneratedEntities(LinkedHashSet<Entity> ents) {
+			this.ents = ents;
+		}
 
-				// Remove the killed entities from the class node
-				Enumeration<?> enumeration = classNode.children();
-				while (enumeration.hasMoreElements ()) {
-					DefaultMutableTreeNode each = (DefaultMutableTreeNode) enumeration.nextElement();
-					if (!Entity.getAll().contains(each.getUserObject())) {
-						classNode.remove(each);
-					}
-				}
-				if(!classNode.isLeaf()) {
+		@Override
+		public String toString() {
+			return String.format("Generated Entities (%d)", ents.size());
+		}
+	}
 
-					// Class node does not exist in the package node
-					if(palNode.getIndex(classNode) < 0) {
-						palNode.add(classNode);
-					}
-				}
-				else if( palNode.getIndex(classNode) >= 0) {
-					palNode.remove(classNode);
-				}
+	/**
+	 * Applies the entities created and killed since the last update to the tree.
+	 */
+	private void updateTree() {
+		ArrayList<Entity> added;
+		ArrayList<Entity> killed;
+		synchronized (pendingLock) {
+			if (rebuildPending) {
+				rebuildTree();
+				return;
 			}
 
-			// Palette node is not empty
-			if(!palNode.isLeaf()) {
-				if(top.getIndex(palNode) < 0)
-					top.add(palNode);
-			}
-			else if(top.getIndex(palNode) >= 0) {
-				top.remove(palNode);
-			}
+			if (pendingAdded.isEmpty() && pendingKilled.isEmpty() && addedPlain.isEmpty())
+				return;
+
+			added = new ArrayList<Entity>(pendingAdded);
+			killed = new ArrayList<Entity>(pendingKilled);
+			pendingAdded.clear();
+			pendingKilled.clear();
+		}
+
+		HashSet<DefaultMutableTreeNode> changed = new HashSet<DefaultMutableTreeNode>();
+		for (Entity each : killed)
+			removeEntity(each, changed);
+
+		for (Entity each : added)
+			addEntity(each, true, changed);
+
+		this.moveGenerated(changed);
+
+		for (DefaultMutableTreeNode each : changed) {
+			if (each.getParent() != null)
+				treeModel.nodeChanged(each);
+		}
+	}
+
+	/**
+	 * Moves the entities that were flagged as generated after they were listed
+	 * on their own into the generated entities of their class.
+	 */
+	private void moveGenerated(HashSet<DefaultMutableTreeNode> changed) {
+		ArrayList<Entity> moved = null;
+		for (Entity each : addedPlain) {
+			if (!each.testFlag(Entity.FLAG_GENERATED))
+				continue;
+
+			if (moved == null)
+				moved = new ArrayList<Entity>();
+			moved.add(each);
+		}
+		if (moved == null)
+			return;
+
+		for (Entity each : moved) {
+			removeEntity(each, changed);
+			addEntity(each, true, changed);
+		}
+	}
+
+	/**
+	 * Rebuilds the tree from the present list of entities.
+	 */
+	private void rebuildTree() {
+		synchronized (pendingLock) {
+			pendingAdded.clear();
+			pendingKilled.clear();
+			rebuildPending = false;
 		}
 
 		// Store all the expanded paths
 		Enumeration<TreePath> expandedPaths = tree.getExpandedDescendants(new TreePath(top));
 		TreePath selectedPath = tree.getSelectionPath();
 
+		top.removeAllChildren();
+		paletteNodes.clear();
+		classEntries.clear();
+		entityNodes.clear();
+		addedPlain.clear();
+
+		// Make a best-effort attempt to find all the entities...can race with
+		// object creation/deletion, which is picked up by the next update
+		for (int i = 0; i < Entity.getAll().size(); i++) {
+			try {
+				addEntity(Entity.getAll().get(i), false, null);
+			}
+			catch (IndexOutOfBoundsException e) {}
+		}
+
 		treeModel.reload(top); // refresh tree
 
-		// Restore all expanded paths and the selected path
-		tree.setSelectionPath(selectedPath);
+		// Restore all expanded paths and the selected path, the nodes are new
+		// so the paths are matched on the names of the nodes
 		while (expandedPaths != null && expandedPaths.hasMoreElements())
 		{
-			TreePath path = expandedPaths.nextElement();
-			tree.expandPath(path);
+			TreePath path = findPath(expandedPaths.nextElement());
+			if (path != null)
+				tree.expandPath(path);
 		}
+		if (selectedPath != null)
+			tree.setSelectionPath(findPath(selectedPath));
 	}
 
 	/**
-	 * Return a node of userObject in parent
+	 * Returns the path in the present tree whose nodes have the same names as
+	 * the nodes of the given path, or null if there is no such path.
 	 */
-	private static DefaultMutableTreeNode getNodeFor_In(Object userObject, DefaultMutableTreeNode parent) {
+	private TreePath findPath(TreePath oldPath) {
+		DefaultMutableTreeNode node = top;
+		for (int i = 1; i < oldPath.getPathCount(); i++) {
+			Object userObj = ((DefaultMutableTreeNode)oldPath.getPathComponent(i)).getUserObject();
+			DefaultMutableTreeNode next = null;
+			if (userObj instanceof Entity) {
+				next = entityNodes.get(userObj);
+			}
+			else {
+				String name = userObj.toString();
+				for (int j = 0; j < node.getChildCount(); j++) {
+					DefaultMutableTreeNode child = (DefaultMutableTreeNode)node.getChildAt(j);
+					Object childObj = child.getUserObject();
+					if (childObj instanceof GeneratedEntities && userObj instanceof GeneratedEntities ||
+					    name.equals(childObj.toString())) {
+						next = child;
+						break;
+					}
+				}
+			}
+			if (next == null || next.getParent() != node)
+				return null;
+			node = next;
+		}
+		return new TreePath(node.getPath());
+	}
 
-		// obtain all the children in parent
-		Enumeration<?> enumeration = parent.children();
+	private void addEntity(Entity ent, boolean notify, HashSet<DefaultMutableTreeNode> changed) {
+		// skip locked and killed Entities
+		if (ent.testFlag(Entity.FLAG_LOCKED) || ent.testFlag(Entity.FLAG_DEAD))
+			return;
 
-		while (enumeration.hasMoreElements ()) {
-			DefaultMutableTreeNode eachNode = (DefaultMutableTreeNode) enumeration.nextElement();
-			if( eachNode.getUserObject() == userObject ||
-				userObject instanceof String && ((String) userObject).equals(eachNode.getUserObject()) ) {
+		if (entityNodes.containsKey(ent))
+			return;
+
+		ClassEntry entry = getClassEntry(ent.getClass(), notify);
+		if (entry == null)
+			return;
+
+		if (ent.testFlag(Entity.FLAG_GENERATED)) {
+			if (!entry.generated.add(ent))
+				return;
+
+			if (entry.generated.size() == 1) {
+				insertNode(entry.generatedNode, entry.node, entry.node.getChildCount(), notify);
+			}
+			else if (notify) {
+				changed.add(entry.generatedNode);
+			}
 
-				// This child already exists in parent
-				return eachNode;
+			// Add to the open list of generated entities
+			if (tree.isExpanded(new TreePath(entry.generatedNode.getPath()))) {
+				DefaultMutableTreeNode node = new DefaultMutableTreeNode(ent, false);
+				entityNodes.put(ent, node);
+				insertNode(node, entry.generatedNode, entry.generatedNode.getChildCount(), notify);
 			}
+			return;
 		}
 
-		// Child does not exist in parent; create it
-		return new DefaultMutableTreeNode(userObject, true);
+		// Entities are listed ahead of the generated entities of the class
+		DefaultMutableTreeNode node = new DefaultMutableTreeNode(ent, false);
+		entityNodes.put(ent, node);
+		if (ent.testFlag(Entity.FLAG_ADDED))
+			addedPlain.add(ent);
+		int index = entry.node.getChildCount();
+		if (!entry.generated.isEmpty())
+			index--;
+		insertNode(node, entry.node, index, notify);
+	}
+
+	private void removeEntity(Entity ent, HashSet<DefaultMutableTreeNode> changed) {
+		ClassEntry entry = classEntries.get(ent.getClass());
+		if (entry == null)
+			return;
+
+		DefaultMutableTreeNode node = entityNodes.remove(ent);
+		if (node != null)
+			removeNode(node);
+		addedPlain.remove(ent);
+
+		if (entry.generated.remove(ent)) {
+			if (entry.generated.isEmpty())
+				removeNode(entry.generatedNode);
+			else
+				changed.add(entry.generatedNode);
+		}
+
+		// Remove the empty class and palette nodes
+		if (entry.node.getChildCount() == 0) {
+			classEntries.remove(ent.getClass());
+			removeNode(entry.node);
+
+			if (entry.paletteNode.getChildCount() == 0) {
+				paletteNodes.values().remove(entry.paletteNode);
+				removeNode(entry.paletteNode);
+			}
+		}
+	}
+
+	/**
+	 * Returns the class entry for the given class, creating its node and the
+	 * node for its palette as needed. Returns null for classes that are not
+	 * listed in a palette.
+	 */
+	private ClassEntry getClassEntry(Class<? extends Entity> klass, boolean notify) {
+		ClassEntry entry = classEntries.get(klass);
+		if (entry != null)
+			return entry;
+
+		ObjectType type = ObjectType.getFor(klass);
+		if (type == null || type.getPalette() == null)
+			return null;
+
+		Palette p = type.getPalette();
+		DefaultMutableTreeNode palNode = paletteNodes.get(p);
+		if (palNode == null) {
+			palNode = new DefaultMutableTreeNode(p.getName(), true);
+			paletteNodes.put(p, palNode);
+
+			// Palettes are listed in the order they were defined
+			int palOrder = Palette.getAll().indexOf(p);
+			int index = 0;
+			for (Entry<Palette, DefaultMutableTreeNode> each : paletteNodes.entrySet()) {
+				if (each.getValue().getParent() != null && Palette.getAll().indexOf(each.getKey()) < palOrder)
+					index++;
+			}
+			insertNode(palNode, top, index, notify);
+		}
+
+		// Classes are listed in the order of their object types
+		entry = new ClassEntry(palNode, klass.getSimpleName(), ObjectType.getAll().indexOf(type));
+		int index = 0;
+		for (ClassEntry each : classEntries.values()) {
+			if (each.paletteNode == palNode && each.order < entry.order)
+				index++;
+		}
+		classEntries.put(klass, entry);
+		insertNode(entry.node, palNode, index, notify);
+		return entry;
+	}
+
+	private void insertNode(DefaultMutableTreeNode node, DefaultMutableTreeNode parent, int index, boolean notify) {
+		parent.insert(node, index);
+		if (notify)
+			treeModel.nodesWereInserted(parent, new int[] { index });
+	}
+
+	private void removeNode(DefaultMutableTreeNode node) {
+		DefaultMutableTreeNode parent = (DefaultMutableTreeNode)node.getParent();
+		if (parent == null)
+			return;
+
+		int index = parent.getIndex(node);
+		parent.remove(index);
+		treeModel.nodesWereRemoved(parent, new int[] { index }, new Object[] { node });
+	}
+
+	/**
+	 * Creates the nodes for the generated entities of a class when their node
+	 * is expanded, and discards them again when it is collapsed.
+	 */
+	private class GeneratedExpansionListener implements TreeWillExpandListener {
+		@Override
+		public void treeWillExpand(TreeExpansionEvent e) {
+			DefaultMutableTreeNode node = (DefaultMutableTreeNode)e.getPath().getLastPathComponent();
+			if (!(node.getUserObject() instanceof GeneratedEntities))
+				return;
+
+			node.removeAllChildren();
+			for (Entity each : ((GeneratedEntities)node.getUserObject()).ents) {
+				DefaultMutableTreeNode child = new DefaultMutableTreeNode(each, false);
+				entityNodes.put(each, child);
+				node.add(child);
+			}
+			treeModel.nodeStructureChanged(node);
+		}
+
+		@Override
+		public void treeWillCollapse(TreeExpansionEvent e) {
+			DefaultMutableTreeNode node = (DefaultMutableTreeNode)e.getPath().getLastPathComponent();
+			if (!(node.getUserObject() instanceof GeneratedEntities))
+				return;
+
+			for (Entity each : ((GeneratedEntities)node.getUserObject()).ents)
+				entityNodes.remove(each);
+
+			node.removeAllChildren();
+			treeModel.nodeStructureChanged(node);
+		}
 	}
 
 	static class MyTreeSelectionListener implements TreeSelectionListener {
@@ -324,7 +595,15 @@ public class ObjectSelector extends FrameBox {
 		@Override
 		public void treeNodesChanged( TreeModelEvent e ) {
 
+			// Only respond to the renaming of the selected entity
 			DefaultMutableTreeNode node = (DefaultMutableTreeNode)tree.getLastSelectedPathComponent();
+			if (node == null || currentEntity == null || !(node.getUserObject() instanceof String))
+				return;
+
+			Object[] children = e.getChildren();
+			if (children == null || children.length != 1 || children[0] != node)
+				return;
+
 			String newName = (String)node.getUserObject();
 
 			// Remove any spaces in the entity's new name
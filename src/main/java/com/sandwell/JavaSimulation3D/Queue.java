@@ -311,7 +311,8 @@ public class Queue extends DisplayEntity {
 			anOut.format( "%s\t", getInputName() );
 			anOut.format( "%d\t", this.getQueueLengthMinimum(0.0) );
 			anOut.format( "%d\t", this.getQueueLengthMaximum(0.0) );
-			anOut.format( "%.0f\t", this.getQueueLength(0.0) );
+			anOut.putDouble( this.getQueueLength(0.0), 0 );
+			anOut.putTab();
 			anOut.format( "\n" );
 		}
 	}
@@ -48,9 +48,19 @@ public class QueueRecorder extends DisplayEntity {
 		String outputFileName = InputAgent.getReportFileName(String.format("%s-%s.%s",
 		                                                     InputAgent.getRunName(), getName(), "que"));
 
-		outputFile = new FileEntity( outputFileName);
+		if( outputFile != null )
+			outputFile.close();
+		outputFile = new FileEntity( outputFileName, false, true );
 		this.printOutputFileHeader();
-		outputFile.flush();
+	}
+
+	@Override
+	public void doEnd() {
+		super.doEnd();
+		if( outputFile != null ) {
+			outputFile.close();
+			outputFile = null;
+		}
 	}
 
 	public ArrayList<Queue> getQueueList() {
@@ -69,15 +79,21 @@ public class QueueRecorder extends DisplayEntity {
 	 * Record the addition of the given object to the given queue
 	 */
 	public void add( DisplayEntity ent, Queue queue ) {
-		outputFile.format( "%.3f\t%s\t%s\tAdd\n", getCurrentTime(), queue.getInputName(), ent.getName() );
-		outputFile.flush();
+		outputFile.putDouble( getCurrentTime(), 3 );
+		outputFile.putTab();
+		outputFile.putStringTabs( queue.getInputName(), 1 );
+		outputFile.putStringTabs( ent.getName(), 1 );
+		outputFile.putString( "Add\n" );
 	}
 
 	/**
 	 * Record the removal of the given object from the given queue
 	 */
 	public void remove( DisplayEntity ent, Queue queue ) {
-		outputFile.format( "%.3f\t%s\t%s\tRemove\n", getCurrentTime(), queue.getInputName(), ent.getName() );
-		outputFile.flush();
+		outputFile.putDouble( getCurrentTime(), 3 );
+		outputFile.putTab();
+		outputFile.putStringTabs( queue.getInputName(), 1 );
+		outputFile.putStringTabs( ent.getName(), 1 );
+		outputFile.putString( "Remove\n" );
 	}
 }
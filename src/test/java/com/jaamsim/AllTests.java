@@ -33,6 +33,7 @@ import org.junit.runners.Suite.SuiteClasses;
 	com.jaamsim.math.TestVec4d.class,
 	com.jaamsim.math.TestMat4d.class,
 	com.jaamsim.math.TestInterners.class,
+	com.jaamsim.math.TestDoubleFormatter.class,
 	com.jaamsim.rng.TestMRG1999a.class,
 	com.jaamsim.video.vp8.TestBoolEncoder.class,
 	com.jaamsim.video.vp8.TestTransforms.class,
@@ -41,6 +42,8 @@ import org.junit.runners.Suite.SuiteClasses;
 	com.jaamsim.input.TestExpParser.class,
 	com.jaamsim.input.TestParser.class,
 	com.jaamsim.input.TestOutput.class,
+	com.jaamsim.input.TestConfigCache.class,
+	com.jaamsim.input.TestCopyValue.class,
 	com.jaamsim.probability.TestContinuousDistribution.class,
 	com.jaamsim.probability.TestDiscreteDistribution.class,
 	com.jaamsim.probability.TestErlangDistribution.class,
@@ -51,10 +54,22 @@ import org.junit.runners.Suite.SuiteClasses;
 	com.jaamsim.probability.TestNormalDistribution.class,
 	com.jaamsim.probability.TestTriangularDistribution.class,
 	com.jaamsim.probability.TestUniformDistribution.class,
+	com.jaamsim.probability.TestUniformBuffering.class,
 	com.jaamsim.probability.TestWeibullDistribution.class,
 	com.jaamsim.probability.TestEntitlementSelector.class,
 	com.jaamsim.probability.TestRandomSelector.class,
+	com.jaamsim.CalculationObjects.TestController.class,
+	com.jaamsim.FluidObjects.TestFluidFlow.class,
+	com.jaamsim.FluidObjects.TestFluidTank.class,
+	com.jaamsim.Thresholds.TestTimeSeriesThreshold.class,
+	com.sandwell.JavaSimulation.TestTimeSeries.class,
+	com.sandwell.JavaSimulation.TestTimeSeriesDataFile.class,
+	com.sandwell.JavaSimulation.TestFileEntity.class,
+	com.sandwell.JavaSimulation.TestNumericInputs.class,
+	com.jaamsim.BasicObjects.TestRecordFile.class,
+	com.jaamsim.BasicObjects.TestEntityRing.class,
 	com.jaamsim.MeshFiles.TestVertexMap.class,
 	com.jaamsim.MeshFiles.TestDataBlocks.class,
+	com.jaamsim.ui.TestLogBox.class,
 })
 public class AllTests {}
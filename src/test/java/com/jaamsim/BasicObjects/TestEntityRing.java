@@ -0,0 +1,108 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.BasicObjects;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import com.jaamsim.input.InputAgent;
+import com.sandwell.JavaSimulation3D.DisplayEntity;
+
+public class TestEntityRing {
+
+	private static DisplayEntity[] makeEntities(int n) {
+		DisplayEntity[] ret = new DisplayEntity[n];
+		for (int i = 0; i < n; i++)
+			ret[i] = InputAgent.defineEntityWithUniqueName(DisplayEntity.class, "Ent", true);
+		return ret;
+	}
+
+	@Test
+	public void testLongDurationHead() {
+		DisplayEntity[] ents = makeEntities(3);
+		EntityRing ring = new EntityRing();
+
+		// One entry stays at the head while many pass through behind it
+		long headSeq = ring.add(ents[0], 0.0d, 1.0e6d);
+		long prev = ring.add(ents[1], 0.0d, 1.0d);
+		DisplayEntity prevEnt = ents[1];
+		for (int i = 0; i < 100000; i++) {
+			DisplayEntity ent = ents[(i % 2) + 1];
+			long seq = ring.add(ent, i, 1.0d);
+			assertSame(prevEnt, ring.remove(prev));
+			prev = seq;
+			prevEnt = ent;
+		}
+
+		assertEquals(2, ring.size());
+		assertTrue(ring.getCapacity() <= 16);
+		assertTrue(ring.getSlotCount() <= 16);
+		assertSame(ents[0], ring.getAt(0));
+		assertEquals(1.0e6d, ring.getDurationAt(0), 0.0d);
+		assertNull(ring.remove(prev - 1));
+
+		assertSame(ents[0], ring.remove(headSeq));
+		assertEquals(1, ring.size());
+		assertEquals(1, ring.getSlotCount());
+	}
+
+	@Test
+	public void testRandomRemovals() {
+		DisplayEntity[] ents = makeEntities(8);
+		EntityRing ring = new EntityRing();
+		TreeMap<Long, DisplayEntity> expected = new TreeMap<Long, DisplayEntity>();
+		ArrayList<Long> live = new ArrayList<Long>();
+
+		Random rng = new Random(31);
+		int peak = 0;
+		for (int i = 0; i < 20000; i++) {
+			// Fill up to a few hundred entries, then drain, removing at random
+			boolean add = (i / 2000) % 2 == 0 ? rng.nextInt(4) != 0 : rng.nextInt(4) == 0;
+			if (add || live.isEmpty()) {
+				DisplayEntity ent = ents[rng.nextInt(ents.length)];
+				long seq = ring.add(ent, i, rng.nextDouble());
+				expected.put(seq, ent);
+				live.add(seq);
+			}
+			else {
+				long seq = live.remove(rng.nextInt(live.size()));
+				assertSame(expected.remove(seq), ring.remove(seq));
+				assertNull(ring.remove(seq));
+			}
+			peak = Math.max(peak, ring.size());
+			assertEquals(expected.size(), ring.size());
+			assertTrue(ring.getCapacity() <= Math.max(16, 4 * peak));
+
+			// The slots hold the remaining entries in the order they were added
+			int pos = 0;
+			for (Map.Entry<Long, DisplayEntity> each : expected.entrySet()) {
+				while (ring.getAt(pos) == null)
+					pos++;
+				assertSame(each.getValue(), ring.getAt(pos));
+				pos++;
+			}
+			assertTrue(pos <= ring.getSlotCount());
+		}
+	}
+}
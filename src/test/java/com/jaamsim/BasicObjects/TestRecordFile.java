@@ -0,0 +1,79 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.BasicObjects;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TestRecordFile {
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		File file = File.createTempFile("TestRecordFile", ".rec");
+		file.deleteOnExit();
+
+		String[] names = { "Queue1.QueueLength", "Tank1.FluidVolume", "Gen1.NumberAdded" };
+		String[] units = { "", "m3", "" };
+		RecordFileWriter writer = new RecordFileWriter(file.getPath(), names, units);
+
+		// Span several chunks and finish with a partial one
+		Random rng = new Random(17);
+		int numRows = 10000;
+		double[][] expected = new double[numRows][4];
+		double[] vals = new double[3];
+		for (int i = 0; i < numRows; i++) {
+			double t = i * 0.5d;
+			vals[0] = rng.nextInt(5);
+			vals[1] = rng.nextDouble() * 1000.0d;
+			vals[2] = (i == 42) ? Double.NaN : i / 10;
+			writer.addRow(t, vals);
+
+			expected[i][0] = t;
+			System.arraycopy(vals, 0, expected[i], 1, 3);
+		}
+		assertEquals(numRows, writer.getNumRows());
+		writer.close();
+
+		RecordFileReader reader = RecordFileReader.read(file);
+		assertEquals(3, reader.getNumColumns());
+		assertEquals(numRows, reader.getNumRows());
+		for (int c = 0; c < 3; c++) {
+			assertEquals(names[c], reader.getName(c));
+			assertEquals(units[c], reader.getUnit(c));
+		}
+		for (int i = 0; i < numRows; i++) {
+			assertEquals(expected[i][0], reader.getTime(i), 0.0d);
+			for (int c = 0; c < 3; c++)
+				assertEquals(expected[i][c + 1], reader.getValue(i, c), 0.0d);
+		}
+	}
+
+	@Test
+	public void testEmpty() throws Exception {
+		File file = File.createTempFile("TestRecordFile", ".rec");
+		file.deleteOnExit();
+
+		RecordFileWriter writer = new RecordFileWriter(file.getPath(), new String[] { "A" }, new String[] { "" });
+		writer.close();
+
+		RecordFileReader reader = RecordFileReader.read(file);
+		assertEquals(1, reader.getNumColumns());
+		assertEquals(0, reader.getNumRows());
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.CalculationObjects;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.jaamsim.input.InputAgent;
+import com.sandwell.JavaSimulation.ObjectType;
+
+public class TestController {
+
+	@Test
+	/**
+	 * Tests that a calculation skipped by the Controller holds the value
+	 * that a full update would have produced
+	 */
+	public void SkippedUpdates() {
+		ObjectType t = InputAgent.defineEntityWithUniqueName(ObjectType.class, "TestType", true);
+		InputAgent.processEntity_Keyword_Value( t, "JavaClass", "com.jaamsim.units.DimensionlessUnit");
+
+		Controller con = InputAgent.defineEntityWithUniqueName(Controller.class, "Controller", true);
+
+		SquareWave wave = InputAgent.defineEntityWithUniqueName(SquareWave.class, "Wave", true);
+		InputAgent.processEntity_Keyword_Value( wave, "UnitType", t.getInputName());
+		InputAgent.processEntity_Keyword_Value( wave, "Controller", con.getInputName());
+		InputAgent.processEntity_Keyword_Value( wave, "SequenceNumber", "1");
+
+		WeightedSum sum = InputAgent.defineEntityWithUniqueName(WeightedSum.class, "Sum", true);
+		InputAgent.processEntity_Keyword_Value( sum, "UnitType", t.getInputName());
+		InputAgent.processEntity_Keyword_Value( sum, "InputValueList", wave.getInputName());
+		InputAgent.processEntity_Keyword_Value( sum, "CoefficientList", "2.0");
+		InputAgent.processEntity_Keyword_Value( sum, "Controller", con.getInputName());
+		InputAgent.processEntity_Keyword_Value( sum, "SequenceNumber", "2");
+
+		Polynomial poly = InputAgent.defineEntityWithUniqueName(Polynomial.class, "Poly", true);
+		InputAgent.processEntity_Keyword_Value( poly, "UnitType", t.getInputName());
+		InputAgent.processEntity_Keyword_Value( poly, "InputValue", sum.getInputName());
+		InputAgent.processEntity_Keyword_Value( poly, "CoefficientList", "1.0  3.0");
+		InputAgent.processEntity_Keyword_Value( poly, "Controller", con.getInputName());
+		InputAgent.processEntity_Keyword_Value( poly, "SequenceNumber", "3");
+
+		DoubleCalculation[] calcs = { wave, sum, poly };
+		for (DoubleCalculation calc : calcs) {
+			calc.validate();
+			calc.earlyInit();
+		}
+		con.validate();
+		con.earlyInit();
+
+		// The square wave changes sign every fourth cycle, so most cycles can skip
+		// the sum and the polynomial
+		for (int i = 1; i <= 16; i++) {
+			double simTime = 0.125 * i;
+			con.doCalculations(simTime);
+			for (DoubleCalculation calc : calcs)
+				assertTrue( calc.getValue() == calc.calculateValue(simTime) );
+		}
+
+		assertTrue( con.getCount() == 16 );
+		assertTrue( con.getSkippedUpdates(2.0) > 0 );
+	}
+}
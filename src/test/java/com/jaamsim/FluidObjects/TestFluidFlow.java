@@ -0,0 +1,175 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.FluidObjects;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.jaamsim.events.EventManager;
+import com.jaamsim.events.ProcessTarget;
+import com.jaamsim.events.TestFrameworkHelpers;
+import com.jaamsim.input.InputAgent;
+import com.jaamsim.units.DistanceUnit;
+import com.jaamsim.units.ViscosityUnit;
+import com.jaamsim.units.VolumeFlowUnit;
+import com.jaamsim.units.VolumeUnit;
+import com.sandwell.JavaSimulation.Entity;
+
+public class TestFluidFlow {
+
+	private static final double TANK_DIAMETER = 1.0d;
+	private static final double PIPE_DIAMETER = 0.1d;
+	private static final double PIPE_LENGTH = 10.0d;
+	private static final double VOLUME_A = 1.0d;
+	private static final double VOLUME_B = 0.5d;
+
+	/**
+	 * Builds two tanks joined by a frictionless pipe. The difference in level oscillates
+	 * as a U-tube manometer, which has a closed form solution. The flow is integrated by
+	 * Euler steps if the tolerance is null.
+	 */
+	private static FluidFlow makeUTube(String tolerance) {
+		String m = InputAgent.defineEntityWithUniqueName(DistanceUnit.class, "m", true).getInputName();
+		String m3 = InputAgent.defineEntityWithUniqueName(VolumeUnit.class, "m3", true).getInputName();
+		String m3s = InputAgent.defineEntityWithUniqueName(VolumeFlowUnit.class, "m3/s", true).getInputName();
+		String pas = InputAgent.defineEntityWithUniqueName(ViscosityUnit.class, "Pa-s", true).getInputName();
+
+		Fluid fluid = InputAgent.defineEntityWithUniqueName(Fluid.class, "Fluid", true);
+		InputAgent.processEntity_Keyword_Value(fluid, "Viscosity", "0 " + pas);
+
+		FluidTank tankA = InputAgent.defineEntityWithUniqueName(FluidTank.class, "TankA", true);
+		InputAgent.processEntity_Keyword_Value(tankA, "Diameter", TANK_DIAMETER + " " + m);
+		InputAgent.processEntity_Keyword_Value(tankA, "Capacity", "10 " + m3);
+		InputAgent.processEntity_Keyword_Value(tankA, "InitialVolume", VOLUME_A + " " + m3);
+
+		FluidPipe pipe = InputAgent.defineEntityWithUniqueName(FluidPipe.class, "Pipe", true);
+		InputAgent.processEntity_Keyword_Value(pipe, "Previous", tankA.getInputName());
+		InputAgent.processEntity_Keyword_Value(pipe, "Diameter", PIPE_DIAMETER + " " + m);
+		InputAgent.processEntity_Keyword_Value(pipe, "Length", PIPE_LENGTH + " " + m);
+
+		FluidTank tankB = InputAgent.defineEntityWithUniqueName(FluidTank.class, "TankB", true);
+		InputAgent.processEntity_Keyword_Value(tankB, "Previous", pipe.getInputName());
+		InputAgent.processEntity_Keyword_Value(tankB, "Diameter", TANK_DIAMETER + " " + m);
+		InputAgent.processEntity_Keyword_Value(tankB, "Capacity", "10 " + m3);
+		InputAgent.processEntity_Keyword_Value(tankB, "InitialVolume", VOLUME_B + " " + m3);
+
+		FluidFlow flow = InputAgent.defineEntityWithUniqueName(FluidFlow.class, "Flow", true);
+		InputAgent.processEntity_Keyword_Value(flow, "Fluid", fluid.getInputName());
+		InputAgent.processEntity_Keyword_Value(flow, "Source", tankA.getInputName());
+		InputAgent.processEntity_Keyword_Value(flow, "Destination", tankB.getInputName());
+		if (tolerance != null) {
+			InputAgent.processEntity_Keyword_Value(flow, "AdaptiveStep", "TRUE");
+			InputAgent.processEntity_Keyword_Value(flow, "FlowRateTolerance", tolerance + " " + m3s);
+		}
+		flow.validate();
+		return flow;
+	}
+
+	/**
+	 * Updates the flow once per second and returns the largest difference between the
+	 * flow rate and the closed form solution.
+	 */
+	private static double runUTube(final FluidFlow flow, final int numUpdates) {
+		final double[] ret = new double[1];
+		final Throwable[] err = new Throwable[1];
+		ProcessTarget t = new ProcessTarget() {
+			@Override
+			public String getDescription() {
+				return "TestFluidFlow";
+			}
+
+			@Override
+			public void process() {
+				try {
+					ret[0] = compareUTube(flow, numUpdates);
+				}
+				catch (Throwable e) {
+					err[0] = e;
+				}
+			}
+		};
+
+		EventManager evt = Entity.initEVT();
+		evt.clear();
+		evt.scheduleProcess(0, 0, false, t);
+		TestFrameworkHelpers.runEventsToTick(evt, 1, 10000);
+		if (err[0] != null)
+			throw new RuntimeException(err[0]);
+		return ret[0];
+	}
+
+	private static double compareUTube(FluidFlow flow, int numUpdates) {
+		FluidComponent tankA = flow.getSource();
+		FluidComponent tankB = flow.getDestination();
+		tankA.earlyInit();
+		tankB.earlyInit();
+		flow.earlyInit();
+
+		double area = 0.25d * Math.PI * TANK_DIAMETER * TANK_DIAMETER;
+		double pipeArea = 0.25d * Math.PI * PIPE_DIAMETER * PIPE_DIAMETER;
+		double omega = Math.sqrt(2.0d * 9.81d * pipeArea / (PIPE_LENGTH * area));
+		double x0 = (VOLUME_A - VOLUME_B) / area;
+		double maxFlow = 0.5d * area * x0 * omega;
+
+		double maxErr = 0.0d;
+		for (int i = 1; i <= numUpdates; i++) {
+			double time = i;
+			flow.update(time);
+
+			double q = maxFlow * Math.sin(omega * time);
+			double vol = VOLUME_A - 0.5d * area * x0 * (1.0d - Math.cos(omega * time));
+			maxErr = Math.max(maxErr, Math.abs(flow.getFlowRate() - q) / maxFlow);
+			maxErr = Math.max(maxErr, Math.abs(tankA.getFluidVolume() - vol) / VOLUME_A);
+			maxErr = Math.max(maxErr, Math.abs(tankA.getFluidVolume() + tankB.getFluidVolume() - VOLUME_A - VOLUME_B));
+		}
+		return maxErr;
+	}
+
+	@Test
+	/**
+	 * Tests the adaptive step size and error control against the closed form solution
+	 */
+	public void UTubeOscillation() {
+		FluidFlow coarse = makeUTube("1.0e-6");
+		double coarseErr = runUTube(coarse, 60);
+		int coarseSteps = coarse.getStepCount(0.0d);
+
+		FluidFlow fine = makeUTube("1.0e-9");
+		double fineErr = runUTube(fine, 60);
+		int fineSteps = fine.getStepCount(0.0d);
+
+		assertTrue( coarseErr < 1.0e-2 );
+		assertTrue( fineErr < 1.0e-4 );
+		assertTrue( fineErr < coarseErr );
+		assertTrue( fineSteps > coarseSteps );
+	}
+
+	@Test
+	/**
+	 * Tests that a single Euler step is taken per update unless AdaptiveStep is set
+	 */
+	public void EulerDefault() {
+		FluidFlow euler = makeUTube(null);
+		double eulerErr = runUTube(euler, 60);
+
+		FluidFlow adaptive = makeUTube("1.0e-6");
+		double adaptiveErr = runUTube(adaptive, 60);
+
+		assertEquals( 60, euler.getStepCount(0.0d) );
+		assertTrue( adaptiveErr < eulerErr );
+	}
+}
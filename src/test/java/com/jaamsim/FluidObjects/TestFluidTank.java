@@ -0,0 +1,204 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.FluidObjects;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import com.jaamsim.events.EventManager;
+import com.jaamsim.events.ProcessTarget;
+import com.jaamsim.events.TestFrameworkHelpers;
+import com.jaamsim.input.InputAgent;
+import com.jaamsim.units.DistanceUnit;
+import com.jaamsim.units.VolumeFlowUnit;
+import com.jaamsim.units.VolumeUnit;
+import com.sandwell.JavaSimulation.Entity;
+
+public class TestFluidTank {
+
+	private FluidTank source;
+	private FluidTank destination;
+	private FluidFixedFlow flow;
+	private final ArrayList<Double> times = new ArrayList<Double>();
+	private final ArrayList<Double> volumes = new ArrayList<Double>();
+	private final ArrayList<Double> rates = new ArrayList<Double>();
+	private Throwable error;
+
+	/**
+	 * Builds a tank that drains into a second tank through a continuous fixed flow of 2 m3/s.
+	 */
+	private void makeTanks(String continuous) {
+		String m = InputAgent.defineEntityWithUniqueName(DistanceUnit.class, "m", true).getInputName();
+		String m3 = InputAgent.defineEntityWithUniqueName(VolumeUnit.class, "m3", true).getInputName();
+		String m3s = InputAgent.defineEntityWithUniqueName(VolumeFlowUnit.class, "m3/s", true).getInputName();
+
+		Fluid fluid = InputAgent.defineEntityWithUniqueName(Fluid.class, "Fluid", true);
+
+		source = InputAgent.defineEntityWithUniqueName(FluidTank.class, "Source", true);
+		InputAgent.processEntity_Keyword_Value(source, "Diameter", "1 " + m);
+		InputAgent.processEntity_Keyword_Value(source, "Capacity", "100 " + m3);
+		InputAgent.processEntity_Keyword_Value(source, "InitialVolume", "10 " + m3);
+
+		destination = InputAgent.defineEntityWithUniqueName(FluidTank.class, "Destination", true);
+		InputAgent.processEntity_Keyword_Value(destination, "Diameter", "1 " + m);
+		InputAgent.processEntity_Keyword_Value(destination, "Capacity", "100 " + m3);
+
+		flow = InputAgent.defineEntityWithUniqueName(FluidFixedFlow.class, "Flow", true);
+		InputAgent.processEntity_Keyword_Value(flow, "Fluid", fluid.getInputName());
+		InputAgent.processEntity_Keyword_Value(flow, "Source", source.getInputName());
+		InputAgent.processEntity_Keyword_Value(flow, "Destination", destination.getInputName());
+		InputAgent.processEntity_Keyword_Value(flow, "FlowRate", "2 " + m3s);
+		InputAgent.processEntity_Keyword_Value(flow, "ContinuousFlow", continuous);
+		flow.validate();
+	}
+
+	private abstract class TestTarget extends ProcessTarget {
+		@Override
+		public String getDescription() {
+			return "TestFluidTank";
+		}
+
+		@Override
+		public void process() {
+			try {
+				this.run();
+			}
+			catch (Throwable e) {
+				error = e;
+			}
+		}
+
+		abstract void run();
+	}
+
+	private class StartTarget extends TestTarget {
+		@Override
+		void run() {
+			source.earlyInit();
+			destination.earlyInit();
+			flow.earlyInit();
+			flow.startUp();
+		}
+	}
+
+	private class RecordTarget extends TestTarget {
+		@Override
+		void run() {
+			times.add(source.getSimTime());
+			volumes.add(source.getFluidVolume());
+			rates.add(flow.getFlowRate());
+		}
+	}
+
+	private class AddTarget extends TestTarget {
+		final double volume;
+		AddTarget(double v) {
+			volume = v;
+		}
+
+		@Override
+		void run() {
+			source.addVolume(volume);
+		}
+	}
+
+	private static void schedule(EventManager evt, double secs, ProcessTarget t) {
+		evt.scheduleProcess(evt.secondsToNearestTick(secs), 5, false, t);
+	}
+
+	private long run(EventManager evt, double secs) {
+		TestFrameworkHelpers.runEventsToTick(evt, evt.secondsToNearestTick(secs), 10000);
+		if (error != null)
+			throw new RuntimeException(error);
+		return evt.getNumEventsExecuted();
+	}
+
+	private static EventManager initEVT() {
+		EventManager evt = Entity.initEVT();
+		evt.clear();
+		return evt;
+	}
+
+	@Test
+	/**
+	 * Tests that the volume is calculated when it is read and that the tank becomes empty at the
+	 * exact time without any other events
+	 */
+	public void EmptyTime() {
+		makeTanks("TRUE");
+		EventManager evt = initEVT();
+		schedule(evt, 0.0d, new StartTarget());
+		schedule(evt, 2.5d, new RecordTarget());
+		schedule(evt, 2.5d, new RecordTarget());
+		schedule(evt, 4.999999d, new RecordTarget());
+		schedule(evt, 5.000001d, new RecordTarget());
+		long numEvents = run(evt, 20.0d);
+
+		// One event for each target and one for the tank becoming empty
+		assertEquals(6, numEvents);
+
+		assertEquals(5.0d, volumes.get(0), 1.0e-12d);
+		assertEquals(5.0d, volumes.get(1), 1.0e-12d);
+		assertEquals(2.0e-6d, volumes.get(2), 1.0e-9d);
+		assertEquals(2.0d, rates.get(2), 0.0d);
+		assertEquals(0.0d, volumes.get(3), 0.0d);
+		assertEquals(0.0d, rates.get(3), 0.0d);
+		assertEquals(10.0d, destination.getFluidVolume(20.0d), 1.0e-12d);
+		assertEquals(0.0d, source.getVolumeRate(20.0d), 0.0d);
+	}
+
+	@Test
+	/**
+	 * Tests that fluid added or removed by other flows moves the time at which the tank becomes empty
+	 */
+	public void AddedVolume() {
+		makeTanks("TRUE");
+		EventManager evt = initEVT();
+		schedule(evt, 0.0d, new StartTarget());
+		schedule(evt, 1.0d, new AddTarget(3.0d));
+		schedule(evt, 1.0d, new AddTarget(-1.0d));
+		schedule(evt, 5.5d, new RecordTarget());
+		schedule(evt, 5.999999d, new RecordTarget());
+		schedule(evt, 6.000001d, new RecordTarget());
+		run(evt, 20.0d);
+
+		// The net volume of 2 m3 delays the empty time from 5 s to 6 s
+		assertEquals(1.0d, volumes.get(0), 1.0e-12d);
+		assertEquals(2.0d, rates.get(0), 0.0d);
+		assertEquals(2.0d, rates.get(1), 0.0d);
+		assertTrue(volumes.get(1) > 0.0d);
+		assertEquals(0.0d, volumes.get(2), 0.0d);
+		assertEquals(0.0d, rates.get(2), 0.0d);
+	}
+
+	@Test
+	/**
+	 * Tests that a fixed flow without a Controller moves no fluid unless ContinuousFlow is set
+	 */
+	public void NotContinuous() {
+		makeTanks("FALSE");
+		EventManager evt = initEVT();
+		schedule(evt, 0.0d, new StartTarget());
+		schedule(evt, 10.0d, new RecordTarget());
+		run(evt, 20.0d);
+
+		assertEquals(10.0d, volumes.get(0), 0.0d);
+		assertEquals(0.0d, source.getVolumeRate(10.0d), 0.0d);
+	}
+}
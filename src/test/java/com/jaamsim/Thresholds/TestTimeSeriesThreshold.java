@@ -0,0 +1,226 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.Thresholds;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.jaamsim.events.EventManager;
+import com.jaamsim.events.Process;
+import com.jaamsim.input.InputAgent;
+import com.jaamsim.units.TimeUnit;
+import com.sandwell.JavaSimulation.ObjectType;
+import com.sandwell.JavaSimulation.TimeSeries;
+
+public class TestTimeSeriesThreshold {
+
+	private static String hours;
+	private static String dimType;
+
+	private static void defineUnits() {
+		if (hours != null)
+			return;
+
+		// Time series lookups round to the nearest simulation tick
+		EventManager.initEventManager("TestTSThreshold").setSimTimeScale(4000.0d);
+
+		ObjectType t = InputAgent.defineEntityWithUniqueName(ObjectType.class, "DimType", true);
+		InputAgent.processEntity_Keyword_Value(t, "JavaClass", "com.jaamsim.units.DimensionlessUnit");
+		dimType = t.getInputName();
+
+		TimeUnit h = InputAgent.defineEntityWithUniqueName(TimeUnit.class, "h", true);
+		InputAgent.processEntity_Keyword_Value(h, "ConversionFactorToSI", "3600");
+		hours = h.getInputName();
+	}
+
+	private static TimeSeries makeSeries(Random rng, int numPoints, double spacing, double cycle, double max) {
+		StringBuilder val = new StringBuilder();
+		double t = 0.0d;
+		for (int i = 0; i < numPoints; i++) {
+			int hh = (int)t;
+			int mm = (int)Math.round((t - hh) * 60.0d);
+			val.append(String.format((Locale)null, "{ '2010-01-%02d %02d:%02d:00' %.3f } ",
+			           1 + hh / 24, hh % 24, mm, rng.nextDouble() * max));
+			t += spacing * (0.5d + rng.nextInt(4));
+		}
+
+		TimeSeries ts = InputAgent.defineEntityWithUniqueName(TimeSeries.class, "TS", true);
+		InputAgent.processEntity_Keyword_Value(ts, "UnitType", dimType);
+		InputAgent.processEntity_Keyword_Value(ts, "Value", val.toString());
+		InputAgent.processEntity_Keyword_Value(ts, "CycleTime", String.format((Locale)null, "%f %s", cycle, hours));
+		ts.validate();
+		ts.earlyInit();
+		return ts;
+	}
+
+	private static TimeSeriesThreshold makeThreshold(TimeSeries ts, String min, String max, double lookAhead, double offset) {
+		TimeSeriesThreshold thresh = InputAgent.defineEntityWithUniqueName(TimeSeriesThreshold.class, "Thresh", true);
+		InputAgent.processEntity_Keyword_Value(thresh, "UnitType", dimType);
+		InputAgent.processEntity_Keyword_Value(thresh, "TimeSeries", ts.getInputName());
+		if (min != null)
+			InputAgent.processEntity_Keyword_Value(thresh, "MinOpenLimit", min);
+		if (max != null)
+			InputAgent.processEntity_Keyword_Value(thresh, "MaxOpenLimit", max);
+		InputAgent.processEntity_Keyword_Value(thresh, "LookAhead", String.format((Locale)null, "%f %s", lookAhead, hours));
+		InputAgent.processEntity_Keyword_Value(thresh, "Offset", String.format((Locale)null, "%f %s", offset, hours));
+		thresh.validate();
+		thresh.earlyInit();
+		return thresh;
+	}
+
+	// Step-by-step search over the change points, used as the reference for the interval index
+	private static boolean scanIsClosedAtTime(TimeSeriesThreshold th, double time) {
+		time += th.getOffsetInHours();
+		double changeTime = time;
+		if (th.isPointClosed(changeTime))
+			return true;
+
+		while (true) {
+			if (changeTime - th.getLookAheadInHours() > time)
+				return false;
+
+			changeTime = th.getNextChangeTimeAfterHours(changeTime);
+			if (th.isPointClosed(changeTime))
+				return (changeTime - th.getLookAheadInHours()) < time;
+		}
+	}
+
+	private static double scanClosedTimeFromTime(TimeSeriesThreshold th, double startTime) {
+		if (th.isAlwaysClosed())
+			return Double.POSITIVE_INFINITY;
+		if (th.isAlwaysOpen())
+			return 0.0;
+		if (!scanIsClosedAtTime(th, startTime))
+			return 0.0;
+
+		startTime += th.getOffsetInHours();
+		double openTime = -1;
+		double changeTime = startTime;
+		double maxTime = th.getMaxTimeValueFromTimeSeries();
+		while (true) {
+			changeTime = th.getNextChangeTimeAfterHours(changeTime);
+			if (changeTime == Double.POSITIVE_INFINITY) {
+				if (openTime != -1)
+					return openTime - startTime;
+				return Double.POSITIVE_INFINITY;
+			}
+
+			if (changeTime > startTime + maxTime + th.getLookAhead())
+				return Double.POSITIVE_INFINITY;
+
+			if (th.isPointClosed(changeTime)) {
+				if (openTime == -1)
+					continue;
+
+				if (changeTime - openTime >= th.getLookAheadInHours())
+					return openTime - startTime;
+
+				openTime = -1;
+			}
+			else if (openTime == -1) {
+				openTime = changeTime;
+			}
+		}
+	}
+
+	private static double scanOpenTimeFromTime(TimeSeriesThreshold th, double startTime) {
+		if (th.isAlwaysClosed())
+			return 0.0;
+		if (th.isAlwaysOpen())
+			return Double.POSITIVE_INFINITY;
+		if (scanIsClosedAtTime(th, startTime))
+			return 0.0;
+
+		startTime += th.getOffsetInHours();
+		double changeTime = startTime;
+		double maxTime = th.getMaxTimeValueFromTimeSeries();
+		while (true) {
+			changeTime = th.getNextChangeTimeAfterHours(changeTime);
+			if (changeTime == Double.POSITIVE_INFINITY)
+				return Double.POSITIVE_INFINITY;
+
+			if (changeTime > startTime + maxTime)
+				return Double.POSITIVE_INFINITY;
+
+			if (th.isPointClosed(changeTime)) {
+				double timeUntilClose = changeTime - th.getLookAheadInHours() - startTime;
+				return Math.max(timeUntilClose, Process.getEventTolerance());
+			}
+		}
+	}
+
+	private static void compare(TimeSeriesThreshold th, Random rng, double endTime) {
+		double time = 0.0d;
+		while (time < endTime) {
+			assertEquals(scanIsClosedAtTime(th, time), th.isClosedAtTime(time));
+			assertEquals(scanClosedTimeFromTime(th, time), th.calcClosedTimeFromTime(time), 0.0d);
+			assertEquals(scanOpenTimeFromTime(th, time), th.calcOpenTimeFromTime(time), 0.0d);
+
+			// Mostly move forward in small steps, with occasional jumps in either direction
+			int r = rng.nextInt(20);
+			if (r == 0)
+				time = Math.max(0.0d, time - rng.nextDouble() * 50.0d);
+			else if (r == 1)
+				time += rng.nextDouble() * 200.0d;
+			else
+				time += rng.nextDouble() * 0.5d;
+		}
+	}
+
+	@Test
+	public void ConstantLimits() {
+		defineUnits();
+		Random rng = new Random(1);
+		TimeSeries ts = makeSeries(rng, 300, 1.0d, 720.0d, 3.0d);
+
+		compare(makeThreshold(ts, "0.5", "2.0", 0.0d, 0.0d), rng, 20000.0d);
+		compare(makeThreshold(ts, "0.5", "2.0", 3.0d, 1.5d), rng, 2000.0d);
+		compare(makeThreshold(ts, null, "2.5", 6.0d, 0.0d), rng, 2000.0d);
+		compare(makeThreshold(ts, "1.0", null, 2.5d, 10.0d), rng, 2000.0d);
+	}
+
+	@Test
+	public void TimeSeriesLimits() {
+		defineUnits();
+		Random rng = new Random(2);
+		TimeSeries ts = makeSeries(rng, 300, 1.0d, 720.0d, 3.0d);
+		TimeSeries max = makeSeries(rng, 20, 4.0d, 240.0d, 1.0d);
+		InputAgent.processEntity_Keyword_Value(max, "Value", "{ '2010-01-01 00:00:00' 2.0 } { '2010-01-02 00:00:00' 2.5 } { '2010-01-04 12:00:00' 1.8 }");
+		max.validate();
+
+		compare(makeThreshold(ts, "0.2", max.getInputName(), 0.0d, 0.0d), rng, 3000.0d);
+		compare(makeThreshold(ts, "0.2", max.getInputName(), 4.0d, 2.0d), rng, 3000.0d);
+	}
+
+	@Test
+	public void NonCyclicSeries() {
+		defineUnits();
+		Random rng = new Random(3);
+		TimeSeries ts = InputAgent.defineEntityWithUniqueName(TimeSeries.class, "TS", true);
+		InputAgent.processEntity_Keyword_Value(ts, "UnitType", dimType);
+		InputAgent.processEntity_Keyword_Value(ts, "Value", "{ '2010-01-01 00:00:00' 1.0 } { '2010-01-01 05:00:00' 3.0 } " +
+				"{ '2010-01-01 07:00:00' 1.0 } { '2010-01-01 08:00:00' 3.0 } { '2010-01-01 12:00:00' 1.0 }");
+		ts.validate();
+		ts.earlyInit();
+
+		compare(makeThreshold(ts, null, "2.0", 0.0d, 0.0d), rng, 30.0d);
+		compare(makeThreshold(ts, null, "2.0", 1.5d, 0.5d), rng, 30.0d);
+		compare(makeThreshold(ts, null, "2.0", 4.0d, 0.0d), rng, 30.0d);
+	}
+}
@@ -0,0 +1,130 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.input;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import com.sandwell.JavaSimulation.Input.ParseContext;
+
+public class TestConfigCache {
+
+	private static byte[] writeFile(File file, String contents) throws IOException {
+		byte[] bytes = contents.getBytes("UTF-8");
+		FileOutputStream out = new FileOutputStream(file);
+		out.write(bytes);
+		out.close();
+
+		MessageDigest md = ConfigCache.newDigest();
+		return md.digest(bytes);
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		File cfg = File.createTempFile("TestConfigCache", ".cfg");
+		cfg.deleteOnExit();
+		File cacheFile = new File(cfg.getPath() + ".cache");
+		cacheFile.deleteOnExit();
+
+		String contents = "Define Queue { Q1 Q2 }\nQ1 Position { 1 2 0 m }\n";
+		byte[] digest = writeFile(cfg, contents);
+
+		ParseContext pc = new ParseContext();
+		pc.jail = "";
+		pc.context = cfg.getParentFile().toURI();
+
+		ArrayList<String> rec1 = new ArrayList<String>();
+		Parser.tokenize(rec1, "Define Queue { Q1 Q2 }");
+		ArrayList<String> rec2 = new ArrayList<String>();
+		Parser.tokenize(rec2, "Q1 Position { 1 2 0 m } Description { 'A queue' }");
+
+		ConfigCache cache = new ConfigCache(cfg.toURI());
+		cache.addFile(cfg.toURI(), digest);
+		cache.addRecord(pc, rec1);
+		cache.addRecord(pc, rec2);
+		cache.write(cacheFile);
+
+		ConfigCache read = ConfigCache.read(cacheFile);
+		assertEquals(2, read.getNumRecords());
+		assertEquals(rec1, read.getRecord(0));
+		assertEquals(rec2, read.getRecord(1));
+		assertSame("{", read.getRecord(0).get(2));
+		assertSame(read.getContext(0), read.getContext(1));
+		assertEquals(pc.jail, read.getContext(1).jail);
+		assertEquals(pc.context, read.getContext(1).context);
+		assertTrue(read.isValid(cfg.toURI()));
+
+		// Any change to a file invalidates the cache
+		writeFile(cfg, contents + "Q2 Position { 2 2 0 m }\n");
+		assertFalse(ConfigCache.read(cacheFile).isValid(cfg.toURI()));
+
+		cfg.delete();
+		assertFalse(read.isValid(cfg.toURI()));
+	}
+
+	@Test
+	public void testOtherConfigFile() throws Exception {
+		File cfg = File.createTempFile("TestConfigCache", ".cfg");
+		cfg.deleteOnExit();
+		File copy = File.createTempFile("TestConfigCache", ".cfg");
+		copy.deleteOnExit();
+		File cacheFile = new File(cfg.getPath() + ".cache");
+		cacheFile.deleteOnExit();
+
+		String contents = "Define Queue { Q1 }\n";
+		byte[] digest = writeFile(cfg, contents);
+		writeFile(copy, contents);
+
+		ParseContext pc = new ParseContext();
+		pc.jail = "";
+		pc.context = cfg.getParentFile().toURI();
+
+		ArrayList<String> rec = new ArrayList<String>();
+		Parser.tokenize(rec, "Define Queue { Q1 }");
+
+		ConfigCache cache = new ConfigCache(cfg.toURI());
+		cache.addFile(cfg.toURI(), digest);
+		cache.addRecord(pc, rec);
+		cache.write(cacheFile);
+
+		// A cache copied along with its model is not used for the copy, even
+		// though the files it was built from are unchanged
+		ConfigCache read = ConfigCache.read(cacheFile);
+		assertTrue(read.isValid(cfg.toURI()));
+		assertFalse(read.isValid(copy.toURI()));
+	}
+
+	@Test
+	public void testBadFile() throws Exception {
+		File cacheFile = File.createTempFile("TestConfigCache", ".cache");
+		cacheFile.deleteOnExit();
+		writeFile(cacheFile, "Not a cache file");
+		assertNull(ConfigCache.read(cacheFile));
+
+		cacheFile.delete();
+		assertNull(ConfigCache.read(cacheFile));
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.input;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import com.jaamsim.math.Vec3d;
+import com.jaamsim.units.DistanceUnit;
+import com.sandwell.JavaSimulation.BooleanInput;
+import com.sandwell.JavaSimulation.IntegerInput;
+import com.sandwell.JavaSimulation.StringInput;
+import com.sandwell.JavaSimulation.StringVector;
+import com.sandwell.JavaSimulation.Vec3dInput;
+
+public class TestCopyValue {
+
+	private static StringVector tokens(String rec) {
+		ArrayList<String> toks = new ArrayList<String>();
+		Parser.tokenize(toks, rec);
+		StringVector data = new StringVector(toks.size());
+		for (String each : toks)
+			data.add(each);
+		return data;
+	}
+
+	@Test
+	public void testSameClass() {
+		BooleanInput b1 = new BooleanInput("Show", "Key Inputs", false);
+		BooleanInput b2 = new BooleanInput("Show", "Key Inputs", false);
+		b1.parse(tokens("TRUE"));
+		assertTrue(b2.copyValue(b1));
+		assertTrue(b2.getValue());
+
+		// Inputs of a different class are always parsed
+		IntegerInput i1 = new IntegerInput("Show", "Key Inputs", 0);
+		assertFalse(i1.copyValue(b1));
+		assertFalse(i1.copyValue(null));
+	}
+
+	@Test
+	public void testValidRange() {
+		IntegerInput i1 = new IntegerInput("Count", "Key Inputs", 0);
+		IntegerInput i2 = new IntegerInput("Count", "Key Inputs", 0);
+		IntegerInput i3 = new IntegerInput("Count", "Key Inputs", 0);
+		i3.setValidRange(0, 5);
+
+		i1.parse(tokens("10"));
+		assertTrue(i2.copyValue(i1));
+		assertEquals(10, i2.getValue().intValue());
+
+		// A value parsed against a different range must be re-validated
+		assertFalse(i3.copyValue(i1));
+	}
+
+	@Test
+	public void testUnitType() {
+		ValueInput v1 = new ValueInput("Length", "Key Inputs", 0.0d);
+		ValueInput v2 = new ValueInput("Length", "Key Inputs", 0.0d);
+		ValueInput v3 = new ValueInput("Length", "Key Inputs", 0.0d);
+		v3.setUnitType(DistanceUnit.class);
+
+		v1.parse(tokens("2.5"));
+		assertTrue(v2.copyValue(v1));
+		assertEquals(2.5d, v2.getValue().doubleValue(), 0.0d);
+		assertFalse(v3.copyValue(v1));
+	}
+
+	@Test
+	public void testMutableValue() {
+		Vec3dInput p1 = new Vec3dInput("Size", "Key Inputs", new Vec3d());
+		Vec3dInput p2 = new Vec3dInput("Size", "Key Inputs", new Vec3d());
+
+		p1.parse(tokens("1 2 3"));
+		assertTrue(p2.copyValue(p1));
+		assertNotSame(p1.getValue(), p2.getValue());
+		assertTrue(p1.getValue().equals3(p2.getValue()));
+
+		StringInput s1 = new StringInput("Text", "Key Inputs", "");
+		StringInput s2 = new StringInput("Text", "Key Inputs", "");
+		s1.parse(tokens("'a b'"));
+		assertTrue(s2.copyValue(s1));
+		assertSame(s1.getValue(), s2.getValue());
+	}
+}
@@ -14,10 +14,15 @@
  */
 package com.jaamsim.input;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.Random;
 
 import org.junit.Test;
 
@@ -94,4 +99,115 @@ public void testQuoted() {
 	assertFalse(Parser.isQuoted("'"));
 	assertFalse(Parser.isQuoted("'' "));
 }
+
+/**
+ * The original regex-based tokenizer, used as the reference for the semantics
+ * of Parser.tokenize
+ */
+private static void referenceTokenize(ArrayList<String> tokens, String rec, boolean stripComments) {
+	final int cIndex = rec.indexOf("\"");
+	final String contents;
+	if (cIndex == -1)
+		contents = rec;
+	else
+		contents = rec.substring(0, cIndex);
+
+	String[] substring = contents.split("'", -1);
+	for (int i = 0; i < substring.length; i++) {
+		if (i % 2 != 0) {
+			tokens.add(substring[i]);
+			continue;
+		}
+
+		String temp = substring[i].replaceAll("([\\{\\}])", "\t$1\t");
+		String[] delimTokens = temp.split("[ ,\t]+", 0);
+		for (String each : delimTokens) {
+			if (each.length() == 0)
+				continue;
+
+			tokens.add(each);
+		}
+	}
+
+	if (!stripComments && cIndex > -1)
+		tokens.add(rec.substring(cIndex, rec.length()));
+}
+
+private static final String RECORD_CHARS = "AB1.- ,\t{}'\"\r";
+
+private static String randomRecord(Random rand) {
+	int len = rand.nextInt(30);
+	StringBuilder sb = new StringBuilder(len);
+	for (int i = 0; i < len; i++)
+		sb.append(RECORD_CHARS.charAt(rand.nextInt(RECORD_CHARS.length())));
+	return sb.toString();
+}
+
+@Test
+public void testTokenizeConformance() {
+	ArrayList<String> tok = new ArrayList<String>();
+	ArrayList<String> ref = new ArrayList<String>();
+	Random rand = new Random(42);
+	for (int i = 0; i < 50000; i++) {
+		String rec = randomRecord(rand);
+		boolean strip = rand.nextBoolean();
+
+		tok.clear();
+		ref.clear();
+		Parser.tokenize(tok, rec, strip);
+		referenceTokenize(ref, rec, strip);
+		assertEquals(rec, ref, tok);
+	}
+}
+
+@Test
+public void testTokenReader() throws IOException {
+	// Enough lines to span several blocks that are tokenized in parallel
+	Random rand = new Random(7);
+	StringBuilder file = new StringBuilder();
+	ArrayList<String> ref = new ArrayList<String>();
+	for (int i = 0; i < 20000; i++) {
+		String rec = randomRecord(rand).replace('\r', ' ');
+		file.append(rec).append('\n');
+		referenceTokenize(ref, rec, true);
+		ref.add("EOL");
+	}
+
+	TokenReader reader = new TokenReader(new BufferedReader(new StringReader(file.toString())));
+	ArrayList<String> tok = new ArrayList<String>();
+	while (reader.appendNextLine(tok))
+		tok.add("EOL");
+	reader.close();
+
+	assertEquals(ref, tok);
+}
+
+/**
+ * Compares the time taken by the regex-based and the single-pass tokenizers
+ */
+public static void main(String[] args) {
+	String[] recs = {
+		"Define Queue { Queue1 Queue2 Queue3 }",
+		"Queue1 Position { 1.500 -2.250 0.000 m } \" a comment",
+		"Server1 ServiceTime { 'Dist 1' } NextComponent { Queue2 }",
+		"Table1 Value { { 0.0 1.0 } { 1.0 2.5 } { 2.0 3.75 } { 3.0 4.125 } }",
+	};
+	ArrayList<String> tok = new ArrayList<String>();
+	int n = 2000000;
+	for (int pass = 0; pass < 3; pass++) {
+		long t0 = System.nanoTime();
+		for (int i = 0; i < n; i++) {
+			tok.clear();
+			referenceTokenize(tok, recs[i % recs.length], true);
+		}
+		long t1 = System.nanoTime();
+		for (int i = 0; i < n; i++) {
+			tok.clear();
+			Parser.tokenize(tok, recs[i % recs.length], true);
+		}
+		long t2 = System.nanoTime();
+		System.out.format("%d records: regex %.0f ms, single pass %.0f ms%n",
+		                  n, (t1 - t0) / 1.0e6d, (t2 - t1) / 1.0e6d);
+	}
+}
 }
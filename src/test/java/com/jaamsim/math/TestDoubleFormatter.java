@@ -0,0 +1,55 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.math;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TestDoubleFormatter {
+
+private static void check(double val, int decimals) {
+	String exp = String.format(Locale.ROOT, "%." + decimals + "f", val);
+	assertEquals("value " + val, exp, DoubleFormatter.format(val, decimals));
+}
+
+@Test
+public void testSpecialValues() {
+	double[] vals = { 0.0d, -0.0d, 0.5d, 1.5d, 2.5d, -2.5d, 0.125d, 1.005d, 2.675d,
+	                  -0.0001d, 9.9999d, 999.9995d, 1.0e12d, 1.0e-12d,
+	                  Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+	                  Double.MAX_VALUE, Double.MIN_VALUE };
+	for (double val : vals) {
+		for (int dec = 0; dec <= 12; dec++)
+			check(val, dec);
+	}
+}
+
+@Test
+public void testRandomValues() {
+	Random rand = new Random(12345);
+	for (int i = 0; i < 20000; i++) {
+		double val = (rand.nextDouble() - 0.5d) * Math.pow(10.0d, rand.nextInt(14) - 4);
+		check(val, rand.nextInt(7));
+
+		// Values with few significant digits exercise the tie handling
+		double tie = Math.round(val * 1000.0d) / 1000.0d;
+		check(tie, rand.nextInt(4));
+	}
+}
+}
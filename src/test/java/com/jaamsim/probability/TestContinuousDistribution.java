@@ -19,6 +19,7 @@ import org.junit.Test;
 import com.jaamsim.ProbabilityDistributions.ContinuousDistribution;
 import com.jaamsim.ProbabilityDistributions.Distribution;
 import com.jaamsim.input.InputAgent;
+import com.jaamsim.rng.MRG1999a;
 import com.sandwell.JavaSimulation.ObjectType;
 
 public class TestContinuousDistribution {
@@ -52,4 +53,36 @@ public class TestContinuousDistribution {
 		assertTrue( Math.abs( dist.getSampleMean(0.0) / dist.getMeanValue(0.0) - 1.0 ) < 0.001 );
 		assertTrue( Math.abs( dist.getSampleStandardDeviation(0.0) / dist.getStandardDeviation(0.0) - 1.0 ) < 0.001 );
 	}
+
+	@Test
+	/**
+	 * Tests that the binary search returns the samples of a linear search
+	 */
+	public void SearchSamples() {
+		ObjectType t = InputAgent.defineEntityWithUniqueName(ObjectType.class, "TestType", true);
+		InputAgent.processEntity_Keyword_Value( t, "JavaClass", "com.jaamsim.units.DimensionlessUnit");
+
+		ContinuousDistribution dist = InputAgent.defineEntityWithUniqueName(ContinuousDistribution.class, "Dist", true);
+		InputAgent.processEntity_Keyword_Value( dist, "UnitType", t.getInputName());
+		InputAgent.processEntity_Keyword_Value( dist, "ValueList", "1.0  3.0  5.0  10.0  12.0  20.0");
+		InputAgent.processEntity_Keyword_Value( dist, "CumulativeProbabilityList", "0.0  0.1  0.5  0.8  0.95  1.0");
+		InputAgent.processEntity_Keyword_Value( dist, "RandomSeed", "1");
+		dist.validate();
+		dist.earlyInit();
+
+		double[] values = { 1.0, 3.0, 5.0, 10.0, 12.0, 20.0 };
+		double[] cumList = { 0.0, 0.1, 0.5, 0.8, 0.95, 1.0 };
+		MRG1999a rng = new MRG1999a(1, 0);
+		for (int n = 0; n < 100000; n++) {
+			double rand = rng.nextUniform();
+			double sample = values[values.length - 1];
+			for (int i = 1; i < cumList.length; i++) {
+				if (rand < cumList[i]) {
+					sample = values[i-1] + (rand-cumList[i-1])*(values[i]-values[i-1])/(cumList[i]-cumList[i-1]);
+					break;
+				}
+			}
+			assertTrue( dist.getNextSample(0.0) == sample );
+		}
+	}
 }
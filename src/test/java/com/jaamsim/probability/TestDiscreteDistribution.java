@@ -18,7 +18,9 @@ import static org.junit.Assert.assertTrue;
 import org.junit.Test;
 import com.jaamsim.ProbabilityDistributions.DiscreteDistribution;
 import com.jaamsim.input.InputAgent;
+import com.jaamsim.rng.MRG1999a;
 import com.sandwell.JavaSimulation.ObjectType;
+import com.sandwell.JavaSimulation.Simulation;
 
 public class TestDiscreteDistribution {
 
@@ -43,4 +45,89 @@ public class TestDiscreteDistribution {
 		assertTrue( Math.abs( dist.getSampleMean(0.0) / dist.getMeanValue(0.0) - 1.0 ) < 0.001 );
 		assertTrue( Math.abs( dist.getSampleStandardDeviation(0.0) / dist.getStandardDeviation(0.0) - 1.0 ) < 0.001 );
 	}
+
+	@Test
+	/**
+	 * Tests that LegacySampling reproduces the samples of a linear search
+	 */
+	public void LegacySamples() {
+		Simulation sim = InputAgent.defineEntityWithUniqueName(Simulation.class, "Simulation", true);
+		InputAgent.processEntity_Keyword_Value( sim, "LegacySampling", "TRUE");
+
+		ObjectType t = InputAgent.defineEntityWithUniqueName(ObjectType.class, "TestType", true);
+		InputAgent.processEntity_Keyword_Value( t, "JavaClass", "com.jaamsim.units.DimensionlessUnit");
+
+		DiscreteDistribution dist = InputAgent.defineEntityWithUniqueName(DiscreteDistribution.class, "Dist", true);
+		InputAgent.processEntity_Keyword_Value( dist, "UnitType", t.getInputName());
+		InputAgent.processEntity_Keyword_Value( dist, "ValueList", "1.0  2.0  3.0  4.0  5.0  6.0");
+		InputAgent.processEntity_Keyword_Value( dist, "ProbabilityList", "0.1  0.25  0.0  0.3  0.15  0.2");
+		InputAgent.processEntity_Keyword_Value( dist, "RandomSeed", "1");
+		dist.validate();
+		try {
+			dist.earlyInit();
+		}
+		finally {
+			InputAgent.processEntity_Keyword_Value( sim, "LegacySampling", "FALSE");
+		}
+
+		double[] probs = { 0.1, 0.25, 0.0, 0.3, 0.15, 0.2 };
+		MRG1999a rng = new MRG1999a(1, 0);
+		for (int n = 0; n < 100000; n++) {
+			double rand = rng.nextUniform();
+			double cumProb = 0.0;
+			int index = probs.length - 1;
+			for (int i = 0; i < probs.length; i++) {
+				cumProb += probs[i];
+				if (rand <= cumProb) {
+					index = i;
+					break;
+				}
+			}
+			assertTrue( dist.getNextSample(0.0) == index + 1.0 );
+		}
+	}
+
+	@Test
+	/**
+	 * Tests the alias table for a long list of values
+	 */
+	public void AliasTable() {
+		ObjectType t = InputAgent.defineEntityWithUniqueName(ObjectType.class, "TestType", true);
+		InputAgent.processEntity_Keyword_Value( t, "JavaClass", "com.jaamsim.units.DimensionlessUnit");
+
+		// Probabilities proportional to the value, every tenth value is never selected
+		int numValues = 5000;
+		double[] probs = new double[numValues];
+		double sum = 0.0;
+		for (int i = 0; i < numValues; i++) {
+			probs[i] = (i % 10 == 0) ? 0.0 : i + 1.0;
+			sum += probs[i];
+		}
+		StringBuilder values = new StringBuilder();
+		StringBuilder probList = new StringBuilder();
+		double last = 0.0;
+		for (int i = 0; i < numValues; i++) {
+			values.append(i + 1).append(" ");
+			probs[i] /= sum;
+			if (i == numValues - 1)
+				probs[i] = 1.0 - last;
+			last += probs[i];
+			probList.append(probs[i]).append(" ");
+		}
+
+		DiscreteDistribution dist = InputAgent.defineEntityWithUniqueName(DiscreteDistribution.class, "Dist", true);
+		InputAgent.processEntity_Keyword_Value( dist, "UnitType", t.getInputName());
+		InputAgent.processEntity_Keyword_Value( dist, "ValueList", values.toString());
+		InputAgent.processEntity_Keyword_Value( dist, "ProbabilityList", probList.toString());
+		InputAgent.processEntity_Keyword_Value( dist, "RandomSeed", "1");
+		dist.validate();
+		dist.earlyInit();
+
+		for (int i = 0; i < 1000000; i++) {
+			double sample = dist.getNextSample(0.0);
+			assertTrue( ((int)sample - 1) % 10 != 0 );
+		}
+		assertTrue( Math.abs( dist.getSampleMean(0.0) / dist.getMeanValue(0.0) - 1.0 ) < 0.001 );
+		assertTrue( Math.abs( dist.getSampleStandardDeviation(0.0) / dist.getStandardDeviation(0.0) - 1.0 ) < 0.005 );
+	}
 }
@@ -41,4 +41,32 @@ public class TestExponentialDistribution {
 		assertTrue( Math.abs( dist.getSampleMean(0.0) / dist.getMeanValue(0.0) - 1.0 ) < 0.001 );
 		assertTrue( Math.abs( dist.getSampleStandardDeviation(0.0) / dist.getStandardDeviation(0.0) - 1.0 ) < 0.005 );
 	}
+
+	@Test
+	/**
+	 * Tests sampling between MinValue and MaxValue by inverse transform
+	 */
+	public void TruncatedMean() {
+		ObjectType t = InputAgent.defineEntityWithUniqueName(ObjectType.class, "TestType", true);
+		InputAgent.processEntity_Keyword_Value( t, "JavaClass", "com.jaamsim.units.DimensionlessUnit");
+
+		ExponentialDistribution dist = InputAgent.defineEntityWithUniqueName(ExponentialDistribution.class, "Dist", true);
+		InputAgent.processEntity_Keyword_Value( dist, "UnitType", t.getInputName());
+		InputAgent.processEntity_Keyword_Value( dist, "Mean", "1.0");
+		InputAgent.processEntity_Keyword_Value( dist, "MinValue", "1.0");
+		InputAgent.processEntity_Keyword_Value( dist, "MaxValue", "2.0");
+		dist.validate();
+		dist.earlyInit();
+
+		for (int i = 0; i < 100000; i++) {
+			double sample = dist.getNextSample(0.0);
+			assertTrue( sample >= 1.0 && sample <= 2.0 );
+		}
+
+		// Mean of the exponential distribution between 1 and 2
+		double e1 = Math.exp(-1.0);
+		double e2 = Math.exp(-2.0);
+		double expected = (2.0*e1 - 3.0*e2) / (e1 - e2);
+		assertTrue( Math.abs( dist.getSampleMean(0.0) / expected - 1.0 ) < 0.005 );
+	}
 }
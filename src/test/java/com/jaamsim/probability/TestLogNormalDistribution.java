@@ -43,4 +43,30 @@ public class TestLogNormalDistribution {
 		assertTrue( Math.abs( dist.getSampleMean(0.0) / dist.getMeanValue(0.0) - 1.0 ) < 0.0025 );
 		assertTrue( Math.abs( dist.getSampleStandardDeviation(0.0) / dist.getStandardDeviation(0.0) - 1.0 ) < 0.0125 );
 	}
+
+	@Test
+	/**
+	 * Tests sampling beyond the point where the CDF rounds to 1
+	 */
+	public void FarUpperTail() {
+		ObjectType t = InputAgent.defineEntityWithUniqueName(ObjectType.class, "TestType", true);
+		InputAgent.processEntity_Keyword_Value( t, "JavaClass", "com.jaamsim.units.DimensionlessUnit");
+
+		// MinValue 8 standard deviations above the normal mean
+		double min = Math.exp(8.0);
+		LogNormalDistribution dist = InputAgent.defineEntityWithUniqueName(LogNormalDistribution.class, "Dist", true);
+		InputAgent.processEntity_Keyword_Value( dist, "UnitType", t.getInputName());
+		InputAgent.processEntity_Keyword_Value( dist, "MinValue", String.valueOf(min));
+		dist.validate();
+		dist.earlyInit();
+
+		for (int i = 0; i < 100000; i++) {
+			double sample = dist.getNextSample(0.0);
+			assertTrue( sample >= min && sample < Double.POSITIVE_INFINITY );
+		}
+
+		// exp(1/2) * (1 - Phi(7)) / (1 - Phi(8))
+		double expected = 3391.8462244239586;
+		assertTrue( Math.abs( dist.getSampleMean(0.0) / expected - 1.0 ) < 0.002 );
+	}
 }
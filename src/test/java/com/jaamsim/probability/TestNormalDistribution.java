@@ -18,7 +18,9 @@ import static org.junit.Assert.assertTrue;
 import org.junit.Test;
 import com.jaamsim.ProbabilityDistributions.NormalDistribution;
 import com.jaamsim.input.InputAgent;
+import com.sandwell.JavaSimulation.ErrorException;
 import com.sandwell.JavaSimulation.ObjectType;
+import com.sandwell.JavaSimulation.Simulation;
 
 public class TestNormalDistribution {
 
@@ -42,4 +44,94 @@ public class TestNormalDistribution {
 		assertTrue( Math.abs( dist.getSampleMean(0.0) / dist.getMeanValue(0.0) - 1.0 ) < 0.001 );
 		assertTrue( Math.abs( dist.getSampleStandardDeviation(0.0) / dist.getStandardDeviation(0.0) - 1.0 ) < 0.001 );
 	}
+
+	@Test
+	/**
+	 * Tests sampling the upper tail of the distribution by inverse transform
+	 */
+	public void TruncatedMean() {
+		ObjectType t = InputAgent.defineEntityWithUniqueName(ObjectType.class, "TestType", true);
+		InputAgent.processEntity_Keyword_Value( t, "JavaClass", "com.jaamsim.units.DimensionlessUnit");
+
+		NormalDistribution dist = InputAgent.defineEntityWithUniqueName(NormalDistribution.class, "Dist", true);
+		InputAgent.processEntity_Keyword_Value( dist, "UnitType", t.getInputName());
+		InputAgent.processEntity_Keyword_Value( dist, "Mean", "10.0");
+		InputAgent.processEntity_Keyword_Value( dist, "StandardDeviation", "2.0");
+		InputAgent.processEntity_Keyword_Value( dist, "MinValue", "16.0");
+		dist.validate();
+		dist.earlyInit();
+
+		for (int i = 0; i < 100000; i++)
+			assertTrue( dist.getNextSample(0.0) >= 16.0 );
+
+		// Mean of the normal distribution above 3 standard deviations
+		double phi = Math.exp(-0.5 * 3.0 * 3.0) / Math.sqrt(2.0 * Math.PI);
+		double tail = 1.3498980316300946e-3;
+		double expected = 10.0 + 2.0 * phi / tail;
+		assertTrue( Math.abs( dist.getSampleMean(0.0) / expected - 1.0 ) < 0.001 );
+	}
+
+	@Test
+	/**
+	 * Tests sampling beyond the point where the CDF rounds to 1
+	 */
+	public void FarUpperTail() {
+		// Number of standard deviations and the mean of the normal
+		// distribution above it, phi(z) / (1 - Phi(z))
+		double[][] cases = { { 8.0, 8.121368112236068 }, { 10.0, 10.098093233962423 } };
+
+		ObjectType t = InputAgent.defineEntityWithUniqueName(ObjectType.class, "TestType", true);
+		InputAgent.processEntity_Keyword_Value( t, "JavaClass", "com.jaamsim.units.DimensionlessUnit");
+
+		for (double[] each : cases) {
+			double min = 10.0 + 2.0 * each[0];
+			NormalDistribution dist = InputAgent.defineEntityWithUniqueName(NormalDistribution.class, "Dist", true);
+			InputAgent.processEntity_Keyword_Value( dist, "UnitType", t.getInputName());
+			InputAgent.processEntity_Keyword_Value( dist, "Mean", "10.0");
+			InputAgent.processEntity_Keyword_Value( dist, "StandardDeviation", "2.0");
+			InputAgent.processEntity_Keyword_Value( dist, "MinValue", String.valueOf(min));
+			dist.validate();
+			dist.earlyInit();
+
+			for (int i = 0; i < 100000; i++) {
+				double sample = dist.getNextSample(0.0);
+				assertTrue( sample >= min && sample < Double.POSITIVE_INFINITY );
+			}
+
+			double expected = 10.0 + 2.0 * each[1];
+			assertTrue( Math.abs( dist.getSampleMean(0.0) / expected - 1.0 ) < 0.001 );
+		}
+	}
+
+	@Test
+	/**
+	 * Tests that rejection sampling gives up on a range that is never sampled
+	 */
+	public void RejectionLimit() {
+		Simulation sim = InputAgent.defineEntityWithUniqueName(Simulation.class, "Simulation", true);
+		InputAgent.processEntity_Keyword_Value( sim, "LegacySampling", "TRUE");
+
+		ObjectType t = InputAgent.defineEntityWithUniqueName(ObjectType.class, "TestType", true);
+		InputAgent.processEntity_Keyword_Value( t, "JavaClass", "com.jaamsim.units.DimensionlessUnit");
+
+		NormalDistribution dist = InputAgent.defineEntityWithUniqueName(NormalDistribution.class, "Dist", true);
+		InputAgent.processEntity_Keyword_Value( dist, "UnitType", t.getInputName());
+		InputAgent.processEntity_Keyword_Value( dist, "MinValue", "100.0");
+		dist.validate();
+		try {
+			dist.earlyInit();
+		}
+		finally {
+			InputAgent.processEntity_Keyword_Value( sim, "LegacySampling", "FALSE");
+		}
+
+		boolean thrown = false;
+		try {
+			dist.getNextSample(0.0);
+		}
+		catch (ErrorException e) {
+			thrown = true;
+		}
+		assertTrue( thrown );
+	}
 }
@@ -0,0 +1,102 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.probability;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.jaamsim.ProbabilityDistributions.Distribution;
+import com.jaamsim.ProbabilityDistributions.ErlangDistribution;
+import com.jaamsim.ProbabilityDistributions.ExponentialDistribution;
+import com.jaamsim.ProbabilityDistributions.GammaDistribution;
+import com.jaamsim.ProbabilityDistributions.LogLogisticDistribution;
+import com.jaamsim.ProbabilityDistributions.LogNormalDistribution;
+import com.jaamsim.ProbabilityDistributions.NormalDistribution;
+import com.jaamsim.ProbabilityDistributions.TriangularDistribution;
+import com.jaamsim.ProbabilityDistributions.UniformDistribution;
+import com.jaamsim.ProbabilityDistributions.WeibullDistribution;
+import com.jaamsim.input.InputAgent;
+import com.sandwell.JavaSimulation.ObjectType;
+
+public class TestUniformBuffering {
+
+	private static final Class<?>[] distClasses = {
+		UniformDistribution.class,
+		ExponentialDistribution.class,
+		TriangularDistribution.class,
+		WeibullDistribution.class,
+		LogLogisticDistribution.class,
+		NormalDistribution.class,
+		LogNormalDistribution.class,
+		ErlangDistribution.class,
+		GammaDistribution.class,
+	};
+
+	private static Distribution createDistribution(Class<?> klass, int bufferSize) {
+		ObjectType t = InputAgent.defineEntityWithUniqueName(ObjectType.class, "TestType", true);
+		InputAgent.processEntity_Keyword_Value( t, "JavaClass", "com.jaamsim.units.DimensionlessUnit");
+
+		Distribution.setUniformBufferSize(bufferSize);
+		Distribution dist;
+		try {
+			dist = InputAgent.defineEntityWithUniqueName(klass.asSubclass(Distribution.class), "Dist", true);
+		}
+		finally {
+			Distribution.setUniformBufferSize(16);
+		}
+		InputAgent.processEntity_Keyword_Value( dist, "UnitType", t.getInputName());
+		InputAgent.processEntity_Keyword_Value( dist, "RandomSeed", "1");
+		InputAgent.processEntity_Keyword_Value( dist, "MinValue", "-10.0");
+		InputAgent.processEntity_Keyword_Value( dist, "MaxValue", "10.0");
+		dist.validate();
+		dist.earlyInit();
+		return dist;
+	}
+
+	@Test
+	public void BufferedSamplesMatch() {
+		for (Class<?> klass : distClasses) {
+			Distribution dist1 = createDistribution(klass, 0);
+			Distribution dist2 = createDistribution(klass, 16);
+			for (int i = 0; i < 10000; i++)
+				assertTrue(dist1.getNextSample(0.0d) == dist2.getNextSample(0.0d));
+		}
+	}
+
+	/**
+	 * Reports the samples per second for each distribution class, with and
+	 * without buffered uniforms.
+	 */
+	public static void main(String[] args) {
+		int n = 5000000;
+		for (int pass = 0; pass < 3; pass++) {
+			for (Class<?> klass : distClasses) {
+				Distribution dist1 = createDistribution(klass, 0);
+				Distribution dist2 = createDistribution(klass, 64);
+
+				long t0 = System.nanoTime();
+				double total1 = TestContinuousDistribution.sampleDistribution(dist1, n);
+				long t1 = System.nanoTime();
+				double total2 = TestContinuousDistribution.sampleDistribution(dist2, n);
+				long t2 = System.nanoTime();
+
+				System.out.format("%-24s unbuffered %6.2f M/s, buffered %6.2f M/s%s%n",
+				                  klass.getSimpleName(), n * 1.0e3d / (t1 - t0), n * 1.0e3d / (t2 - t1),
+				                  total1 == total2 ? "" : " MISMATCH");
+			}
+		}
+	}
+}
@@ -160,4 +160,72 @@ public class TestMRG1999a {
 			assertTrue(test2.toString().equals(known2[i]));
 		}
 	}
+
+	private static String seedString(long[] seeds) {
+		return String.format("%d, %d, %d, %d, %d, %d", seeds[0], seeds[1], seeds[2], seeds[3], seeds[4], seeds[5]);
+	}
+
+	@Test
+	public void testStreamSeeking() {
+		long[] seeds1 = { 12345, 12345, 12345, 12345, 12345, 12345 };
+		long[] seeds2 = { 12345, 12345, 12345, 12345, 12345, 12345 };
+		for (int i = 1; i <= 5000; i++) {
+			MRG1999a.advanceStream(seeds1);
+			MRG1999a.advanceSubstream(seeds2);
+
+			long[] test1 = { 12345, 12345, 12345, 12345, 12345, 12345 };
+			MRG1999a.advanceStream(test1, i);
+			assertTrue(seedString(test1).equals(seedString(seeds1)));
+
+			long[] test2 = { 12345, 12345, 12345, 12345, 12345, 12345 };
+			MRG1999a.advanceSubstream(test2, i);
+			assertTrue(seedString(test2).equals(seedString(seeds2)));
+		}
+
+		// Seeking to a large stream matches stepping there one stream at a time
+		long[] seeds3 = { 12345, 12345, 12345, 12345, 12345, 12345 };
+		for (int i = 0; i < 1000000; i++)
+			MRG1999a.advanceStream(seeds3);
+		for (int i = 0; i < 1000; i++)
+			MRG1999a.advanceSubstream(seeds3);
+
+		MRG1999a test3 = new MRG1999a(1000000, 1000);
+		assertTrue(test3.toString().equals(seedString(seeds3)));
+
+		// The largest stream and substream numbers use every jump matrix
+		long[] seeds4 = { 0, 0, 1, 0, 0, 1 };
+		MRG1999a.advanceStream(seeds4, Integer.MAX_VALUE);
+		MRG1999a.advanceStream(seeds4, 1);
+		long[] seeds5 = { 0, 0, 1, 0, 0, 1 };
+		MRG1999a.advanceStream(seeds5, 1 << 30);
+		MRG1999a.advanceStream(seeds5, 1 << 30);
+		assertTrue(seedString(seeds4).equals(seedString(seeds5)));
+	}
+
+	@Test
+	public void testBlockUniforms() {
+		MRG1999a ref = new MRG1999a(3, 7);
+		MRG1999a block = new MRG1999a(3, 7);
+		MRG1999a buffered = new MRG1999a();
+		buffered.setBufferSize(16);
+		buffered.setSeedStream(3, 7);
+
+		// Mix block lengths that are and are not multiples of the unrolling
+		double[] out = new double[40];
+		for (int len = 0; len < 35; len++) {
+			block.nextUniforms(out, 2, len);
+			for (int i = 0; i < len; i++) {
+				double u = ref.nextUniform();
+				assertTrue(out[2 + i] == u);
+				assertTrue(buffered.nextUniform() == u);
+			}
+			assertTrue(block.toString().equals(ref.toString()));
+		}
+
+		// Blocks drawn from a buffered generator start with the buffered values
+		buffered.nextUniforms(out, 0, 40);
+		for (int i = 0; i < 40; i++)
+			assertTrue(out[i] == ref.nextUniform());
+		assertTrue(buffered.nextUniform() == ref.nextUniform());
+	}
 }
@@ -0,0 +1,52 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.jaamsim.ui;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+
+import org.junit.Test;
+
+import com.sandwell.JavaSimulation.FileEntity;
+
+public class TestLogBox {
+
+	@Test
+	public void testMirrorNotRateLimited() throws Exception {
+		File file = File.createTempFile("TestLogBox", ".log");
+		file.deleteOnExit();
+		FileEntity mirror = new FileEntity(file.getPath());
+
+		// More lines than the log shows in one second, all reach the file
+		int numLines = 2000;
+		for (int i = 0; i < numLines; i++)
+			LogBox.log(mirror, "Line %d", i);
+		LogBox.flush();
+		mirror.close();
+
+		BufferedReader in = new BufferedReader(new FileReader(file));
+		try {
+			for (int i = 0; i < numLines; i++)
+				assertEquals("Line " + i, in.readLine());
+			assertEquals(null, in.readLine());
+		}
+		finally {
+			in.close();
+		}
+	}
+}
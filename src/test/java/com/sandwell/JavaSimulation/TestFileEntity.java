@@ -0,0 +1,78 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.sandwell.JavaSimulation;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+
+import org.junit.Test;
+
+public class TestFileEntity {
+
+	private static int countLines(File file) throws IOException {
+		BufferedReader in = new BufferedReader(new FileReader(file));
+		try {
+			int n = 0;
+			while (in.readLine() != null)
+				n++;
+			return n;
+		}
+		finally {
+			in.close();
+		}
+	}
+
+	@Test
+	public void testSyncAll() throws Exception {
+		File file = File.createTempFile("TestFileEntity", ".txt");
+		file.deleteOnExit();
+		final FileEntity out = new FileEntity(file.getPath(), false, true);
+
+		// Buffered output of an open asynchronous file is only on disk once synced
+		for (int i = 0; i < 100; i++) {
+			out.write("Line " + i);
+			out.newLine();
+		}
+		assertEquals(0, countLines(file));
+		FileEntity.syncAll();
+		assertEquals(100, countLines(file));
+
+		// Another thread may sync the file while it is being written
+		Thread writer = new Thread() {
+			@Override
+			public void run() {
+				for (int i = 0; i < 100000; i++) {
+					out.write("Line " + i);
+					out.newLine();
+				}
+			}
+		};
+		writer.start();
+		while (writer.isAlive())
+			FileEntity.syncAll();
+		writer.join();
+		FileEntity.syncAll();
+		assertEquals(100100, countLines(file));
+
+		// A closed file is no longer synced
+		out.close();
+		FileEntity.syncAll();
+		assertEquals(100100, countLines(file));
+	}
+}
@@ -0,0 +1,301 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.sandwell.JavaSimulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import com.jaamsim.input.InputAgent;
+import com.jaamsim.input.Parser;
+import com.jaamsim.units.DimensionlessUnit;
+import com.jaamsim.units.DistanceUnit;
+import com.jaamsim.units.Unit;
+
+/**
+ * Compares the in-place numeric parsers with the copying implementations they
+ * replaced, the old versions are reproduced here as reference.
+ */
+public class TestNumericInputs {
+
+	private static final double INF = Double.POSITIVE_INFINITY;
+
+	private static String metres;
+	private static String kilometres;
+
+	private static void defineUnits() {
+		if (metres != null)
+			return;
+
+		DistanceUnit m = InputAgent.defineEntityWithUniqueName(DistanceUnit.class, "m", true);
+		metres = m.getInputName();
+
+		DistanceUnit km = InputAgent.defineEntityWithUniqueName(DistanceUnit.class, "km", true);
+		InputAgent.processEntity_Keyword_Value(km, "ConversionFactorToSI", "1000");
+		kilometres = km.getInputName();
+	}
+
+	private static StringVector tokens(String str) {
+		ArrayList<String> temp = new ArrayList<String>();
+		Parser.tokenize(temp, str);
+		StringVector ret = new StringVector(temp.size());
+		ret.addAll(temp);
+		return ret;
+	}
+
+	private static String oldJoin(StringVector data) {
+		StringBuilder out = new StringBuilder(data.size() * 6);
+		for (int i = 0; i < data.size(); i++) {
+			String dat = data.get(i);
+			if (Parser.needsQuoting(dat) && !dat.equals("{") && !dat.equals("}"))
+				out.append("'").append(dat).append("'");
+			else
+				out.append(dat);
+
+			if( i < data.size() - 1 )
+				out.append("  ");
+		}
+		return out.toString();
+	}
+
+	private static DoubleVector oldParseDoubleVector(StringVector input, double minValue, double maxValue, double factor) {
+		DoubleVector temp = new DoubleVector(input.size());
+		for (int i = 0; i < input.size(); i++) {
+			try {
+				temp.add(Input.parseDouble(input.get(i), minValue, maxValue, factor));
+			} catch (InputErrorException e) {
+				throw new InputErrorException(Input.INP_ERR_ELEMENT, i, e.getMessage());
+			}
+		}
+		return temp;
+	}
+
+	private static DoubleVector oldParseDoubleVector(StringVector data, double minValue, double maxValue, String defaultUnitString) {
+		StringVector numericData = new StringVector(data);
+
+		double conversionFactor = 1.0;
+		String unitString = data.get( data.size()-1 );
+		if( data.size() > 1 && !Tester.isDouble(unitString) ) {
+			Unit unit = Input.parseUnits(unitString);
+			Unit defaultUnit = Input.tryParseEntity( defaultUnitString.replaceAll("[()]", "").trim(), Unit.class );
+			if( defaultUnit == null )
+				throw new InputErrorException( "Could not determine default units " + defaultUnitString );
+
+			if (defaultUnit.getClass() != unit.getClass())
+				throw new InputErrorException( "Cannot convert from %s to %s", defaultUnit.getName(), unit.getName());
+
+			conversionFactor = unit.getConversionFactorToUnit( defaultUnit );
+			numericData.remove( numericData.size()-1 );
+		}
+
+		return oldParseDoubleVector( numericData, minValue, maxValue, conversionFactor);
+	}
+
+	private static DoubleVector oldParseDoubles(StringVector input, double minValue, double maxValue, Class<? extends Unit> unitType) {
+		double factor = 1.0d;
+		int numDoubles = input.size();
+		if (unitType != DimensionlessUnit.class) {
+			Unit unit = Input.tryParseEntity(input.get(input.size() - 1), unitType);
+			factor = unit.getConversionFactorToSI();
+			numDoubles = input.size() - 1;
+		}
+
+		DoubleVector temp = new DoubleVector(numDoubles);
+		for (int i = 0; i < numDoubles; i++) {
+			try {
+				temp.add(Input.parseDouble(input.get(i), minValue, maxValue, factor));
+			} catch (InputErrorException e) {
+				throw new InputErrorException(Input.INP_ERR_ELEMENT, i, e.getMessage());
+			}
+		}
+		return temp;
+	}
+
+	private static ArrayList<DoubleVector> oldParseTable(StringVector input, String units) {
+		ArrayList<DoubleVector> tab = new ArrayList<DoubleVector>();
+		for (StringVector each : InputAgent.splitStringVectorByBraces(input))
+			tab.add(oldParseDoubleVector(each, -INF, INF, units));
+		return tab;
+	}
+
+	private static TimeSeriesData oldParseSeries(StringVector input, Class<? extends Unit> unitType) {
+		long startingYearOffset = -1;
+		long lastTime = -1;
+
+		DoubleVector times = new DoubleVector(input.size()/4);
+		DoubleVector values = new DoubleVector(input.size()/4);
+		StringVector each = new StringVector();
+		for (int i=0; i < input.size(); i++) {
+			if (input.get(i).equals("{") )
+				continue;
+
+			each.clear();
+			for (int j = i; j < input.size(); j++, i++){
+				if (input.get(j).equals("}"))
+					break;
+
+				each.add(input.get(j));
+			}
+
+			Input.assertCountRange(each, 2, 3);
+
+			long recordus = Input.parseRFC8601DateTime(each.get(0));
+			if (recordus <= lastTime)
+				throw new InputErrorException( "The times must be given in increasing order on " + each.get(0));
+
+			lastTime = recordus;
+			if (startingYearOffset == -1) {
+				startingYearOffset = recordus / Input.usPerYr;
+				startingYearOffset *= Input.usPerYr;
+			}
+
+			each.remove(0);
+			DoubleVector v = oldParseDoubles(each, -INF, INF, unitType);
+			times.add((recordus - startingYearOffset) / 3.6e9d);
+			values.add(v.get(0));
+		}
+		return new TimeSeriesData( times, values );
+	}
+
+	private static ArrayList<DoubleVector> parseTable(String str, String units) {
+		DoubleTableInput in = new DoubleTableInput("Table", "Key Inputs", null);
+		in.setUnits(units);
+		in.parse(tokens(str));
+		return in.getValue();
+	}
+
+	private static void assertTableEquals(String str, String units) {
+		ArrayList<DoubleVector> exp = oldParseTable(tokens(str), units);
+		ArrayList<DoubleVector> tab = parseTable(str, units);
+		assertEquals(exp.size(), tab.size());
+		for (int i = 0; i < exp.size(); i++) {
+			assertEquals(exp.get(i).size(), tab.get(i).size());
+			for (int j = 0; j < exp.get(i).size(); j++)
+				assertEquals(exp.get(i).get(j), tab.get(i).get(j), 0.0d);
+		}
+	}
+
+	@Test
+	public void testDoubleTable() {
+		defineUnits();
+
+		// Bracketed rows, with and without unit suffixes
+		assertTableEquals("{ 1 2 3 } { 4 5 6 " + kilometres + " }", metres);
+		assertTableEquals("{ 1.5 } { 2.5 " + metres + " } { 0.25 " + kilometres + " }", kilometres);
+		assertTableEquals("{ 1 2 3 }", "");
+
+		// A single unbracketed row
+		assertTableEquals("7 8 9 " + kilometres, metres);
+
+		ArrayList<DoubleVector> tab = parseTable("{ 1 2 } { 3 " + kilometres + " }", metres);
+		assertEquals(2, tab.size());
+		assertEquals(3000.0d, tab.get(1).get(0), 0.0d);
+	}
+
+	@Test
+	public void testDoubleTableErrors() {
+		defineUnits();
+
+		// A bad element reports the same message as before
+		String str = "{ 1 2 } { 3 x 5 }";
+		String exp = null;
+		try {
+			oldParseTable(tokens(str), "");
+			fail("old parser accepted a bad element");
+		}
+		catch (InputErrorException e) {
+			exp = e.getMessage();
+		}
+		try {
+			parseTable(str, "");
+			fail("bad element accepted");
+		}
+		catch (InputErrorException e) {
+			assertEquals(exp, e.getMessage());
+		}
+
+		// An empty row used to fail with an IndexOutOfBoundsException, it
+		// is now reported as an input error
+		str = "{ 1 2 } { } { 3 }";
+		try {
+			oldParseTable(tokens(str), metres);
+			fail("old parser accepted an empty row");
+		}
+		catch (IndexOutOfBoundsException e) {}
+		try {
+			parseTable(str, metres);
+			fail("empty row accepted");
+		}
+		catch (InputErrorException e) {
+			assertTrue(e.getMessage().contains("[]"));
+		}
+	}
+
+	private static void assertSeriesEquals(String str, Class<? extends Unit> unitType) {
+		TimeSeriesDataInput in = new TimeSeriesDataInput("Value", "Key Inputs", null);
+		in.setUnitType(unitType);
+		in.parse(tokens(str));
+		TimeSeriesData data = in.getValue();
+		TimeSeriesData exp = oldParseSeries(tokens(str), unitType);
+
+		assertEquals(exp.timeList.length, data.timeList.length);
+		for (int i = 0; i < exp.timeList.length; i++) {
+			assertEquals(exp.timeList[i], data.timeList[i], 0.0d);
+			assertEquals(exp.valueList[i], data.valueList[i], 0.0d);
+		}
+	}
+
+	@Test
+	public void testTimeSeriesData() {
+		defineUnits();
+
+		assertSeriesEquals("{ '2010-01-01 00:00:00' 1.5 } { '2010-01-01 06:00:00' 2.5 } { '2010-01-02 00:00:00' -0.5 }",
+		                   DimensionlessUnit.class);
+		assertSeriesEquals("{ '2010-01-01 00:00:00' 1.5 " + metres + " } { '2010-03-01 12:00:00' 0.25 " + kilometres + " }",
+		                   DistanceUnit.class);
+
+		// A record with a missing value is rejected as before
+		TimeSeriesDataInput in = new TimeSeriesDataInput("Value", "Key Inputs", null);
+		try {
+			in.parse(tokens("{ '2010-01-01 00:00:00' 1.5 } { '2010-01-02 00:00:00' }"));
+			fail("record without a value accepted");
+		}
+		catch (InputErrorException e) {}
+	}
+
+	@Test
+	public void testValueString() {
+		String[] inputs = {
+			"{ 1 2 3 } { 4 5 6 km }",
+			"{ '2010-01-01 00:00:00' 1.5 }",
+			"Entity1  'a b'  { }",
+			"",
+		};
+		for (String each : inputs) {
+			StringVector tok = tokens(each);
+			DoubleTableInput in = new DoubleTableInput("Table", "Key Inputs", null);
+			in.setValueTokens(tok);
+			assertEquals(oldJoin(tok), in.getValueString());
+			assertEquals(oldJoin(tok), in.getValueString());
+
+			in.setValueString("x");
+			assertEquals("x", in.getValueString());
+		}
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.sandwell.JavaSimulation;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.jaamsim.events.EventManager;
+import com.jaamsim.input.InputAgent;
+import com.jaamsim.units.TimeUnit;
+
+public class TestTimeSeries {
+
+	private static String hours;
+	private static String dimType;
+
+	private static void defineUnits() {
+		if (hours != null)
+			return;
+
+		// Time series lookups round to the nearest simulation tick
+		EventManager.initEventManager("TestTimeSeries").setSimTimeScale(4000.0d);
+
+		ObjectType t = InputAgent.defineEntityWithUniqueName(ObjectType.class, "DimType", true);
+		InputAgent.processEntity_Keyword_Value(t, "JavaClass", "com.jaamsim.units.DimensionlessUnit");
+		dimType = t.getInputName();
+
+		TimeUnit h = InputAgent.defineEntityWithUniqueName(TimeUnit.class, "h", true);
+		InputAgent.processEntity_Keyword_Value(h, "ConversionFactorToSI", "3600");
+		hours = h.getInputName();
+	}
+
+	private static TimeSeries makeSeries(Random rng, int numPoints, double spacing, String cycle) {
+		StringBuilder val = new StringBuilder();
+		double t = 0.0d;
+		for (int i = 0; i < numPoints; i++) {
+			int hh = (int)t;
+			int mm = (int)Math.round((t - hh) * 60.0d);
+			val.append(String.format((Locale)null, "{ '2010-01-%02d %02d:%02d:00' %.3f } ",
+			           1 + hh / 24, hh % 24, mm, rng.nextDouble()));
+			t += spacing * (0.5d + rng.nextInt(4));
+		}
+
+		TimeSeries ts = InputAgent.defineEntityWithUniqueName(TimeSeries.class, "TS", true);
+		InputAgent.processEntity_Keyword_Value(ts, "UnitType", dimType);
+		InputAgent.processEntity_Keyword_Value(ts, "Value", val.toString());
+		if (cycle != null)
+			InputAgent.processEntity_Keyword_Value(ts, "CycleTime", cycle + " " + hours);
+		ts.validate();
+		ts.earlyInit();
+		return ts;
+	}
+
+	// Compares lookups through a cursor with a plain binary search for a random walk
+	// through the series, with jumps in either direction across the cycle boundaries
+	private static void compare(TimeSeries ts, Random rng, double jump, double endTime) {
+		TimeSeriesCursor cursor = new TimeSeriesCursor();
+		TimeSeriesCursor search = new TimeSeriesCursor();
+		double cycle = ts.getCycleTimeInHours();
+		double time = 0.0d;
+		int n = 0;
+		while (time < endTime) {
+			// Neither this index nor the one following it is valid, forcing a search
+			search.index = -2;
+			assertEquals("lookup " + n + " at " + time,
+			             ts.getIndexForTimeHours(time, search), ts.getIndexForTimeHours(time, cursor));
+			n++;
+
+			double next = ts.getNextChangeTimeAfterHours(time);
+			int r = rng.nextInt(20);
+			if (r == 0)
+				time = Math.max(0.0d, time - rng.nextDouble() * jump);
+			else if (r == 1)
+				time += rng.nextDouble() * jump;
+			else if (r == 2 && cycle < Double.POSITIVE_INFINITY)
+				time = (Math.floor(time / cycle) + 1.0d) * cycle;
+			else if (r == 3 && next < Double.POSITIVE_INFINITY)
+				time = next;
+			else if (r == 4 && next < Double.POSITIVE_INFINITY)
+				time = next - 1.0e-9d;   // within one tick of the next entry
+			else if (r == 5 && next < Double.POSITIVE_INFINITY)
+				time = next - 1.0e-5d;   // just over one tick before the next entry
+			else
+				time += rng.nextDouble() * 0.5d;
+		}
+	}
+
+	@Test
+	public void CyclicSeries() {
+		defineUnits();
+		Random rng = new Random(1);
+		TimeSeries ts = makeSeries(rng, 300, 1.0d, "720");
+		compare(ts, rng, 1500.0d, 20000.0d);
+
+		// Cycle only slightly longer than the last entry
+		ts = makeSeries(rng, 50, 2.0d, null);
+		InputAgent.processEntity_Keyword_Value(ts, "CycleTime", String.format((Locale)null, "%f %s",
+		                                       ts.getMaxTimeValue() / 3600.0d + 0.5d, hours));
+		ts.validate();
+		compare(ts, rng, 400.0d, 5000.0d);
+	}
+
+	@Test
+	public void NonCyclicSeries() {
+		defineUnits();
+		Random rng = new Random(2);
+		TimeSeries ts = makeSeries(rng, 100, 1.0d, null);
+		compare(ts, rng, 50.0d, 400.0d);
+	}
+}
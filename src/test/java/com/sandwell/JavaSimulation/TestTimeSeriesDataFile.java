@@ -0,0 +1,143 @@
+/*
+ * JaamSim Discrete Event Simulation
+ * Copyright (C) 2014 Ausenco Engineering Canada Inc.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ */
+package com.sandwell.JavaSimulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.StringReader;
+
+import org.junit.Test;
+
+import com.jaamsim.units.DimensionlessUnit;
+
+public class TestTimeSeriesDataFile {
+
+	private static final double INF = Double.POSITIVE_INFINITY;
+
+	private static TimeSeriesData readCSV(String text, double min, double max) throws Exception {
+		BufferedReader b = new BufferedReader(new StringReader(text));
+		return TimeSeriesDataFile.readCSV(b, DimensionlessUnit.class, min, max, "test.csv");
+	}
+
+	private static String readCSVError(String text, double min, double max) throws Exception {
+		try {
+			readCSV(text, min, max);
+		}
+		catch (InputErrorException e) {
+			return e.getMessage();
+		}
+		return null;
+	}
+
+	@Test
+	public void testCSV() throws Exception {
+		String text = "# tide levels\n" +
+		              "2014-01-01 00:00:00, 1.5\n" +
+		              "\n" +
+		              "'2014-01-01 06:00:00', 2.5\n" +
+		              "2014-01-02 00:00:00, -0.5\n";
+		TimeSeriesData data = readCSV(text, -INF, INF);
+		assertEquals(3, data.timeList.length);
+		assertEquals(0.0d, data.timeList[0], 0.0d);
+		assertEquals(6.0d, data.timeList[1], 0.0d);
+		assertEquals(24.0d, data.timeList[2], 0.0d);
+		assertEquals(1.5d, data.valueList[0], 0.0d);
+		assertEquals(2.5d, data.valueList[1], 0.0d);
+		assertEquals(-0.5d, data.valueList[2], 0.0d);
+	}
+
+	@Test
+	public void testCSVErrors() throws Exception {
+		// Times out of order, the line number is reported
+		String msg = readCSVError("2014-01-01 06:00:00, 1.0\n2014-01-01 00:00:00, 2.0\n", -INF, INF);
+		assertTrue(msg.startsWith("test.csv line 2:"));
+		assertTrue(msg.contains("increasing order"));
+
+		// Repeated time
+		msg = readCSVError("2014-01-01 00:00:00, 1.0\n2014-01-01 00:00:00, 2.0\n", -INF, INF);
+		assertTrue(msg.contains("increasing order"));
+
+		// Bad dates
+		msg = readCSVError("2014-13-01 00:00:00, 1.0\n", -INF, INF);
+		assertTrue(msg.startsWith("test.csv line 1:"));
+		msg = readCSVError("yesterday, 1.0\n", -INF, INF);
+		assertTrue(msg.startsWith("test.csv line 1:"));
+
+		// Missing and non-numeric values
+		msg = readCSVError("2014-01-01 00:00:00\n", -INF, INF);
+		assertTrue(msg.startsWith("test.csv line 1:"));
+		msg = readCSVError("2014-01-01 00:00:00, abc\n", -INF, INF);
+		assertTrue(msg.startsWith("test.csv line 1:"));
+
+		// Units are not allowed for a dimensionless series
+		msg = readCSVError("2014-01-01 00:00:00, 1.0, m\n", -INF, INF);
+		assertTrue(msg.startsWith("test.csv line 1:"));
+	}
+
+	@Test
+	public void testCSVRange() throws Exception {
+		String text = "2014-01-01 00:00:00, 0.5\n2014-01-01 01:00:00, 1.5\n";
+		assertEquals(2, readCSV(text, 0.0d, 2.0d).timeList.length);
+
+		String msg = readCSVError(text, 0.0d, 1.0d);
+		assertTrue(msg.startsWith("test.csv line 2:"));
+
+		msg = readCSVError("2014-01-01 00:00:00, -0.5\n", 0.0d, INF);
+		assertTrue(msg.startsWith("test.csv line 1:"));
+	}
+
+	private static String readBinaryError(File file, double min, double max) {
+		try {
+			TimeSeriesDataFile.readBinary(file.toURI(), min, max);
+		}
+		catch (InputErrorException e) {
+			return e.getMessage();
+		}
+		return null;
+	}
+
+	@Test
+	public void testBinary() throws Exception {
+		File file = File.createTempFile("TestTimeSeriesDataFile", ".tsb");
+		file.deleteOnExit();
+
+		// Round trip
+		double[] times = { 0.0d, 0.5d, 1.0d, 24.0d };
+		double[] values = { 3.0d, -1.0d, 2.5d, 1.0e10d };
+		TimeSeriesDataFile.writeBinary(new TimeSeriesData(times, values), file);
+		TimeSeriesData data = TimeSeriesDataFile.readBinary(file.toURI(), -INF, INF);
+		assertEquals(times.length, data.timeList.length);
+		for (int i = 0; i < times.length; i++) {
+			assertEquals(times[i], data.timeList[i], 0.0d);
+			assertEquals(values[i], data.valueList[i], 0.0d);
+		}
+
+		// Range
+		String msg = readBinaryError(file, -INF, 1.0e9d);
+		assertTrue(msg.contains("record 3"));
+		msg = readBinaryError(file, 0.0d, INF);
+		assertTrue(msg.contains("record 1"));
+
+		// Times out of order
+		double[] badTimes = { 0.0d, 2.0d, 1.0d, 3.0d };
+		TimeSeriesDataFile.writeBinary(new TimeSeriesData(badTimes, values), file);
+		msg = readBinaryError(file, -INF, INF);
+		assertTrue(msg.contains("record 2"));
+		assertTrue(msg.contains("increasing order"));
+	}
+}